@@ -0,0 +1,37 @@
+package com.chess.config;
+
+import com.chess.engine.EvaluationCache;
+import com.chess.engine.TranspositionTable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Engine caches shared by every search of the node. Both live off-heap with a fixed budget,
+ * so their size does not count against -Xmx but against -XX:MaxDirectMemorySize.
+ */
+@Configuration
+public class EngineConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(EngineConfig.class);
+
+    @Value("${chess.engine.hash-mb:64}")
+    private int hashMb;
+
+    @Value("${chess.engine.eval-cache-mb:16}")
+    private int evalCacheMb;
+
+    @Bean
+    public TranspositionTable transpositionTable() {
+        logger.info("Allocating {} MB off-heap transposition table", hashMb);
+        return new TranspositionTable(hashMb);
+    }
+
+    @Bean
+    public EvaluationCache evaluationCache() {
+        logger.info("Allocating {} MB off-heap evaluation cache", evalCacheMb);
+        return new EvaluationCache(evalCacheMb);
+    }
+}
@@ -0,0 +1,63 @@
+package com.chess.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Refuses to start on a database created before games and moves took their ids from a sequence:
+ * ddl-auto=update leaves an IDENTITY id column as it is, and every insert would then fail with an
+ * error that does not say why. The README gives the migration steps.
+ */
+@Component
+public class SchemaCheck {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchemaCheck.class);
+
+    // Tables whose id comes from the sequence <table>_seq
+    private static final List<String> SEQUENCE_TABLES = List.of("games", "moves");
+
+    @Autowired
+    private DataSource dataSource;
+
+    // Injected so that the check runs once Hibernate has created or updated the schema
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    public void checkSequenceIds() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            for (String table : SEQUENCE_TABLES) {
+                if (isIdentity(connection, metaData, table)) {
+                    throw new IllegalStateException(table + ".id is still an IDENTITY column, but ids now come from the sequence "
+                            + table + "_seq: migrate the table as described in the README before starting");
+                }
+            }
+        }
+        logger.debug("Tables {} take their ids from sequences", SEQUENCE_TABLES);
+    }
+
+    private static boolean isIdentity(Connection connection, DatabaseMetaData metaData, String table) throws SQLException {
+        boolean upperCase = metaData.storesUpperCaseIdentifiers();
+        try (ResultSet columns = metaData.getColumns(connection.getCatalog(), connection.getSchema(),
+                upperCase ? table.toUpperCase() : table, upperCase ? "ID" : "id")) {
+            while (columns.next()) {
+                if ("YES".equals(columns.getString("IS_AUTOINCREMENT"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
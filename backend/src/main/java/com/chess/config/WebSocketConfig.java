@@ -1,14 +1,24 @@
 package com.chess.config;
 
+import com.chess.service.PresenceRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.messaging.simp.stomp.StompCommand;
 import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
 import org.springframework.messaging.support.ChannelInterceptor;
 import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
@@ -19,16 +29,42 @@ import java.security.Principal;
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    // spring.threads.virtual.enabled, on Java 21 or later: the same switch as Tomcat's request threads
+    @Autowired
+    private Environment environment;
+
+    // Messages handled at once per channel in virtual-thread mode
+    @Value("${chess.websocket.virtual-concurrency:1000}")
+    private int virtualConcurrency;
+
+    // Heartbeat period offered to clients, both ways; 0 turns heartbeats off
+    @Value("${chess.websocket.heartbeat-ms:10000}")
+    private long heartbeatMs;
+
+    // Defined by the broker configuration this class takes part in, hence lazy
+    @Lazy
+    @Autowired
+    private TaskScheduler messageBrokerTaskScheduler;
+
+    @Autowired
+    private PresenceRegistry presenceRegistry;
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        // Enable a simple memory-based message broker to carry the greeting messages back to the client
-        config.enableSimpleBroker("/topic", "/queue", "/user");
+        // Enable a simple memory-based message broker to carry the greeting messages back to the client.
+        // With heartbeats, it closes sessions silent for three periods, which ends their presence
+        config.enableSimpleBroker("/topic", "/queue", "/user")
+              .setHeartbeatValue(new long[] { heartbeatMs, heartbeatMs })
+              .setTaskScheduler(messageBrokerTaskScheduler);
         
         // Designate the "/app" prefix for messages that are bound for @MessageMapping-annotated methods
         config.setApplicationDestinationPrefixes("/app");
         
         // Set user destination prefix for private messages
         config.setUserDestinationPrefix("/user");
+        
+        // Deliver a session's outbound messages in the order they were sent (moves of a game, then GAME_OVER)
+        config.setPreservePublishOrder(true);
     }
 
     @Override
@@ -41,13 +77,32 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         // Register the "/websocket" endpoint for native WebSocket (without SockJS)
         registry.addEndpoint("/websocket")
                 .setAllowedOriginPatterns("*");
+        
+        // Hand a session's frames to the inbound pool one at a time, so moves reach the game mailboxes in the order sent
+        registry.setPreserveReceiveOrder(true);
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            registration.taskExecutor(virtualThreadExecutor("chess-stomp-out-"));
+        }
     }
 
     @Override
     public void configureClientInboundChannel(ChannelRegistration registration) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            registration.taskExecutor(virtualThreadExecutor("chess-stomp-in-"));
+        }
         registration.interceptors(new ChannelInterceptor() {
             @Override
             public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                // Every frame, heartbeats included, keeps the session's presence from expiring
+                String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+                if (sessionId != null) {
+                    presenceRegistry.touch(sessionId);
+                }
+                
                 StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
                 
                 if (StompCommand.CONNECT.equals(accessor.getCommand())) {
@@ -65,4 +120,17 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
             }
         });
     }
+
+    /**
+     * Channel pool whose threads are virtual: a message blocked on JDBC parks instead of holding one
+     * of the few platform threads, and the pool size only caps how many run at once
+     */
+    private ThreadPoolTaskExecutor virtualThreadExecutor(String prefix) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadFactory(new VirtualThreadTaskExecutor(prefix).getVirtualThreadFactory());
+        executor.setCorePoolSize(virtualConcurrency);
+        executor.setMaxPoolSize(virtualConcurrency);
+        executor.setAllowCoreThreadTimeOut(true);
+        return executor;
+    }
 }
\ No newline at end of file
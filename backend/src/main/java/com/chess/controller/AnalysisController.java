@@ -0,0 +1,40 @@
+package com.chess.controller;
+
+import com.chess.dto.AnalysisStatusDto;
+import com.chess.service.GameAnalysisService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/analysis")
+@CrossOrigin(origins = "*")
+public class AnalysisController {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnalysisController.class);
+
+    @Autowired
+    private GameAnalysisService gameAnalysisService;
+
+    @PostMapping("/run")
+    public ResponseEntity<AnalysisStatusDto> run() {
+        boolean started = gameAnalysisService.start();
+        logger.info("Game analysis run requested, started: {}", started);
+        HttpStatus status = started ? HttpStatus.ACCEPTED : HttpStatus.CONFLICT;
+        return ResponseEntity.status(status).body(gameAnalysisService.getStatus());
+    }
+
+    @PostMapping("/stop")
+    public ResponseEntity<AnalysisStatusDto> stop() {
+        gameAnalysisService.stop();
+        return ResponseEntity.ok(gameAnalysisService.getStatus());
+    }
+
+    @GetMapping("/status")
+    public ResponseEntity<AnalysisStatusDto> status() {
+        return ResponseEntity.ok(gameAnalysisService.getStatus());
+    }
+}
@@ -1,9 +1,11 @@
 package com.chess.controller;
 
+import com.chess.dto.HashingStatsDto;
 import com.chess.dto.UserDto;
+import com.chess.exception.UserAlreadyExistsException;
 import com.chess.model.User;
+import com.chess.service.PasswordHasher;
 import com.chess.service.UserServiceInterface;
-import com.chess.service.UserNotificationService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,7 +13,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -24,72 +27,83 @@ public class AuthController {
     private UserServiceInterface userService;
     
     @Autowired
-    private UserNotificationService userNotificationService;
+    private PasswordHasher passwordHasher;
     
     @PostMapping("/register")
-    public ResponseEntity<?> register(@RequestBody Map<String, String> request) {
-        logger.info("Registration attempt for username: {}", request.get("username"));
+    public CompletableFuture<ResponseEntity<?>> register(@RequestBody Map<String, String> request) {
+        String username = request.get("username");
+        logger.info("Registration attempt for username: {}", username);
         
-        try {
-            String username = request.get("username");
-            String password = request.get("password");
-            
-            if (username == null || username.trim().isEmpty()) {
-                return ResponseEntity.badRequest().body(Map.of("success", false, "message", "Username is required"));
-            }
-            
-            if (password == null || password.trim().isEmpty()) {
-                return ResponseEntity.badRequest().body(Map.of("success", false, "message", "Password is required"));
-            }
-            
-            UserDto user = userService.createUser(username, password);
-            
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("user", Map.of("id", user.getId(), "username", user.getUsername()));
-            
-            logger.info("User registered successfully: {}", username);
-            return ResponseEntity.ok(response);
-            
-        } catch (Exception e) {
-            logger.error("Registration failed for username: {}, error: {}", request.get("username"), e.getMessage());
-            return ResponseEntity.badRequest().body(Map.of("success", false, "message", e.getMessage()));
+        if (username == null || username.trim().isEmpty()) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(Map.of("success", false, "message", "Username is required")));
+        }
+        
+        String password = request.get("password");
+        if (password == null || password.trim().isEmpty()) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(Map.of("success", false, "message", "Password is required")));
         }
+        
+        // Hashed off the request thread; a full hashing queue throws ServerBusyException, answered with a 503
+        return userService.createUserAsync(username, password)
+            .<ResponseEntity<?>>thenApply(user -> {
+                Map<String, Object> response = new HashMap<>();
+                response.put("success", true);
+                response.put("user", Map.of("id", user.getId(), "username", user.getUsername()));
+                
+                logger.info("User registered successfully: {}", username);
+                return ResponseEntity.ok(response);
+            })
+            .exceptionally(failure -> {
+                Throwable cause = failure instanceof CompletionException ? failure.getCause() : failure;
+                if (!(cause instanceof UserAlreadyExistsException)) {
+                    // Left to GlobalExceptionHandler, which keeps internal details out of the reply
+                    throw failure instanceof CompletionException completion ? completion : new CompletionException(cause);
+                }
+                logger.warn("Registration failed for username: {}, error: {}", username, cause.getMessage());
+                return ResponseEntity.badRequest().body(Map.of("success", false, "message", cause.getMessage()));
+            });
     }
     
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody Map<String, String> request) {
+    public CompletableFuture<ResponseEntity<?>> login(@RequestBody Map<String, String> request) {
         String username = request.get("username");
         logger.info("Login attempt for username: {}", username);
         
         if (username == null || username.trim().isEmpty()) {
-            return ResponseEntity.badRequest().body(Map.of("success", false, "message", "Username is required"));
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(Map.of("success", false, "message", "Username is required")));
         }
         
         String password = request.get("password");
         if (password == null || password.trim().isEmpty()) {
-            return ResponseEntity.badRequest().body(Map.of("success", false, "message", "Password is required"));
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(Map.of("success", false, "message", "Password is required")));
         }
         
-        Optional<UserDto> userOpt = userService.authenticate(username, password);
-        
-        if (userOpt.isPresent()) {
-            UserDto user = userOpt.get();
-            userService.setUserOnline(username, true);
-            
-            // Notifier tous les utilisateurs que cet utilisateur est en ligne
-            userNotificationService.notifyUserOnline(username);
-            
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("user", Map.of("id", user.getId(), "username", user.getUsername()));
-            
-            logger.info("User logged in successfully: {}", username);
-            return ResponseEntity.ok(response);
-        } else {
-            logger.warn("Login failed for username: {}", username);
-            return ResponseEntity.badRequest().body(Map.of("success", false, "message", "Invalid credentials"));
-        }
+        // Marking the user online may read the database: not on a hashing thread
+        return userService.authenticateAsync(username, password).thenApplyAsync(userOpt -> {
+            if (userOpt.isPresent()) {
+                UserDto user = userOpt.get();
+                // Annoncé aux autres utilisateurs par le prochain delta de présence
+                userService.setUserOnline(username, true);
+                
+                Map<String, Object> response = new HashMap<>();
+                response.put("success", true);
+                response.put("user", Map.of("id", user.getId(), "username", user.getUsername()));
+                
+                logger.info("User logged in successfully: {}", username);
+                return ResponseEntity.ok(response);
+            } else {
+                logger.warn("Login failed for username: {}", username);
+                return ResponseEntity.badRequest().body(Map.of("success", false, "message", "Invalid credentials"));
+            }
+        }, passwordHasher.ioExecutor());
+    }
+    
+    /**
+     * Queue depth, wait and hashing time of password hashing, to size chess.auth.*
+     */
+    @GetMapping("/hashing")
+    public ResponseEntity<HashingStatsDto> getHashingStats() {
+        return ResponseEntity.ok(new HashingStatsDto(passwordHasher.stats()));
     }
     
     @PostMapping("/logout")
@@ -98,11 +112,9 @@ public class AuthController {
         logger.info("Logout request for username: {}", username);
         
         if (username != null && !username.trim().isEmpty()) {
+            // Annoncé aux autres utilisateurs par le prochain delta de présence
             userService.setUserOnline(username, false);
             
-            // Notifier tous les utilisateurs que cet utilisateur est hors ligne
-            userNotificationService.notifyUserOffline(username);
-            
             logger.info("User logged out successfully: {}", username);
         }
         
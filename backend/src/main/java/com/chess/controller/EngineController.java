@@ -0,0 +1,34 @@
+package com.chess.controller;
+
+import com.chess.dto.CacheStatsDto;
+import com.chess.engine.EvaluationCache;
+import com.chess.engine.TranspositionTable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/engine")
+@CrossOrigin(origins = "*")
+public class EngineController {
+
+    @Autowired
+    private TranspositionTable transpositionTable;
+
+    @Autowired
+    private EvaluationCache evaluationCache;
+
+    /**
+     * Occupancy and hit rate of the engine caches, to size chess.engine.hash-mb and eval-cache-mb per node
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, CacheStatsDto>> getCacheStats() {
+        Map<String, CacheStatsDto> stats = new LinkedHashMap<>();
+        stats.put("transpositionTable", new CacheStatsDto(transpositionTable.stats()));
+        stats.put("evaluationCache", new CacheStatsDto(evaluationCache.stats()));
+        return ResponseEntity.ok(stats);
+    }
+}
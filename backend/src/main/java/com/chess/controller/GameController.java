@@ -1,19 +1,40 @@
 package com.chess.controller;
 
+import com.chess.dto.BookMoveDto;
 import com.chess.dto.GameDto;
+import com.chess.dto.GameHistoryDto;
 import com.chess.dto.GameResponseDto;
+import com.chess.dto.MailboxStatsDto;
 import com.chess.dto.MoveDto;
+import com.chess.dto.PositionDto;
+import com.chess.dto.PresenceSnapshotDto;
+import com.chess.dto.UserCacheStatsDto;
 import com.chess.dto.UserDto;
+import com.chess.model.Game;
 import com.chess.model.User;
+import com.chess.service.GameMailboxes;
 import com.chess.service.GameServiceInterface;
+import com.chess.service.OpeningBookService;
+import com.chess.service.PgnExportService;
+import com.chess.service.UserCache;
+import com.chess.service.UserNotificationService;
 import com.chess.service.UserServiceInterface;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/game")
@@ -22,12 +43,29 @@ public class GameController {
     
     private static final Logger logger = LoggerFactory.getLogger(GameController.class);
     
+    private static final int MAX_HISTORY_PAGE = 100;
+    
     @Autowired
     private GameServiceInterface gameService;
     
     @Autowired
     private UserServiceInterface userService;
     
+    @Autowired
+    private OpeningBookService openingBookService;
+    
+    @Autowired
+    private PgnExportService pgnExportService;
+    
+    @Autowired
+    private GameMailboxes gameMailboxes;
+    
+    @Autowired
+    private UserNotificationService userNotificationService;
+    
+    @Autowired
+    private UserCache userCache;
+    
     @GetMapping("/online-users")
     public ResponseEntity<List<UserDto>> getOnlineUsers() {
         logger.info("Getting online users");
@@ -35,41 +73,155 @@ public class GameController {
         return ResponseEntity.ok(onlineUsers);
     }
     
+    /**
+     * Online users with the presence version they match, to apply the deltas of /topic/users on
+     */
+    @GetMapping("/presence")
+    public ResponseEntity<PresenceSnapshotDto> getPresence() {
+        return ResponseEntity.ok(userNotificationService.presenceSnapshot());
+    }
+    
+    /**
+     * Hits, misses and evictions of the user lookup cache, to size chess.user-cache.*
+     */
+    @GetMapping("/user-cache")
+    public ResponseEntity<UserCacheStatsDto> getUserCacheStats() {
+        return ResponseEntity.ok(new UserCacheStatsDto(userCache.stats()));
+    }
+    
+    /**
+     * Streams the archive as PGN while it is read; from and to are inclusive days
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportPgn(
+            @RequestParam(value = "player", required = false) String player,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(value = "gzip", defaultValue = "false") boolean gzip) {
+        logger.info("Exporting games as PGN (player: {}, from: {}, to: {}, gzip: {})", player, from, to, gzip);
+        LocalDateTime start = from != null ? from.atStartOfDay() : null;
+        LocalDateTime end = to != null ? to.plusDays(1).atStartOfDay() : null;
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream compressed = new GZIPOutputStream(out, 64 * 1024);
+                pgnExportService.export(compressed, player, start, end);
+                compressed.finish();
+            } else {
+                pgnExportService.export(out, player, start, end);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(gzip ? MediaType.parseMediaType("application/gzip")
+                                  : MediaType.parseMediaType("application/x-chess-pgn"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"games.pgn" + (gzip ? ".gz" : "") + "\"")
+                .body(body);
+    }
+    
+    /**
+     * Game, moves, legal moves and position; answers 304 without loading the game when the
+     * client's If-None-Match still matches its version
+     */
     @GetMapping("/{gameId}")
-    public ResponseEntity<GameResponseDto> getGame(@PathVariable("gameId") Long gameId) {
+    public ResponseEntity<GameResponseDto> getGame(@PathVariable("gameId") Long gameId, WebRequest request) {
         logger.info("Getting game with ID: {}", gameId);
         
-        Optional<GameDto> gameOpt = gameService.findGameById(gameId);
-        if (gameOpt.isPresent()) {
-            GameDto game = gameOpt.get();
-            List<MoveDto> moves = gameService.getGameMoves(gameId);
-            
-            GameResponseDto response = new GameResponseDto(game, moves);
-            return ResponseEntity.ok(response);
-        } else {
-            logger.warn("Game not found with ID: {}", gameId);
-            return ResponseEntity.notFound().build();
+        String version = gameService.getGameVersion(gameId);
+        if (version != null && request.checkNotModified(version)) {
+            return null;
         }
+        GameResponseDto response = gameService.getGameSnapshot(gameId);
+        return ResponseEntity.ok()
+                .eTag(response.getVersion())
+                .cacheControl(CacheControl.noCache())
+                .body(response);
     }
     
+    /**
+     * Moves of a game; with sinceMove only those played after that move number
+     */
     @GetMapping("/{gameId}/moves")
-    public ResponseEntity<List<MoveDto>> getGameMoves(@PathVariable("gameId") Long gameId) {
-        logger.info("Getting moves for game: {}", gameId);
-        List<MoveDto> moves = gameService.getGameMoves(gameId);
+    public ResponseEntity<List<MoveDto>> getGameMoves(@PathVariable("gameId") Long gameId,
+                                                      @RequestParam(value = "sinceMove", required = false) Integer sinceMove) {
+        logger.info("Getting moves for game {} after move {}", gameId, sinceMove);
+        List<MoveDto> moves = gameService.getGameMoves(gameId, sinceMove);
         return ResponseEntity.ok(moves);
     }
     
+    @GetMapping("/{gameId}/position")
+    public ResponseEntity<PositionDto> getPosition(@PathVariable("gameId") Long gameId,
+                                                   @RequestParam(value = "ply", required = false) Integer ply) {
+        logger.info("Getting position of game {} at ply {}", gameId, ply);
+        PositionDto position = gameService.getPosition(gameId, ply);
+        if (position == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(position);
+    }
+    
+    /**
+     * Move mailbox of every game, deepest first
+     */
+    @GetMapping("/mailboxes")
+    public ResponseEntity<List<MailboxStatsDto>> getMailboxes() {
+        return ResponseEntity.ok(gameMailboxes.stats().stream().map(MailboxStatsDto::new).toList());
+    }
+    
+    /**
+     * Depth and latency of the game's move mailbox
+     */
+    @GetMapping("/{gameId}/mailbox")
+    public ResponseEntity<MailboxStatsDto> getMailbox(@PathVariable("gameId") Long gameId) {
+        GameMailboxes.MailboxStats stats = gameMailboxes.stats(gameId);
+        if (stats == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(new MailboxStatsDto(stats));
+    }
+    
+    @GetMapping("/{gameId}/book")
+    public ResponseEntity<List<BookMoveDto>> getBookMoves(@PathVariable("gameId") Long gameId) {
+        logger.info("Getting opening book moves for game: {}", gameId);
+        return ResponseEntity.ok(openingBookService.getHints(gameId));
+    }
+    
     @GetMapping("/test/{username}")
     public ResponseEntity<String> testEndpoint(@PathVariable("username") String username) {
         logger.debug("Test endpoint called for user: {}", username);
         return ResponseEntity.ok("Hello " + username);
     }
     
+    /**
+     * A player's games, newest first; pass the returned nextCursor to get the following page
+     */
+    @GetMapping("/history/{username}")
+    public ResponseEntity<GameHistoryDto> getGameHistory(@PathVariable("username") String username,
+                                                         @RequestParam(value = "status", defaultValue = "FINISHED") Game.GameStatus status,
+                                                         @RequestParam(value = "cursor", required = false) String cursor,
+                                                         @RequestParam(value = "size", defaultValue = "20") int size) {
+        logger.info("Getting {} game history for user: {}", status, username);
+        
+        // Only the id is read: the cached identity is enough
+        Optional<User> userOpt = userService.findUserRef(username).map(UserCache.CachedUser::toReference);
+        if (userOpt.isEmpty()) {
+            logger.warn("User not found: {}", username);
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            int pageSize = Math.max(1, Math.min(size, MAX_HISTORY_PAGE));
+            return ResponseEntity.ok(gameService.getGameHistory(userOpt.get(), status, cursor, pageSize));
+        } catch (IllegalArgumentException e) {
+            logger.warn(e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     @GetMapping("/active/{username}")
     public ResponseEntity<GameResponseDto> getActiveGame(@PathVariable("username") String username) {
         logger.info("Getting active game for user: {}", username);
         
-        Optional<User> userOpt = userService.findByUsername(username);
+        // Only the id is read: the cached identity is enough
+        Optional<User> userOpt = userService.findUserRef(username).map(UserCache.CachedUser::toReference);
         if (userOpt.isEmpty()) {
             logger.warn("User not found: {}", username);
             return ResponseEntity.notFound().build();
@@ -77,10 +229,7 @@ public class GameController {
         
         Optional<GameDto> activeGameOpt = gameService.findActiveGameByPlayer(userOpt.get());
         if (activeGameOpt.isPresent()) {
-            GameDto game = activeGameOpt.get();
-            List<MoveDto> moves = gameService.getGameMoves(game.getId());
-            GameResponseDto response = new GameResponseDto(game, moves);
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(gameService.getGameSnapshot(activeGameOpt.get().getId()));
         } else {
             // Return empty response when no active game
             GameResponseDto response = new GameResponseDto(null, List.of());
@@ -2,9 +2,11 @@ package com.chess.controller;
 
 import com.chess.dto.GameDto;
 import com.chess.dto.GameMessage;
-import com.chess.dto.MoveDto;
 import com.chess.dto.MoveMessage;
 import com.chess.model.User;
+import com.chess.service.ComputerPlayerService;
+import com.chess.service.GameMailboxes;
+import com.chess.service.GameNotificationService;
 import com.chess.service.GameServiceInterface;
 import com.chess.service.UserServiceInterface;
 import org.slf4j.Logger;
@@ -29,6 +31,15 @@ public class GameWebSocketController {
     @Autowired
     private GameServiceInterface gameService;
     
+    @Autowired
+    private GameNotificationService gameNotificationService;
+    
+    @Autowired
+    private ComputerPlayerService computerPlayerService;
+    
+    @Autowired
+    private GameMailboxes gameMailboxes;
+    
     @MessageMapping("/invite")
     public void sendInvite(GameMessage message) {
         logger.info("User {} sending invite to {}", message.getFrom(), message.getTo());
@@ -39,6 +50,12 @@ public class GameWebSocketController {
             return;
         }
         
+        // The computer opponent accepts every invite right away
+        if (computerPlayerService.isComputer(message.getTo())) {
+            handleInviteResponse(new GameMessage("ACCEPT", message.getFrom(), message.getTo()));
+            return;
+        }
+        
         // Debug: Log the message being sent
         logger.debug("Sending message to user '{}': {}", message.getTo(), message);
         
@@ -100,6 +117,7 @@ public class GameWebSocketController {
                     }
                     
                     logger.info("Game {} created and players notified", game.getId());
+                    computerPlayerService.onGameStarted(game);
                 } else {
                     logger.error("Could not find users for game creation: inviter={}, invitee={}", 
                                message.getFrom(), message.getTo());
@@ -129,35 +147,43 @@ public class GameWebSocketController {
     
     @MessageMapping("/move")
     public void handleMove(MoveMessage moveMessage) {
+        Long gameId = moveMessage.getGameId();
         logger.info("Processing move in game {}: {} to {}", 
-                   moveMessage.getGameId(), 
+                   gameId, 
                    moveMessage.getFrom(), moveMessage.getTo());
+        if (gameId == null) {
+            logger.error("Move without game id ignored");
+            return;
+        }
         
-        try {
-            MoveDto move = gameService.makeMove(
-                moveMessage.getGameId(),
+        // Queued on the game's mailbox: moves of one game are applied and broadcast in arrival order
+        gameMailboxes.submit(gameId,
+            () -> gameService.makeMoveAsync(
+                gameId,
                 moveMessage.getFrom(),
                 moveMessage.getTo(),
                 moveMessage.getPiece(),
-                moveMessage.getPlayerColor()
-            );
-            
-            // Broadcast move to game room
-            messagingTemplate.convertAndSend(
-                "/topic/game/" + moveMessage.getGameId(),
-                move
-            );
-            
-            logger.info("Move completed and broadcasted: {}", move.getMoveNotation());
-            
-        } catch (Exception e) {
-            logger.error("Error processing move: {}", e.getMessage());
-            // Send error to game room
-            messagingTemplate.convertAndSend(
-                "/topic/game/" + moveMessage.getGameId(),
-                new GameMessage("ERROR", "system", "all")
-            );
-        }
+                moveMessage.getPlayerColor(),
+                moveMessage.getPromotion()
+            ),
+            (move, error) -> {
+                if (error != null) {
+                    logger.error("Error processing move: {}", error.getMessage());
+                    // Send error to game room
+                    messagingTemplate.convertAndSend(
+                        "/topic/game/" + gameId,
+                        new GameMessage("ERROR", "system", "all")
+                    );
+                    return;
+                }
+                
+                // Broadcast move to game room
+                gameNotificationService.notifyMove(gameId, move);
+                
+                logger.info("Move completed and broadcasted: {}", move.getMoveNotation());
+                
+                computerPlayerService.onMovePlayed(gameId, move);
+            });
     }
     
     @MessageMapping("/join-game")
@@ -0,0 +1,35 @@
+package com.chess.dto;
+
+public class AnalysisStatusDto {
+    private boolean running;
+    private long analyzedGames;
+    private long failedGames;
+    private long analyzedPlies;
+    private long remainingGames;
+    private long elapsedMillis;
+    private double gamesPerMinute;
+
+    public AnalysisStatusDto() {}
+
+    // Getters and Setters
+    public boolean isRunning() { return running; }
+    public void setRunning(boolean running) { this.running = running; }
+
+    public long getAnalyzedGames() { return analyzedGames; }
+    public void setAnalyzedGames(long analyzedGames) { this.analyzedGames = analyzedGames; }
+
+    public long getFailedGames() { return failedGames; }
+    public void setFailedGames(long failedGames) { this.failedGames = failedGames; }
+
+    public long getAnalyzedPlies() { return analyzedPlies; }
+    public void setAnalyzedPlies(long analyzedPlies) { this.analyzedPlies = analyzedPlies; }
+
+    public long getRemainingGames() { return remainingGames; }
+    public void setRemainingGames(long remainingGames) { this.remainingGames = remainingGames; }
+
+    public long getElapsedMillis() { return elapsedMillis; }
+    public void setElapsedMillis(long elapsedMillis) { this.elapsedMillis = elapsedMillis; }
+
+    public double getGamesPerMinute() { return gamesPerMinute; }
+    public void setGamesPerMinute(double gamesPerMinute) { this.gamesPerMinute = gamesPerMinute; }
+}
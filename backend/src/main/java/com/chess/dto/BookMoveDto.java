@@ -0,0 +1,36 @@
+package com.chess.dto;
+
+import com.chess.engine.Bitboards;
+import com.chess.engine.Moves;
+import com.chess.engine.OpeningBook;
+import com.chess.engine.Piece;
+
+public class BookMoveDto {
+    private String fromPosition;
+    private String toPosition;
+    private String promotion;
+    private int weight;
+
+    public BookMoveDto() {}
+
+    public BookMoveDto(OpeningBook.BookMove bookMove) {
+        int move = bookMove.move();
+        this.fromPosition = Bitboards.squareName(Moves.from(move));
+        this.toPosition = Bitboards.squareName(Moves.to(move));
+        this.promotion = Moves.isPromotion(move) ? Piece.typeName(Moves.promotionType(move)) : null;
+        this.weight = bookMove.weight();
+    }
+
+    // Getters and Setters
+    public String getFromPosition() { return fromPosition; }
+    public void setFromPosition(String fromPosition) { this.fromPosition = fromPosition; }
+
+    public String getToPosition() { return toPosition; }
+    public void setToPosition(String toPosition) { this.toPosition = toPosition; }
+
+    public String getPromotion() { return promotion; }
+    public void setPromotion(String promotion) { this.promotion = promotion; }
+
+    public int getWeight() { return weight; }
+    public void setWeight(int weight) { this.weight = weight; }
+}
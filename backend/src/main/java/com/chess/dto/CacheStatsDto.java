@@ -0,0 +1,47 @@
+package com.chess.dto;
+
+import com.chess.engine.CacheStats;
+
+public class CacheStatsDto {
+    private long sizeBytes;
+    private long capacity;
+    private double occupancy;
+    private long probes;
+    private long hits;
+    private long stores;
+    private double hitRate;
+
+    public CacheStatsDto() {}
+
+    public CacheStatsDto(CacheStats stats) {
+        this.sizeBytes = stats.sizeBytes();
+        this.capacity = stats.capacity();
+        this.occupancy = stats.occupancy();
+        this.probes = stats.probes();
+        this.hits = stats.hits();
+        this.stores = stats.stores();
+        this.hitRate = stats.hitRate();
+    }
+
+    // Getters and Setters
+    public long getSizeBytes() { return sizeBytes; }
+    public void setSizeBytes(long sizeBytes) { this.sizeBytes = sizeBytes; }
+
+    public long getCapacity() { return capacity; }
+    public void setCapacity(long capacity) { this.capacity = capacity; }
+
+    public double getOccupancy() { return occupancy; }
+    public void setOccupancy(double occupancy) { this.occupancy = occupancy; }
+
+    public long getProbes() { return probes; }
+    public void setProbes(long probes) { this.probes = probes; }
+
+    public long getHits() { return hits; }
+    public void setHits(long hits) { this.hits = hits; }
+
+    public long getStores() { return stores; }
+    public void setStores(long stores) { this.stores = stores; }
+
+    public double getHitRate() { return hitRate; }
+    public void setHitRate(double hitRate) { this.hitRate = hitRate; }
+}
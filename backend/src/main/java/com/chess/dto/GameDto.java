@@ -9,6 +9,10 @@ public class GameDto {
     private UserDto blackPlayer;
     private String status;
     private String currentTurn;
+    private String result;
+    private String endReason;
+    private Double whiteAccuracy;
+    private Double blackAccuracy;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
@@ -20,6 +24,10 @@ public class GameDto {
         this.blackPlayer = game.getBlackPlayer() != null ? new UserDto(game.getBlackPlayer()) : null;
         this.status = game.getStatus() != null ? game.getStatus().toString() : null;
         this.currentTurn = game.getCurrentTurn();
+        this.result = game.getResult();
+        this.endReason = game.getEndReason() != null ? game.getEndReason().toString() : null;
+        this.whiteAccuracy = game.getWhiteAccuracy();
+        this.blackAccuracy = game.getBlackAccuracy();
         this.createdAt = game.getCreatedAt();
         this.updatedAt = game.getUpdatedAt();
     }
@@ -40,6 +48,18 @@ public class GameDto {
     public String getCurrentTurn() { return currentTurn; }
     public void setCurrentTurn(String currentTurn) { this.currentTurn = currentTurn; }
 
+    public String getResult() { return result; }
+    public void setResult(String result) { this.result = result; }
+
+    public String getEndReason() { return endReason; }
+    public void setEndReason(String endReason) { this.endReason = endReason; }
+
+    public Double getWhiteAccuracy() { return whiteAccuracy; }
+    public void setWhiteAccuracy(Double whiteAccuracy) { this.whiteAccuracy = whiteAccuracy; }
+
+    public Double getBlackAccuracy() { return blackAccuracy; }
+    public void setBlackAccuracy(Double blackAccuracy) { this.blackAccuracy = blackAccuracy; }
+
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 
@@ -0,0 +1,25 @@
+package com.chess.dto;
+
+import java.util.List;
+
+/**
+ * A page of game history; nextCursor fetches the following page and is null on the last one
+ */
+public class GameHistoryDto {
+    private List<GameSummaryDto> games;
+    private String nextCursor;
+
+    public GameHistoryDto() {}
+
+    public GameHistoryDto(List<GameSummaryDto> games, String nextCursor) {
+        this.games = games;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters and Setters
+    public List<GameSummaryDto> getGames() { return games; }
+    public void setGames(List<GameSummaryDto> games) { this.games = games; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+}
@@ -5,6 +5,9 @@ import java.util.List;
 public class GameResponseDto {
     private GameDto game;
     private List<MoveDto> moves;
+    private LegalMovesDto legalMoves;
+    private String fen;
+    private String version;
 
     public GameResponseDto() {}
 
@@ -19,4 +22,13 @@ public class GameResponseDto {
 
     public List<MoveDto> getMoves() { return moves; }
     public void setMoves(List<MoveDto> moves) { this.moves = moves; }
-}
\ No newline at end of file
+
+    public LegalMovesDto getLegalMoves() { return legalMoves; }
+    public void setLegalMoves(LegalMovesDto legalMoves) { this.legalMoves = legalMoves; }
+
+    public String getFen() { return fen; }
+    public void setFen(String fen) { this.fen = fen; }
+
+    public String getVersion() { return version; }
+    public void setVersion(String version) { this.version = version; }
+}
@@ -0,0 +1,62 @@
+package com.chess.dto;
+
+import com.chess.model.Game;
+import java.time.LocalDateTime;
+
+/**
+ * One line of a player's game history, selected column by column rather than loaded as a Game
+ */
+public class GameSummaryDto {
+    private Long id;
+    private String whitePlayer;
+    private String blackPlayer;
+    private String status;
+    private String result;
+    private String endReason;
+    private Integer plyCount;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    public GameSummaryDto() {}
+
+    public GameSummaryDto(Long id, String whitePlayer, String blackPlayer, Game.GameStatus status, String result,
+                          Game.EndReason endReason, Integer plyCount, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.whitePlayer = whitePlayer;
+        this.blackPlayer = blackPlayer;
+        this.status = status != null ? status.toString() : null;
+        this.result = result;
+        this.endReason = endReason != null ? endReason.toString() : null;
+        this.plyCount = plyCount;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getWhitePlayer() { return whitePlayer; }
+    public void setWhitePlayer(String whitePlayer) { this.whitePlayer = whitePlayer; }
+
+    public String getBlackPlayer() { return blackPlayer; }
+    public void setBlackPlayer(String blackPlayer) { this.blackPlayer = blackPlayer; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public String getResult() { return result; }
+    public void setResult(String result) { this.result = result; }
+
+    public String getEndReason() { return endReason; }
+    public void setEndReason(String endReason) { this.endReason = endReason; }
+
+    public Integer getPlyCount() { return plyCount; }
+    public void setPlyCount(Integer plyCount) { this.plyCount = plyCount; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -0,0 +1,57 @@
+package com.chess.dto;
+
+import com.chess.service.PasswordHasher;
+
+public class HashingStatsDto {
+    private int threads;
+    private int queued;
+    private int queueCapacity;
+    private long completed;
+    private long rejected;
+    private double averageWaitMs;
+    private double maxWaitMs;
+    private double averageHashMs;
+    private double maxHashMs;
+
+    public HashingStatsDto() {}
+
+    public HashingStatsDto(PasswordHasher.HashingStats stats) {
+        this.threads = stats.threads();
+        this.queued = stats.queued();
+        this.queueCapacity = stats.queueCapacity();
+        this.completed = stats.completed();
+        this.rejected = stats.rejected();
+        this.averageWaitMs = stats.averageWaitMillis();
+        this.maxWaitMs = stats.maxWaitMillis();
+        this.averageHashMs = stats.averageHashMillis();
+        this.maxHashMs = stats.maxHashMillis();
+    }
+
+    // Getters and Setters
+    public int getThreads() { return threads; }
+    public void setThreads(int threads) { this.threads = threads; }
+
+    public int getQueued() { return queued; }
+    public void setQueued(int queued) { this.queued = queued; }
+
+    public int getQueueCapacity() { return queueCapacity; }
+    public void setQueueCapacity(int queueCapacity) { this.queueCapacity = queueCapacity; }
+
+    public long getCompleted() { return completed; }
+    public void setCompleted(long completed) { this.completed = completed; }
+
+    public long getRejected() { return rejected; }
+    public void setRejected(long rejected) { this.rejected = rejected; }
+
+    public double getAverageWaitMs() { return averageWaitMs; }
+    public void setAverageWaitMs(double averageWaitMs) { this.averageWaitMs = averageWaitMs; }
+
+    public double getMaxWaitMs() { return maxWaitMs; }
+    public void setMaxWaitMs(double maxWaitMs) { this.maxWaitMs = maxWaitMs; }
+
+    public double getAverageHashMs() { return averageHashMs; }
+    public void setAverageHashMs(double averageHashMs) { this.averageHashMs = averageHashMs; }
+
+    public double getMaxHashMs() { return maxHashMs; }
+    public void setMaxHashMs(double maxHashMs) { this.maxHashMs = maxHashMs; }
+}
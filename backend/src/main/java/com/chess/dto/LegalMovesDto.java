@@ -0,0 +1,38 @@
+package com.chess.dto;
+
+import com.chess.engine.Bitboards;
+import com.chess.engine.MoveGenerator;
+import com.chess.engine.Position;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Legal moves of the side to move as square bitmasks (bit i = square i, a1 = 0 ... h8 = 63).
+ * Masks are hexadecimal strings because JavaScript numbers cannot hold 64 bits; read them with
+ * {@code BigInt("0x" + mask)}. A promotion appears once per target square; the piece is chosen separately.
+ */
+public class LegalMovesDto {
+    private String from;
+    private Map<String, String> to;
+
+    public LegalMovesDto() {}
+
+    public LegalMovesDto(Position position) {
+        long[] toMasks = new long[64];
+        long fromMask = MoveGenerator.legalMoveMasks(position, toMasks);
+        this.from = Long.toHexString(fromMask);
+        this.to = new LinkedHashMap<>();
+        for (long squares = fromMask; squares != 0; squares &= squares - 1) {
+            int square = Long.numberOfTrailingZeros(squares);
+            to.put(Bitboards.squareName(square), Long.toHexString(toMasks[square]));
+        }
+    }
+
+    // Getters and Setters
+    public String getFrom() { return from; }
+    public void setFrom(String from) { this.from = from; }
+
+    public Map<String, String> getTo() { return to; }
+    public void setTo(Map<String, String> to) { this.to = to; }
+}
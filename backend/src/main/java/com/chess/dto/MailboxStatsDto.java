@@ -0,0 +1,42 @@
+package com.chess.dto;
+
+import com.chess.service.GameMailboxes;
+
+public class MailboxStatsDto {
+    private Long gameId;
+    private int depth;
+    private long processed;
+    private long failed;
+    private double averageLatencyMs;
+    private double maxLatencyMs;
+
+    public MailboxStatsDto() {}
+
+    public MailboxStatsDto(GameMailboxes.MailboxStats stats) {
+        this.gameId = stats.gameId();
+        this.depth = stats.depth();
+        this.processed = stats.processed();
+        this.failed = stats.failed();
+        this.averageLatencyMs = stats.averageLatencyMillis();
+        this.maxLatencyMs = stats.maxLatencyMillis();
+    }
+
+    // Getters and Setters
+    public Long getGameId() { return gameId; }
+    public void setGameId(Long gameId) { this.gameId = gameId; }
+
+    public int getDepth() { return depth; }
+    public void setDepth(int depth) { this.depth = depth; }
+
+    public long getProcessed() { return processed; }
+    public void setProcessed(long processed) { this.processed = processed; }
+
+    public long getFailed() { return failed; }
+    public void setFailed(long failed) { this.failed = failed; }
+
+    public double getAverageLatencyMs() { return averageLatencyMs; }
+    public void setAverageLatencyMs(double averageLatencyMs) { this.averageLatencyMs = averageLatencyMs; }
+
+    public double getMaxLatencyMs() { return maxLatencyMs; }
+    public void setMaxLatencyMs(double maxLatencyMs) { this.maxLatencyMs = maxLatencyMs; }
+}
@@ -9,8 +9,15 @@ public class MoveDto {
     private String toPosition;
     private String pieceType;
     private String playerColor;
+    private String capturedPiece;
+    private String promotion;
     private Integer moveNumber;
     private String moveNotation;
+    private String result;
+    private String endReason;
+    private Integer evaluation;
+    private String annotation;
+    private LegalMovesDto legalMoves;
     private LocalDateTime createdAt;
 
     public MoveDto() {}
@@ -21,8 +28,12 @@ public class MoveDto {
         this.toPosition = move.getToPosition();
         this.pieceType = move.getPieceType();
         this.playerColor = move.getPlayerColor();
+        this.capturedPiece = move.getCapturedPiece();
+        this.promotion = move.getPromotion();
         this.moveNumber = move.getMoveNumber();
         this.moveNotation = move.getMoveNotation();
+        this.evaluation = move.getEvaluation();
+        this.annotation = move.getAnnotation() != null ? move.getAnnotation().toString() : null;
         this.createdAt = move.getCreatedAt();
     }
 
@@ -42,12 +53,33 @@ public class MoveDto {
     public String getPlayerColor() { return playerColor; }
     public void setPlayerColor(String playerColor) { this.playerColor = playerColor; }
 
+    public String getCapturedPiece() { return capturedPiece; }
+    public void setCapturedPiece(String capturedPiece) { this.capturedPiece = capturedPiece; }
+
+    public String getPromotion() { return promotion; }
+    public void setPromotion(String promotion) { this.promotion = promotion; }
+
     public Integer getMoveNumber() { return moveNumber; }
     public void setMoveNumber(Integer moveNumber) { this.moveNumber = moveNumber; }
 
     public String getMoveNotation() { return moveNotation; }
     public void setMoveNotation(String moveNotation) { this.moveNotation = moveNotation; }
 
+    public String getResult() { return result; }
+    public void setResult(String result) { this.result = result; }
+
+    public String getEndReason() { return endReason; }
+    public void setEndReason(String endReason) { this.endReason = endReason; }
+
+    public Integer getEvaluation() { return evaluation; }
+    public void setEvaluation(Integer evaluation) { this.evaluation = evaluation; }
+
+    public String getAnnotation() { return annotation; }
+    public void setAnnotation(String annotation) { this.annotation = annotation; }
+
+    public LegalMovesDto getLegalMoves() { return legalMoves; }
+    public void setLegalMoves(LegalMovesDto legalMoves) { this.legalMoves = legalMoves; }
+
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 }
\ No newline at end of file
@@ -6,6 +6,7 @@ public class MoveMessage {
     private String to;
     private String piece;
     private String playerColor;
+    private String promotion;
     private String moveNotation;
 
     public MoveMessage() {}
@@ -26,6 +27,9 @@ public class MoveMessage {
     public String getPlayerColor() { return playerColor; }
     public void setPlayerColor(String playerColor) { this.playerColor = playerColor; }
 
+    public String getPromotion() { return promotion; }
+    public void setPromotion(String promotion) { this.promotion = promotion; }
+
     public String getMoveNotation() { return moveNotation; }
     public void setMoveNotation(String moveNotation) { this.moveNotation = moveNotation; }
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package com.chess.dto;
+
+public class PositionDto {
+    private Long gameId;
+    private int ply;
+    private String fen;
+
+    public PositionDto() {}
+
+    public PositionDto(Long gameId, int ply, String fen) {
+        this.gameId = gameId;
+        this.ply = ply;
+        this.fen = fen;
+    }
+
+    // Getters and Setters
+    public Long getGameId() { return gameId; }
+    public void setGameId(Long gameId) { this.gameId = gameId; }
+
+    public int getPly() { return ply; }
+    public void setPly(int ply) { this.ply = ply; }
+
+    public String getFen() { return fen; }
+    public void setFen(String fen) { this.fen = fen; }
+}
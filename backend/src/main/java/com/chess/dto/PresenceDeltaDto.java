@@ -0,0 +1,31 @@
+package com.chess.dto;
+
+import java.util.List;
+
+/**
+ * Presence changes since the previous delta, sent on /topic/users; a client that did not see
+ * version - 1 has missed one and reloads the snapshot
+ */
+public class PresenceDeltaDto {
+    private long version;
+    private List<UserDto> joined;
+    private List<String> left;
+
+    public PresenceDeltaDto() {}
+
+    public PresenceDeltaDto(long version, List<UserDto> joined, List<String> left) {
+        this.version = version;
+        this.joined = joined;
+        this.left = left;
+    }
+
+    // Getters and Setters
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+
+    public List<UserDto> getJoined() { return joined; }
+    public void setJoined(List<UserDto> joined) { this.joined = joined; }
+
+    public List<String> getLeft() { return left; }
+    public void setLeft(List<String> left) { this.left = left; }
+}
@@ -0,0 +1,25 @@
+package com.chess.dto;
+
+import java.util.List;
+
+/**
+ * Online users as of a presence version: deltas above that version apply on top of it
+ */
+public class PresenceSnapshotDto {
+    private long version;
+    private List<UserDto> users;
+
+    public PresenceSnapshotDto() {}
+
+    public PresenceSnapshotDto(long version, List<UserDto> users) {
+        this.version = version;
+        this.users = users;
+    }
+
+    // Getters and Setters
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+
+    public List<UserDto> getUsers() { return users; }
+    public void setUsers(List<UserDto> users) { this.users = users; }
+}
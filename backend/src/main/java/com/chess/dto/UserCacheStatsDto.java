@@ -0,0 +1,47 @@
+package com.chess.dto;
+
+import com.chess.service.UserCache;
+
+public class UserCacheStatsDto {
+    private int size;
+    private int maxSize;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+    private double hitRate;
+
+    public UserCacheStatsDto() {}
+
+    public UserCacheStatsDto(UserCache.Stats stats) {
+        this.size = stats.size();
+        this.maxSize = stats.maxSize();
+        this.hits = stats.hits();
+        this.misses = stats.misses();
+        this.evictions = stats.evictions();
+        this.expirations = stats.expirations();
+        this.hitRate = stats.hitRate();
+    }
+
+    // Getters and Setters
+    public int getSize() { return size; }
+    public void setSize(int size) { this.size = size; }
+
+    public int getMaxSize() { return maxSize; }
+    public void setMaxSize(int maxSize) { this.maxSize = maxSize; }
+
+    public long getHits() { return hits; }
+    public void setHits(long hits) { this.hits = hits; }
+
+    public long getMisses() { return misses; }
+    public void setMisses(long misses) { this.misses = misses; }
+
+    public long getEvictions() { return evictions; }
+    public void setEvictions(long evictions) { this.evictions = evictions; }
+
+    public long getExpirations() { return expirations; }
+    public void setExpirations(long expirations) { this.expirations = expirations; }
+
+    public double getHitRate() { return hitRate; }
+    public void setHitRate(double hitRate) { this.hitRate = hitRate; }
+}
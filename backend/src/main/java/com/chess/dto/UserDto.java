@@ -15,6 +15,12 @@ public class UserDto {
         this.isOnline = user.isOnline();
     }
 
+    public UserDto(Long id, String username, boolean isOnline) {
+        this.id = id;
+        this.username = username;
+        this.isOnline = isOnline;
+    }
+
     // Getters and Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -0,0 +1,125 @@
+package com.chess.engine;
+
+/**
+ * Precomputed attack tables and square helpers. Squares are numbered a1 = 0 ... h8 = 63.
+ */
+public final class Bitboards {
+
+    public static final long FILE_A = 0x0101010101010101L;
+    public static final long FILE_H = FILE_A << 7;
+    public static final long RANK_1 = 0xFFL;
+    public static final long RANK_2 = RANK_1 << 8;
+    public static final long RANK_7 = RANK_1 << 48;
+    public static final long RANK_8 = RANK_1 << 56;
+
+    public static final long[] KNIGHT_ATTACKS = new long[64];
+    public static final long[] KING_ATTACKS = new long[64];
+    /** Indexed by [color][square]: squares attacked by a pawn of that color standing on square. */
+    public static final long[][] PAWN_ATTACKS = new long[2][64];
+
+    // Ray directions: N, NE, E, NW are "positive" (increasing square index), the others negative
+    private static final int NORTH = 0, NORTH_EAST = 1, EAST = 2, NORTH_WEST = 3;
+    private static final int SOUTH = 4, SOUTH_WEST = 5, WEST = 6, SOUTH_EAST = 7;
+    private static final int[][] DIRECTION_DELTAS = {
+        { 0, 1 }, { 1, 1 }, { 1, 0 }, { -1, 1 }, { 0, -1 }, { -1, -1 }, { -1, 0 }, { 1, -1 }
+    };
+    private static final long[][] RAYS = new long[8][64];
+
+    static {
+        int[][] knightDeltas = { { 1, 2 }, { 2, 1 }, { 2, -1 }, { 1, -2 }, { -1, -2 }, { -2, -1 }, { -2, 1 }, { -1, 2 } };
+        for (int sq = 0; sq < 64; sq++) {
+            int file = sq & 7;
+            int rank = sq >> 3;
+            for (int[] d : knightDeltas) {
+                KNIGHT_ATTACKS[sq] |= bitIfOnBoard(file + d[0], rank + d[1]);
+            }
+            for (int df = -1; df <= 1; df++) {
+                for (int dr = -1; dr <= 1; dr++) {
+                    if (df != 0 || dr != 0) {
+                        KING_ATTACKS[sq] |= bitIfOnBoard(file + df, rank + dr);
+                    }
+                }
+            }
+            PAWN_ATTACKS[Piece.WHITE][sq] = bitIfOnBoard(file - 1, rank + 1) | bitIfOnBoard(file + 1, rank + 1);
+            PAWN_ATTACKS[Piece.BLACK][sq] = bitIfOnBoard(file - 1, rank - 1) | bitIfOnBoard(file + 1, rank - 1);
+            for (int dir = 0; dir < 8; dir++) {
+                int f = file + DIRECTION_DELTAS[dir][0];
+                int r = rank + DIRECTION_DELTAS[dir][1];
+                while (f >= 0 && f < 8 && r >= 0 && r < 8) {
+                    RAYS[dir][sq] |= 1L << (r * 8 + f);
+                    f += DIRECTION_DELTAS[dir][0];
+                    r += DIRECTION_DELTAS[dir][1];
+                }
+            }
+        }
+    }
+
+    private Bitboards() {}
+
+    private static long bitIfOnBoard(int file, int rank) {
+        return (file >= 0 && file < 8 && rank >= 0 && rank < 8) ? 1L << (rank * 8 + file) : 0L;
+    }
+
+    private static long positiveRay(int dir, int sq, long occupied) {
+        long attacks = RAYS[dir][sq];
+        long blockers = attacks & occupied;
+        if (blockers != 0) {
+            attacks ^= RAYS[dir][Long.numberOfTrailingZeros(blockers)];
+        }
+        return attacks;
+    }
+
+    private static long negativeRay(int dir, int sq, long occupied) {
+        long attacks = RAYS[dir][sq];
+        long blockers = attacks & occupied;
+        if (blockers != 0) {
+            attacks ^= RAYS[dir][63 - Long.numberOfLeadingZeros(blockers)];
+        }
+        return attacks;
+    }
+
+    public static long rookAttacks(int sq, long occupied) {
+        return positiveRay(NORTH, sq, occupied) | positiveRay(EAST, sq, occupied)
+             | negativeRay(SOUTH, sq, occupied) | negativeRay(WEST, sq, occupied);
+    }
+
+    public static long bishopAttacks(int sq, long occupied) {
+        return positiveRay(NORTH_EAST, sq, occupied) | positiveRay(NORTH_WEST, sq, occupied)
+             | negativeRay(SOUTH_EAST, sq, occupied) | negativeRay(SOUTH_WEST, sq, occupied);
+    }
+
+    public static long queenAttacks(int sq, long occupied) {
+        return rookAttacks(sq, occupied) | bishopAttacks(sq, occupied);
+    }
+
+    public static int file(int sq) { return sq & 7; }
+
+    public static int rank(int sq) { return sq >> 3; }
+
+    /**
+     * Parses algebraic square names such as "e4" without regex or allocation; returns -1 when malformed.
+     */
+    public static int parseSquare(String name) {
+        if (name == null || name.length() != 2) {
+            return -1;
+        }
+        int file = name.charAt(0) - 'a';
+        int rank = name.charAt(1) - '1';
+        if (file < 0 || file > 7 || rank < 0 || rank > 7) {
+            return -1;
+        }
+        return rank * 8 + file;
+    }
+
+    private static final String[] SQUARE_NAMES = new String[64];
+
+    static {
+        for (int sq = 0; sq < 64; sq++) {
+            SQUARE_NAMES[sq] = "" + (char) ('a' + (sq & 7)) + (char) ('1' + (sq >> 3));
+        }
+    }
+
+    public static String squareName(int sq) {
+        return SQUARE_NAMES[sq];
+    }
+}
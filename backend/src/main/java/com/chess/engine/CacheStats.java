@@ -0,0 +1,11 @@
+package com.chess.engine;
+
+/**
+ * Snapshot of an engine cache: configured size, sampled occupancy (0..1) and probe counters.
+ */
+public record CacheStats(long sizeBytes, long capacity, double occupancy, long probes, long hits, long stores) {
+
+    public double hitRate() {
+        return probes == 0 ? 0.0 : (double) hits / probes;
+    }
+}
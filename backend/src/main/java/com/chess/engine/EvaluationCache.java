@@ -0,0 +1,74 @@
+package com.chess.engine;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Off-heap cache of static evaluations, one long per entry: the upper 48 bits of the Zobrist key
+ * and the 16-bit score. A single long write is atomic, so concurrent threads need no locking.
+ */
+public final class EvaluationCache {
+
+    public static final int MISS = Integer.MIN_VALUE;
+
+    private static final long KEY_MASK = 0xFFFF_FFFF_FFFF_0000L;
+    private static final int OCCUPANCY_SAMPLE_ENTRIES = 4000;
+
+    private final OffHeapLongArray table;
+    private final long mask;
+
+    private final LongAdder probes = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder stores = new LongAdder();
+
+    public EvaluationCache(int sizeMb) {
+        long entries = Long.highestOneBit(Math.max(1L, (long) sizeMb * 1024 * 1024 / Long.BYTES));
+        this.table = new OffHeapLongArray(entries);
+        this.mask = entries - 1;
+    }
+
+    /**
+     * Returns the cached score for the key or {@link #MISS}.
+     */
+    public int probe(long key) {
+        probes.increment();
+        long entry = table.get(key & mask);
+        if (entry != 0 && ((entry ^ key) & KEY_MASK) == 0) {
+            hits.increment();
+            return (short) entry;
+        }
+        return MISS;
+    }
+
+    public void store(long key, int score) {
+        stores.increment();
+        table.set(key & mask, (key & KEY_MASK) | (score & 0xFFFFL));
+    }
+
+    /**
+     * Evaluates through the cache.
+     */
+    public int evaluate(Position pos) {
+        int score = probe(pos.key);
+        if (score == MISS) {
+            score = Evaluator.evaluate(pos);
+            store(pos.key, score);
+        }
+        return score;
+    }
+
+    public void clear() {
+        table.clear();
+    }
+
+    public CacheStats stats() {
+        long sampled = Math.min(OCCUPANCY_SAMPLE_ENTRIES, mask + 1);
+        long used = 0;
+        for (long i = 0; i < sampled; i++) {
+            if (table.get(i) != 0) {
+                used++;
+            }
+        }
+        return new CacheStats(table.sizeBytes(), mask + 1, (double) used / sampled,
+                probes.sum(), hits.sum(), stores.sum());
+    }
+}
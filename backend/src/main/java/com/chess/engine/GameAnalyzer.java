@@ -0,0 +1,81 @@
+package com.chess.engine;
+
+/**
+ * Post-game analysis: evaluates every position of a game with a bounded search and grades each move
+ * by the winning chances it gave away, using the same win-probability curve and accuracy formula as
+ * Lichess. One analyzer per thread; several may share a transposition table.
+ */
+public final class GameAnalyzer {
+
+    // Drop in winning chances (percentage points) from which a move is a mistake or a blunder
+    public static final double MISTAKE_WIN_DROP = 10.0;
+    public static final double BLUNDER_WIN_DROP = 15.0;
+
+    // Mate scores are clamped so that one forced mate does not swamp the accuracy
+    private static final int EVAL_CAP = 1500;
+
+    public enum Judgement { GOOD, MISTAKE, BLUNDER }
+
+    private final Search search;
+    private final SearchLimits limits;
+
+    public GameAnalyzer(Search search, SearchLimits limits) {
+        this.search = search;
+        this.limits = limits;
+    }
+
+    /**
+     * Analyzes a game given as legal moves from the starting position.
+     */
+    public GameAnalysis analyze(int[] moves) {
+        PositionHistory history = new PositionHistory();
+        int[] evaluations = new int[moves.length + 1];
+        evaluations[0] = evaluate(history);
+        for (int ply = 0; ply < moves.length; ply++) {
+            history.play(moves[ply]);
+            evaluations[ply + 1] = evaluate(history);
+        }
+
+        Judgement[] judgements = new Judgement[moves.length];
+        double[] accuracySum = new double[2];
+        int[] moveCount = new int[2];
+        for (int ply = 0; ply < moves.length; ply++) {
+            int mover = ply % 2 == 0 ? Piece.WHITE : Piece.BLACK;
+            int sign = mover == Piece.WHITE ? 1 : -1;
+            double drop = Math.max(0.0, winPercent(sign * evaluations[ply]) - winPercent(sign * evaluations[ply + 1]));
+            judgements[ply] = drop >= BLUNDER_WIN_DROP ? Judgement.BLUNDER
+                            : drop >= MISTAKE_WIN_DROP ? Judgement.MISTAKE
+                            : Judgement.GOOD;
+            accuracySum[mover] += moveAccuracy(drop);
+            moveCount[mover]++;
+        }
+        return new GameAnalysis(evaluations, judgements,
+                moveCount[Piece.WHITE] == 0 ? Double.NaN : accuracySum[Piece.WHITE] / moveCount[Piece.WHITE],
+                moveCount[Piece.BLACK] == 0 ? Double.NaN : accuracySum[Piece.BLACK] / moveCount[Piece.BLACK]);
+    }
+
+    /**
+     * Evaluations (centipawns, White's view, clamped) of the start position and of the position after
+     * each ply, the judgement of each move and each side's accuracy in percent (NaN without moves).
+     */
+    public record GameAnalysis(int[] evaluations, Judgement[] judgements, double whiteAccuracy, double blackAccuracy) {}
+
+    private int evaluate(PositionHistory history) {
+        Position pos = history.position();
+        int score;
+        if (!MoveGenerator.hasLegalMove(pos)) {
+            score = pos.inCheck() ? -EVAL_CAP : 0;
+        } else {
+            score = Math.max(-EVAL_CAP, Math.min(EVAL_CAP, search.search(history, limits).score()));
+        }
+        return pos.sideToMove() == Piece.WHITE ? score : -score;
+    }
+
+    static double winPercent(int centipawns) {
+        return 50 + 50 * (2 / (1 + Math.exp(-0.00368208 * centipawns)) - 1);
+    }
+
+    static double moveAccuracy(double winDrop) {
+        return Math.max(0.0, Math.min(100.0, 103.1668 * Math.exp(-0.04354 * winDrop) - 3.1669));
+    }
+}
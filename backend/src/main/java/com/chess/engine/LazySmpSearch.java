@@ -0,0 +1,70 @@
+package com.chess.engine;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lazy SMP: helper threads search the same root as the calling thread and only cooperate through
+ * the shared transposition table. The calling thread's result is returned; helpers are stopped as soon
+ * as it finishes and, unlike it, may return before completing any iteration. Helper tasks that the
+ * executor rejects are simply skipped.
+ */
+public final class LazySmpSearch {
+
+    private final TranspositionTable table;
+    private final EvaluationCache evaluationCache;
+    private final Executor helperExecutor;
+    private final ThreadLocal<Search> searches;
+
+    public LazySmpSearch(TranspositionTable table, EvaluationCache evaluationCache, Executor helperExecutor) {
+        this.table = table;
+        this.evaluationCache = evaluationCache;
+        this.helperExecutor = helperExecutor;
+        this.searches = ThreadLocal.withInitial(() -> new Search(table, evaluationCache));
+    }
+
+    public TranspositionTable table() {
+        return table;
+    }
+
+    public EvaluationCache evaluationCache() {
+        return evaluationCache;
+    }
+
+    public SearchResult search(PositionHistory game, SearchLimits limits, int helperThreads) {
+        table.newSearch();
+        AtomicBoolean stopSignal = new AtomicBoolean();
+        AtomicLong helperNodes = new AtomicLong();
+        CountDownLatch helpersDone = new CountDownLatch(helperThreads);
+        for (int i = 1; i <= helperThreads; i++) {
+            // Odd helpers start one ply deeper to desynchronize the iterations
+            int firstDepth = 1 + (i & 1);
+            try {
+                helperExecutor.execute(() -> {
+                    try {
+                        SearchResult helper = searches.get().searchAsHelper(game, limits, stopSignal, firstDepth);
+                        helperNodes.addAndGet(helper.nodes());
+                    } finally {
+                        helpersDone.countDown();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                helpersDone.countDown();
+            }
+        }
+
+        SearchResult main = searches.get().search(game, limits, stopSignal, 1);
+        stopSignal.set(true);
+        try {
+            helpersDone.await(limits.timeMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return new SearchResult(main.bestMove(), main.score(), main.depth(),
+                main.nodes() + helperNodes.get(), main.elapsedMillis());
+    }
+}
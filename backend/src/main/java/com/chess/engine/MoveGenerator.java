@@ -0,0 +1,263 @@
+package com.chess.engine;
+
+import java.util.Arrays;
+
+/**
+ * Bitboard move generation. All methods write into caller-supplied int buffers and never allocate.
+ */
+public final class MoveGenerator {
+
+    /** Upper bound on the number of pseudo-legal moves in any reachable position. */
+    public static final int MAX_MOVES = 256;
+
+    private static final long WHITE_KING_SIDE_PATH = 0x60L;          // f1, g1
+    private static final long WHITE_QUEEN_SIDE_PATH = 0x0EL;         // b1, c1, d1
+    private static final long BLACK_KING_SIDE_PATH = 0x60L << 56;    // f8, g8
+    private static final long BLACK_QUEEN_SIDE_PATH = 0x0EL << 56;   // b8, c8, d8
+
+    private MoveGenerator() {}
+
+    /**
+     * Writes all pseudo-legal moves (moves that may leave the own king in check) and returns their count.
+     */
+    public static int generatePseudoLegal(Position pos, int[] moves) {
+        return generate(pos, moves, 0, false);
+    }
+
+    /**
+     * Writes pseudo-legal captures and promotions only, for quiescence search.
+     */
+    public static int generateCaptures(Position pos, int[] moves) {
+        return generate(pos, moves, 0, true);
+    }
+
+    /**
+     * Writes all legal moves and returns their count.
+     */
+    public static int generateLegal(Position pos, int[] moves) {
+        int count = generatePseudoLegal(pos, moves);
+        int legal = 0;
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+            pos.makeMove(move);
+            boolean illegal = pos.leftKingInCheck();
+            pos.unmakeMove(move);
+            if (!illegal) {
+                moves[legal++] = move;
+            }
+        }
+        return legal;
+    }
+
+    public static boolean hasLegalMove(Position pos) {
+        int[] moves = pos.scratchMoves;
+        int count = generatePseudoLegal(pos, moves);
+        for (int i = 0; i < count; i++) {
+            if (isLegal(pos, moves[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Sets {@code toMasks[from]} to the target squares of the legal moves starting on each square
+     * and returns the squares that have at least one legal move.
+     */
+    public static long legalMoveMasks(Position pos, long[] toMasks) {
+        Arrays.fill(toMasks, 0L);
+        int[] moves = pos.scratchMoves;
+        int count = generatePseudoLegal(pos, moves);
+        long fromMask = 0L;
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+            if (isLegal(pos, move)) {
+                toMasks[Moves.from(move)] |= 1L << Moves.to(move);
+                fromMask |= 1L << Moves.from(move);
+            }
+        }
+        return fromMask;
+    }
+
+    /**
+     * True when a pseudo-legal move does not leave the mover's king in check.
+     */
+    public static boolean isLegal(Position pos, int move) {
+        pos.makeMove(move);
+        boolean illegal = pos.leftKingInCheck();
+        pos.unmakeMove(move);
+        return !illegal;
+    }
+
+    /**
+     * Finds the legal move matching origin, target and (for pawns reaching the last rank) promotion type.
+     * A missing promotion type defaults to a queen. Returns {@link Moves#NONE} when no such legal move exists.
+     */
+    public static int findLegalMove(Position pos, int from, int to, int promotionType) {
+        if (from < 0 || to < 0) {
+            return Moves.NONE;
+        }
+        int piece = pos.board[from];
+        if (piece == Piece.NONE || Piece.color(piece) != pos.sideToMove) {
+            return Moves.NONE;
+        }
+        if (promotionType == Piece.NONE) {
+            promotionType = Piece.QUEEN;
+        }
+        int[] moves = pos.scratchMoves;
+        int count = generatePseudoLegal(pos, moves);
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+            if (Moves.from(move) != from || Moves.to(move) != to) {
+                continue;
+            }
+            if (Moves.isPromotion(move) && Moves.promotionType(move) != promotionType) {
+                continue;
+            }
+            return isLegal(pos, move) ? move : Moves.NONE;
+        }
+        return Moves.NONE;
+    }
+
+    private static int generate(Position pos, int[] moves, int count, boolean capturesOnly) {
+        int us = pos.sideToMove;
+        int them = us ^ 1;
+        long own = pos.colors[us];
+        long enemies = pos.colors[them];
+        long occupied = pos.occupied;
+        long targets = capturesOnly ? enemies : ~own;
+
+        count = generatePawnMoves(pos, moves, count, us, enemies, occupied, capturesOnly);
+
+        long knights = pos.pieces[Piece.of(us, Piece.KNIGHT)];
+        while (knights != 0) {
+            int from = Long.numberOfTrailingZeros(knights);
+            knights &= knights - 1;
+            count = addMoves(pos, moves, count, from, Bitboards.KNIGHT_ATTACKS[from] & targets);
+        }
+
+        long diagonal = pos.pieces[Piece.of(us, Piece.BISHOP)] | pos.pieces[Piece.of(us, Piece.QUEEN)];
+        while (diagonal != 0) {
+            int from = Long.numberOfTrailingZeros(diagonal);
+            diagonal &= diagonal - 1;
+            count = addMoves(pos, moves, count, from, Bitboards.bishopAttacks(from, occupied) & targets);
+        }
+
+        long straight = pos.pieces[Piece.of(us, Piece.ROOK)] | pos.pieces[Piece.of(us, Piece.QUEEN)];
+        while (straight != 0) {
+            int from = Long.numberOfTrailingZeros(straight);
+            straight &= straight - 1;
+            count = addMoves(pos, moves, count, from, Bitboards.rookAttacks(from, occupied) & targets);
+        }
+
+        int king = pos.kingSquare(us);
+        count = addMoves(pos, moves, count, king, Bitboards.KING_ATTACKS[king] & targets);
+
+        if (!capturesOnly) {
+            count = generateCastling(pos, moves, count, us, king, occupied);
+        }
+        return count;
+    }
+
+    private static int addMoves(Position pos, int[] moves, int count, int from, long targets) {
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            moves[count++] = Moves.encode(from, to, pos.board[to] != Piece.NONE ? Moves.CAPTURE : Moves.QUIET);
+        }
+        return count;
+    }
+
+    private static int generatePawnMoves(Position pos, int[] moves, int count, int us,
+                                         long enemies, long occupied, boolean capturesOnly) {
+        long pawns = pos.pieces[Piece.of(us, Piece.PAWN)];
+        long empty = ~occupied;
+        int forward = us == Piece.WHITE ? 8 : -8;
+        long promotionRank = us == Piece.WHITE ? Bitboards.RANK_8 : Bitboards.RANK_1;
+
+        long single = us == Piece.WHITE ? (pawns << 8) & empty : (pawns >>> 8) & empty;
+        long doubles = us == Piece.WHITE
+            ? ((single & (Bitboards.RANK_2 << 8)) << 8) & empty
+            : ((single & (Bitboards.RANK_7 >>> 8)) >>> 8) & empty;
+
+        long pushes = capturesOnly ? single & promotionRank : single;
+        while (pushes != 0) {
+            int to = Long.numberOfTrailingZeros(pushes);
+            pushes &= pushes - 1;
+            int from = to - forward;
+            if (((1L << to) & promotionRank) != 0) {
+                count = addPromotions(moves, count, from, to, false);
+            } else {
+                moves[count++] = Moves.encode(from, to, Moves.QUIET);
+            }
+        }
+        if (!capturesOnly) {
+            while (doubles != 0) {
+                int to = Long.numberOfTrailingZeros(doubles);
+                doubles &= doubles - 1;
+                moves[count++] = Moves.encode(to - 2 * forward, to, Moves.DOUBLE_PUSH);
+            }
+        }
+
+        long attackers = pawns;
+        while (attackers != 0) {
+            int from = Long.numberOfTrailingZeros(attackers);
+            attackers &= attackers - 1;
+            long captures = Bitboards.PAWN_ATTACKS[us][from] & enemies;
+            while (captures != 0) {
+                int to = Long.numberOfTrailingZeros(captures);
+                captures &= captures - 1;
+                if (((1L << to) & promotionRank) != 0) {
+                    count = addPromotions(moves, count, from, to, true);
+                } else {
+                    moves[count++] = Moves.encode(from, to, Moves.CAPTURE);
+                }
+            }
+            int ep = pos.enPassantSquare;
+            if (ep >= 0 && (Bitboards.PAWN_ATTACKS[us][from] & (1L << ep)) != 0) {
+                moves[count++] = Moves.encode(from, ep, Moves.EN_PASSANT | Moves.CAPTURE);
+            }
+        }
+        return count;
+    }
+
+    private static int addPromotions(int[] moves, int count, int from, int to, boolean capture) {
+        moves[count++] = Moves.promotion(from, to, Piece.QUEEN, capture);
+        moves[count++] = Moves.promotion(from, to, Piece.KNIGHT, capture);
+        moves[count++] = Moves.promotion(from, to, Piece.ROOK, capture);
+        moves[count++] = Moves.promotion(from, to, Piece.BISHOP, capture);
+        return count;
+    }
+
+    private static int generateCastling(Position pos, int[] moves, int count, int us, int king, long occupied) {
+        int rights = pos.castlingRights;
+        int them = us ^ 1;
+        if (us == Piece.WHITE) {
+            if ((rights & Position.WHITE_KING_SIDE) != 0 && (occupied & WHITE_KING_SIDE_PATH) == 0
+                    && castlePathSafe(pos, king, 1, them)) {
+                moves[count++] = Moves.encode(king, king + 2, Moves.KING_CASTLE);
+            }
+            if ((rights & Position.WHITE_QUEEN_SIDE) != 0 && (occupied & WHITE_QUEEN_SIDE_PATH) == 0
+                    && castlePathSafe(pos, king, -1, them)) {
+                moves[count++] = Moves.encode(king, king - 2, Moves.QUEEN_CASTLE);
+            }
+        } else {
+            if ((rights & Position.BLACK_KING_SIDE) != 0 && (occupied & BLACK_KING_SIDE_PATH) == 0
+                    && castlePathSafe(pos, king, 1, them)) {
+                moves[count++] = Moves.encode(king, king + 2, Moves.KING_CASTLE);
+            }
+            if ((rights & Position.BLACK_QUEEN_SIDE) != 0 && (occupied & BLACK_QUEEN_SIDE_PATH) == 0
+                    && castlePathSafe(pos, king, -1, them)) {
+                moves[count++] = Moves.encode(king, king - 2, Moves.QUEEN_CASTLE);
+            }
+        }
+        return count;
+    }
+
+    private static boolean castlePathSafe(Position pos, int king, int step, int them) {
+        // The king may not castle out of, through, or into check
+        return !pos.isSquareAttacked(king, them)
+            && !pos.isSquareAttacked(king + step, them)
+            && !pos.isSquareAttacked(king + 2 * step, them);
+    }
+}
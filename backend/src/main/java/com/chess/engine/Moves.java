@@ -0,0 +1,62 @@
+package com.chess.engine;
+
+/**
+ * 16-bit move encoding: bits 0-5 origin square, bits 6-11 target square, bits 12-15 move flag.
+ * Moves are passed around as plain ints so move lists never allocate.
+ */
+public final class Moves {
+
+    public static final int NONE = 0;
+
+    public static final int QUIET = 0;
+    public static final int DOUBLE_PUSH = 1;
+    public static final int KING_CASTLE = 2;
+    public static final int QUEEN_CASTLE = 3;
+    public static final int CAPTURE = 4;
+    public static final int EN_PASSANT = 5;
+    // Promotion flags: 8 + (promotion type - KNIGHT), plus CAPTURE for capturing promotions
+    public static final int PROMOTION = 8;
+
+    private Moves() {}
+
+    public static int encode(int from, int to, int flag) {
+        return from | (to << 6) | (flag << 12);
+    }
+
+    public static int promotion(int from, int to, int promotionType, boolean capture) {
+        return encode(from, to, PROMOTION | (promotionType - Piece.KNIGHT) | (capture ? CAPTURE : 0));
+    }
+
+    public static int from(int move) { return move & 0x3F; }
+
+    public static int to(int move) { return (move >>> 6) & 0x3F; }
+
+    public static int flag(int move) { return (move >>> 12) & 0xF; }
+
+    public static boolean isCapture(int move) { return (flag(move) & CAPTURE) != 0; }
+
+    public static boolean isPromotion(int move) { return (flag(move) & PROMOTION) != 0; }
+
+    public static boolean isCastle(int move) {
+        int flag = flag(move);
+        return flag == KING_CASTLE || flag == QUEEN_CASTLE;
+    }
+
+    /**
+     * Promotion piece type of a promotion move, or {@link Piece#NONE}.
+     */
+    public static int promotionType(int move) {
+        return isPromotion(move) ? Piece.KNIGHT + (flag(move) & 3) : Piece.NONE;
+    }
+
+    /**
+     * Long algebraic (UCI) form, e.g. "e2e4" or "e7e8q".
+     */
+    public static String toUci(int move) {
+        String uci = Bitboards.squareName(from(move)) + Bitboards.squareName(to(move));
+        if (isPromotion(move)) {
+            uci += Character.toLowerCase(Piece.fenChar(promotionType(move)));
+        }
+        return uci;
+    }
+}
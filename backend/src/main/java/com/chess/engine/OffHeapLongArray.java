@@ -0,0 +1,50 @@
+package com.chess.engine;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Fixed-size array of longs allocated outside the Java heap, split into direct buffers of at most
+ * 1 GB so that budgets above the 2 GB ByteBuffer limit work. Reads and writes never allocate.
+ * Memory is released when the array becomes unreachable; the JVM caps the total with -XX:MaxDirectMemorySize.
+ */
+final class OffHeapLongArray {
+
+    private static final int SEGMENT_SHIFT = 27;  // 2^27 longs = 1 GB per segment
+    private static final long SEGMENT_MASK = (1L << SEGMENT_SHIFT) - 1;
+
+    private final ByteBuffer[] segments;
+    private final long length;
+
+    OffHeapLongArray(long length) {
+        this.length = length;
+        int segmentCount = (int) ((length + SEGMENT_MASK) >>> SEGMENT_SHIFT);
+        this.segments = new ByteBuffer[segmentCount];
+        long remaining = length;
+        for (int i = 0; i < segmentCount; i++) {
+            long longs = Math.min(remaining, 1L << SEGMENT_SHIFT);
+            segments[i] = ByteBuffer.allocateDirect((int) (longs * Long.BYTES)).order(ByteOrder.nativeOrder());
+            remaining -= longs;
+        }
+    }
+
+    long get(long index) {
+        return segments[(int) (index >>> SEGMENT_SHIFT)].getLong((int) (index & SEGMENT_MASK) << 3);
+    }
+
+    void set(long index, long value) {
+        segments[(int) (index >>> SEGMENT_SHIFT)].putLong((int) (index & SEGMENT_MASK) << 3, value);
+    }
+
+    void clear() {
+        for (ByteBuffer segment : segments) {
+            for (int offset = 0; offset < segment.capacity(); offset += Long.BYTES) {
+                segment.putLong(offset, 0L);
+            }
+        }
+    }
+
+    long length() { return length; }
+
+    long sizeBytes() { return length * Long.BYTES; }
+}
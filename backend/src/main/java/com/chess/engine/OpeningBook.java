@@ -0,0 +1,124 @@
+package com.chess.engine;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * Read-only Polyglot {@code .bin} opening book. The file is memory-mapped rather than loaded, so opening
+ * is instant whatever its size, pages are shared by every game and the OS page cache, and lookups
+ * binary-search the mapping directly. Entries are 16 big-endian bytes sorted by key:
+ * key (8), move (2), weight (2), learn (4).
+ */
+public final class OpeningBook {
+
+    private static final int ENTRY_BYTES = 16;
+
+    private final MappedByteBuffer entries;
+    private final int size;
+
+    private OpeningBook(MappedByteBuffer entries) {
+        this.entries = entries;
+        this.size = entries.capacity() / ENTRY_BYTES;
+    }
+
+    public static OpeningBook open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length > Integer.MAX_VALUE) {
+                throw new IOException("Opening book larger than 2 GB: " + path);
+            }
+            if (length % ENTRY_BYTES != 0) {
+                throw new IOException("Not a Polyglot book (size is not a multiple of 16): " + path);
+            }
+            // The mapping stays valid after the channel is closed
+            return new OpeningBook(channel.map(FileChannel.MapMode.READ_ONLY, 0, length));
+        }
+    }
+
+    /** Number of entries in the book. */
+    public int size() { return size; }
+
+    /**
+     * Picks a book move with probability proportional to its weight, or {@link Moves#NONE} when the
+     * position is not in the book. Allocation-free.
+     */
+    public int pickMove(Position pos, RandomGenerator random) {
+        long key = Polyglot.key(pos);
+        int first = firstIndex(key);
+        int totalWeight = 0;
+        for (int i = first; i < size && keyAt(i) == key; i++) {
+            if (Polyglot.toMove(pos, moveAt(i)) != Moves.NONE) {
+                totalWeight += weightAt(i);
+            }
+        }
+        if (totalWeight == 0) {
+            return Moves.NONE;
+        }
+        int pick = random.nextInt(totalWeight);
+        for (int i = first; i < size && keyAt(i) == key; i++) {
+            int move = Polyglot.toMove(pos, moveAt(i));
+            if (move == Moves.NONE) {
+                continue;
+            }
+            pick -= weightAt(i);
+            if (pick < 0) {
+                return move;
+            }
+        }
+        return Moves.NONE;
+    }
+
+    /**
+     * All legal book moves of the position with their weights, heaviest first.
+     */
+    public List<BookMove> moves(Position pos) {
+        long key = Polyglot.key(pos);
+        List<BookMove> moves = new ArrayList<>();
+        for (int i = firstIndex(key); i < size && keyAt(i) == key; i++) {
+            int move = Polyglot.toMove(pos, moveAt(i));
+            if (move != Moves.NONE) {
+                moves.add(new BookMove(move, weightAt(i)));
+            }
+        }
+        moves.sort((a, b) -> Integer.compare(b.weight(), a.weight()));
+        return moves;
+    }
+
+    /**
+     * Book move with its Polyglot weight.
+     */
+    public record BookMove(int move, int weight) {}
+
+    // Lower bound: first entry whose key is not below the searched key, comparing keys as unsigned
+    private int firstIndex(long key) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (Long.compareUnsigned(keyAt(mid), key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private long keyAt(int index) {
+        return entries.getLong(index * ENTRY_BYTES);
+    }
+
+    private int moveAt(int index) {
+        return entries.getShort(index * ENTRY_BYTES + 8) & 0xFFFF;
+    }
+
+    private int weightAt(int index) {
+        return entries.getShort(index * ENTRY_BYTES + 10) & 0xFFFF;
+    }
+}
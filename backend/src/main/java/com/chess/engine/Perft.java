@@ -0,0 +1,39 @@
+package com.chess.engine;
+
+/**
+ * Counts leaf nodes of the legal move tree to a fixed depth. Used to verify the move generator
+ * against published node counts and to benchmark it.
+ */
+public final class Perft {
+
+    private final Position position;
+    private final int[][] buffers;
+
+    public Perft(Position position, int maxDepth) {
+        this.position = position;
+        this.buffers = new int[maxDepth + 1][MoveGenerator.MAX_MOVES];
+    }
+
+    public long count(int depth) {
+        return depth <= 0 ? 1 : count(depth, depth);
+    }
+
+    private long count(int depth, int ply) {
+        int[] moves = buffers[ply];
+        int n = MoveGenerator.generateLegal(position, moves);
+        if (depth == 1) {
+            return n;
+        }
+        long nodes = 0;
+        for (int i = 0; i < n; i++) {
+            position.makeMove(moves[i]);
+            nodes += count(depth - 1, ply - 1);
+            position.unmakeMove(moves[i]);
+        }
+        return nodes;
+    }
+
+    public static long perft(Position position, int depth) {
+        return new Perft(position, depth).count(depth);
+    }
+}
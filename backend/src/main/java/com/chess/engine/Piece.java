@@ -0,0 +1,79 @@
+package com.chess.engine;
+
+/**
+ * Integer encoding of colors, piece types and colored pieces used by the bitboard engine.
+ * A colored piece code is {@code color * 6 + type}, so it can index the per-piece bitboards directly.
+ */
+public final class Piece {
+
+    public static final int WHITE = 0;
+    public static final int BLACK = 1;
+
+    public static final int PAWN = 0;
+    public static final int KNIGHT = 1;
+    public static final int BISHOP = 2;
+    public static final int ROOK = 3;
+    public static final int QUEEN = 4;
+    public static final int KING = 5;
+
+    public static final int NONE = -1;
+    public static final int COUNT = 12;
+
+    private static final String[] TYPE_NAMES = { "PAWN", "KNIGHT", "BISHOP", "ROOK", "QUEEN", "KING" };
+    private static final String[] COLOR_NAMES = { "WHITE", "BLACK" };
+    private static final char[] FEN_CHARS = { 'P', 'N', 'B', 'R', 'Q', 'K', 'p', 'n', 'b', 'r', 'q', 'k' };
+
+    private Piece() {}
+
+    public static int of(int color, int type) { return color * 6 + type; }
+
+    public static int color(int piece) { return piece < 6 ? WHITE : BLACK; }
+
+    public static int type(int piece) { return piece < 6 ? piece : piece - 6; }
+
+    public static String typeName(int type) { return TYPE_NAMES[type]; }
+
+    public static String colorName(int color) { return COLOR_NAMES[color]; }
+
+    public static char fenChar(int piece) { return FEN_CHARS[piece]; }
+
+    /**
+     * Parses a piece type name as sent by the client ("PAWN", "KNIGHT", ...), or returns {@link #NONE}.
+     */
+    public static int parseType(String name) {
+        if (name == null) {
+            return NONE;
+        }
+        for (int type = PAWN; type <= KING; type++) {
+            if (TYPE_NAMES[type].equalsIgnoreCase(name)) {
+                return type;
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * Parses "WHITE" / "BLACK", or returns {@link #NONE}.
+     */
+    public static int parseColor(String name) {
+        if ("WHITE".equals(name)) {
+            return WHITE;
+        }
+        if ("BLACK".equals(name)) {
+            return BLACK;
+        }
+        return NONE;
+    }
+
+    /**
+     * Parses a FEN piece letter, or returns {@link #NONE}.
+     */
+    public static int fromFenChar(char c) {
+        for (int piece = 0; piece < COUNT; piece++) {
+            if (FEN_CHARS[piece] == c) {
+                return piece;
+            }
+        }
+        return NONE;
+    }
+}
@@ -0,0 +1,362 @@
+package com.chess.engine;
+
+import java.util.Arrays;
+
+/**
+ * Mutable bitboard position with make/unmake support.
+ * Instances are not thread-safe: each game or search thread owns its own position.
+ */
+public final class Position {
+
+    public static final String START_FEN = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    public static final int WHITE_KING_SIDE = 1;
+    public static final int WHITE_QUEEN_SIDE = 2;
+    public static final int BLACK_KING_SIDE = 4;
+    public static final int BLACK_QUEEN_SIDE = 8;
+
+    // Castling rights kept when a move touches the given square (king or rook origin/target)
+    private static final int[] CASTLING_MASK = new int[64];
+
+    static {
+        Arrays.fill(CASTLING_MASK, 15);
+        CASTLING_MASK[0] = 15 & ~WHITE_QUEEN_SIDE;
+        CASTLING_MASK[7] = 15 & ~WHITE_KING_SIDE;
+        CASTLING_MASK[4] = 15 & ~(WHITE_KING_SIDE | WHITE_QUEEN_SIDE);
+        CASTLING_MASK[56] = 15 & ~BLACK_QUEEN_SIDE;
+        CASTLING_MASK[63] = 15 & ~BLACK_KING_SIDE;
+        CASTLING_MASK[60] = 15 & ~(BLACK_KING_SIDE | BLACK_QUEEN_SIDE);
+    }
+
+    final long[] pieces = new long[Piece.COUNT];
+    final long[] colors = new long[2];
+    long occupied;
+    final int[] board = new int[64];
+
+    int sideToMove;
+    int castlingRights;
+    int enPassantSquare = -1;
+    int halfmoveClock;
+    int fullmoveNumber = 1;
+    long key;
+
+    // Undo stack: captured piece, castling rights, en passant square and halfmove clock packed per ply
+    private int[] undo = new int[256];
+    private long[] undoKeys = new long[256];
+    private int undoSize;
+
+    // Scratch buffer used by single-move validation so that it does not allocate
+    final int[] scratchMoves = new int[MoveGenerator.MAX_MOVES];
+
+    public Position() {
+        Arrays.fill(board, Piece.NONE);
+    }
+
+    public static Position startingPosition() {
+        return fromFen(START_FEN);
+    }
+
+    public static Position fromFen(String fen) {
+        Position position = new Position();
+        String[] parts = fen.trim().split("\\s+");
+        if (parts.length < 2) {
+            throw new IllegalArgumentException("Invalid FEN: " + fen);
+        }
+        int rank = 7;
+        int file = 0;
+        for (int i = 0; i < parts[0].length(); i++) {
+            char c = parts[0].charAt(i);
+            if (c == '/') {
+                rank--;
+                file = 0;
+            } else if (c >= '1' && c <= '8') {
+                file += c - '0';
+            } else {
+                int piece = Piece.fromFenChar(c);
+                if (piece == Piece.NONE || file > 7 || rank < 0) {
+                    throw new IllegalArgumentException("Invalid FEN placement: " + fen);
+                }
+                position.putPiece(rank * 8 + file, piece);
+                file++;
+            }
+        }
+        position.sideToMove = "b".equals(parts[1]) ? Piece.BLACK : Piece.WHITE;
+        if (parts.length > 2) {
+            for (char c : parts[2].toCharArray()) {
+                switch (c) {
+                    case 'K' -> position.castlingRights |= WHITE_KING_SIDE;
+                    case 'Q' -> position.castlingRights |= WHITE_QUEEN_SIDE;
+                    case 'k' -> position.castlingRights |= BLACK_KING_SIDE;
+                    case 'q' -> position.castlingRights |= BLACK_QUEEN_SIDE;
+                    default -> { }
+                }
+            }
+        }
+        if (parts.length > 3 && !"-".equals(parts[3])) {
+            position.enPassantSquare = Bitboards.parseSquare(parts[3]);
+        }
+        if (parts.length > 4) {
+            position.halfmoveClock = Integer.parseInt(parts[4]);
+        }
+        if (parts.length > 5) {
+            position.fullmoveNumber = Integer.parseInt(parts[5]);
+        }
+        position.key = Zobrist.compute(position);
+        return position;
+    }
+
+    public String toFen() {
+        StringBuilder fen = new StringBuilder(90);
+        for (int rank = 7; rank >= 0; rank--) {
+            int empty = 0;
+            for (int file = 0; file < 8; file++) {
+                int piece = board[rank * 8 + file];
+                if (piece == Piece.NONE) {
+                    empty++;
+                } else {
+                    if (empty > 0) {
+                        fen.append(empty);
+                        empty = 0;
+                    }
+                    fen.append(Piece.fenChar(piece));
+                }
+            }
+            if (empty > 0) {
+                fen.append(empty);
+            }
+            if (rank > 0) {
+                fen.append('/');
+            }
+        }
+        fen.append(sideToMove == Piece.WHITE ? " w " : " b ");
+        if (castlingRights == 0) {
+            fen.append('-');
+        } else {
+            if ((castlingRights & WHITE_KING_SIDE) != 0) fen.append('K');
+            if ((castlingRights & WHITE_QUEEN_SIDE) != 0) fen.append('Q');
+            if ((castlingRights & BLACK_KING_SIDE) != 0) fen.append('k');
+            if ((castlingRights & BLACK_QUEEN_SIDE) != 0) fen.append('q');
+        }
+        fen.append(' ').append(enPassantSquare < 0 ? "-" : Bitboards.squareName(enPassantSquare));
+        fen.append(' ').append(halfmoveClock).append(' ').append(fullmoveNumber);
+        return fen.toString();
+    }
+
+    public Position copy() {
+        return fromFen(toFen());
+    }
+
+    // Accessors
+
+    public int sideToMove() { return sideToMove; }
+
+    public int pieceAt(int sq) { return board[sq]; }
+
+    public long pieces(int piece) { return pieces[piece]; }
+
+    public long pieces(int color, int type) { return pieces[Piece.of(color, type)]; }
+
+    public long colorOccupancy(int color) { return colors[color]; }
+
+    public long occupied() { return occupied; }
+
+    public int castlingRights() { return castlingRights; }
+
+    public int enPassantSquare() { return enPassantSquare; }
+
+    public int halfmoveClock() { return halfmoveClock; }
+
+    public int fullmoveNumber() { return fullmoveNumber; }
+
+    /** 64-bit Zobrist key of the position, maintained incrementally by make/unmake. */
+    public long key() { return key; }
+
+    public int kingSquare(int color) {
+        return Long.numberOfTrailingZeros(pieces[Piece.of(color, Piece.KING)]);
+    }
+
+    public boolean isSquareAttacked(int sq, int byColor) {
+        if ((Bitboards.PAWN_ATTACKS[byColor ^ 1][sq] & pieces[Piece.of(byColor, Piece.PAWN)]) != 0) {
+            return true;
+        }
+        if ((Bitboards.KNIGHT_ATTACKS[sq] & pieces[Piece.of(byColor, Piece.KNIGHT)]) != 0) {
+            return true;
+        }
+        if ((Bitboards.KING_ATTACKS[sq] & pieces[Piece.of(byColor, Piece.KING)]) != 0) {
+            return true;
+        }
+        long queens = pieces[Piece.of(byColor, Piece.QUEEN)];
+        long diagonal = pieces[Piece.of(byColor, Piece.BISHOP)] | queens;
+        if (diagonal != 0 && (Bitboards.bishopAttacks(sq, occupied) & diagonal) != 0) {
+            return true;
+        }
+        long straight = pieces[Piece.of(byColor, Piece.ROOK)] | queens;
+        return straight != 0 && (Bitboards.rookAttacks(sq, occupied) & straight) != 0;
+    }
+
+    public boolean inCheck() {
+        return isSquareAttacked(kingSquare(sideToMove), sideToMove ^ 1);
+    }
+
+    /**
+     * True when the side that just moved left its own king attacked, i.e. the last move was illegal.
+     */
+    boolean leftKingInCheck() {
+        int mover = sideToMove ^ 1;
+        return isSquareAttacked(kingSquare(mover), sideToMove);
+    }
+
+    // Board mutation
+
+    private void putPiece(int sq, int piece) {
+        long bit = 1L << sq;
+        pieces[piece] |= bit;
+        colors[Piece.color(piece)] |= bit;
+        occupied |= bit;
+        board[sq] = piece;
+        key ^= Zobrist.PIECE_SQUARE[piece][sq];
+    }
+
+    private void removePiece(int sq) {
+        int piece = board[sq];
+        long bit = 1L << sq;
+        pieces[piece] &= ~bit;
+        colors[Piece.color(piece)] &= ~bit;
+        occupied &= ~bit;
+        board[sq] = Piece.NONE;
+        key ^= Zobrist.PIECE_SQUARE[piece][sq];
+    }
+
+    private void movePiece(int from, int to) {
+        int piece = board[from];
+        long bits = (1L << from) | (1L << to);
+        pieces[piece] ^= bits;
+        colors[Piece.color(piece)] ^= bits;
+        occupied ^= bits;
+        board[from] = Piece.NONE;
+        board[to] = piece;
+        key ^= Zobrist.PIECE_SQUARE[piece][from] ^ Zobrist.PIECE_SQUARE[piece][to];
+    }
+
+    /**
+     * Plays a pseudo-legal move produced by {@link MoveGenerator}. Legality must be checked by the caller.
+     */
+    public void makeMove(int move) {
+        int from = Moves.from(move);
+        int to = Moves.to(move);
+        int flag = Moves.flag(move);
+        int us = sideToMove;
+        int moving = board[from];
+
+        int captured = Piece.NONE;
+        int captureSquare = flag == Moves.EN_PASSANT ? (us == Piece.WHITE ? to - 8 : to + 8) : to;
+        if (board[captureSquare] != Piece.NONE) {
+            captured = board[captureSquare];
+        }
+
+        if (undoSize == undo.length) {
+            undo = Arrays.copyOf(undo, undo.length * 2);
+            undoKeys = Arrays.copyOf(undoKeys, undoKeys.length * 2);
+        }
+        undoKeys[undoSize] = key;
+        undo[undoSize++] = (captured + 1) | (castlingRights << 4) | ((enPassantSquare + 1) << 8) | (halfmoveClock << 16);
+
+        if (Zobrist.enPassantHashed(this)) {
+            key ^= Zobrist.EN_PASSANT_FILE[enPassantSquare & 7];
+        }
+        key ^= Zobrist.CASTLING[castlingRights];
+
+        if (captured != Piece.NONE) {
+            removePiece(captureSquare);
+        }
+        movePiece(from, to);
+
+        if ((flag & Moves.PROMOTION) != 0) {
+            removePiece(to);
+            putPiece(to, Piece.of(us, Moves.promotionType(move)));
+        } else if (flag == Moves.KING_CASTLE) {
+            movePiece(to + 1, to - 1);
+        } else if (flag == Moves.QUEEN_CASTLE) {
+            movePiece(to - 2, to + 1);
+        }
+
+        enPassantSquare = flag == Moves.DOUBLE_PUSH ? (from + to) >>> 1 : -1;
+        castlingRights &= CASTLING_MASK[from] & CASTLING_MASK[to];
+        halfmoveClock = (captured != Piece.NONE || Piece.type(moving) == Piece.PAWN) ? 0 : halfmoveClock + 1;
+        if (us == Piece.BLACK) {
+            fullmoveNumber++;
+        }
+        sideToMove = us ^ 1;
+        key ^= Zobrist.SIDE ^ Zobrist.CASTLING[castlingRights];
+        if (Zobrist.enPassantHashed(this)) {
+            key ^= Zobrist.EN_PASSANT_FILE[enPassantSquare & 7];
+        }
+    }
+
+    /**
+     * Passes the turn without moving, for null-move pruning. Never call it while in check.
+     */
+    public void makeNullMove() {
+        if (undoSize == undo.length) {
+            undo = Arrays.copyOf(undo, undo.length * 2);
+            undoKeys = Arrays.copyOf(undoKeys, undoKeys.length * 2);
+        }
+        undoKeys[undoSize] = key;
+        undo[undoSize++] = (castlingRights << 4) | ((enPassantSquare + 1) << 8) | (halfmoveClock << 16);
+        if (Zobrist.enPassantHashed(this)) {
+            key ^= Zobrist.EN_PASSANT_FILE[enPassantSquare & 7];
+        }
+        enPassantSquare = -1;
+        halfmoveClock++;
+        sideToMove ^= 1;
+        key ^= Zobrist.SIDE;
+    }
+
+    public void unmakeNullMove() {
+        sideToMove ^= 1;
+        int state = undo[--undoSize];
+        enPassantSquare = ((state >>> 8) & 0xFF) - 1;
+        halfmoveClock = state >>> 16;
+        key = undoKeys[undoSize];
+    }
+
+    /**
+     * True when the side has a piece other than pawns and king; null-move pruning is unsafe otherwise (zugzwang).
+     */
+    public boolean hasNonPawnMaterial(int color) {
+        return (colors[color] & ~pieces[Piece.of(color, Piece.PAWN)] & ~pieces[Piece.of(color, Piece.KING)]) != 0;
+    }
+
+    public void unmakeMove(int move) {
+        int from = Moves.from(move);
+        int to = Moves.to(move);
+        int flag = Moves.flag(move);
+        sideToMove ^= 1;
+        int us = sideToMove;
+        if (us == Piece.BLACK) {
+            fullmoveNumber--;
+        }
+
+        int state = undo[--undoSize];
+        int captured = (state & 0xF) - 1;
+        castlingRights = (state >>> 4) & 0xF;
+        enPassantSquare = ((state >>> 8) & 0xFF) - 1;
+        halfmoveClock = state >>> 16;
+
+        if ((flag & Moves.PROMOTION) != 0) {
+            removePiece(to);
+            putPiece(to, Piece.of(us, Piece.PAWN));
+        } else if (flag == Moves.KING_CASTLE) {
+            movePiece(to - 1, to + 1);
+        } else if (flag == Moves.QUEEN_CASTLE) {
+            movePiece(to + 1, to - 2);
+        }
+        movePiece(to, from);
+
+        if (captured != Piece.NONE) {
+            int captureSquare = flag == Moves.EN_PASSANT ? (us == Piece.WHITE ? to - 8 : to + 8) : to;
+            putPiece(captureSquare, captured);
+        }
+        key = undoKeys[undoSize];
+    }
+}
@@ -0,0 +1,78 @@
+package com.chess.engine;
+
+import java.util.Arrays;
+
+/**
+ * Current position of a game plus the Zobrist keys of every position reached so far.
+ * Repetition checks only scan back to the last irreversible move (capture or pawn move),
+ * i.e. at most {@code halfmoveClock} keys.
+ */
+public final class PositionHistory {
+
+    private final Position position;
+    private long[] keys = new long[128];
+    private int size;
+
+    public PositionHistory() {
+        this(Position.startingPosition());
+    }
+
+    public PositionHistory(Position position) {
+        this.position = position;
+        keys[size++] = position.key();
+    }
+
+    private PositionHistory(Position position, long[] keys, int size) {
+        this.position = position;
+        this.keys = keys;
+        this.size = size;
+    }
+
+    /**
+     * Independent copy, e.g. for a search thread, so the game state is never touched outside its owner.
+     */
+    public PositionHistory copy() {
+        return new PositionHistory(position.copy(), Arrays.copyOf(keys, keys.length), size);
+    }
+
+    public Position position() { return position; }
+
+    /** Number of half-moves played since the start of the history. */
+    public int plyCount() { return size - 1; }
+
+    public long[] keys() { return Arrays.copyOf(keys, size); }
+
+    /**
+     * Plays a legal move and records the resulting key.
+     */
+    public void play(int move) {
+        position.makeMove(move);
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, keys.length * 2);
+        }
+        keys[size++] = position.key();
+    }
+
+    /**
+     * How many times the current position occurred before, same side to move.
+     */
+    public int repetitions() {
+        long current = keys[size - 1];
+        int limit = Math.max(0, size - 1 - position.halfmoveClock());
+        int count = 0;
+        for (int i = size - 3; i >= limit; i -= 2) {
+            if (keys[i] == current) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public boolean isThreefoldRepetition() {
+        return repetitions() >= 2;
+    }
+
+    public boolean isFiftyMoveRule() {
+        return position.halfmoveClock() >= 100;
+    }
+}
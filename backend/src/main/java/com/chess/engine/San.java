@@ -0,0 +1,175 @@
+package com.chess.engine;
+
+/**
+ * Standard algebraic notation (SAN) as used in PGN movetext, e.g. "Nbd7", "exd6", "O-O-O" or "e8=Q#".
+ */
+public final class San {
+
+    private San() {}
+
+    /**
+     * SAN of a legal move in the given position, with its check or mate suffix.
+     * The position is left unchanged.
+     */
+    public static String format(Position pos, int move) {
+        StringBuilder san = new StringBuilder(8);
+        appendMove(san, pos, move);
+        pos.makeMove(move);
+        if (pos.inCheck()) {
+            san.append(MoveGenerator.hasLegalMove(pos) ? '+' : '#');
+        }
+        pos.unmakeMove(move);
+        return san.toString();
+    }
+
+    /**
+     * The legal move a SAN token denotes, or {@link Moves#NONE} when it is malformed, illegal or ambiguous.
+     * Check marks and annotation suffixes are ignored; "0-0" castling and promotions without '=' are accepted.
+     */
+    public static int parse(Position pos, String san) {
+        int end = san.length();
+        while (end > 0 && "+#!?".indexOf(san.charAt(end - 1)) >= 0) {
+            end--;
+        }
+        String core = san.substring(0, end);
+        if (core.equals("O-O") || core.equals("0-0")) {
+            return findCastle(pos, Moves.KING_CASTLE);
+        }
+        if (core.equals("O-O-O") || core.equals("0-0-0")) {
+            return findCastle(pos, Moves.QUEEN_CASTLE);
+        }
+        if (core.length() < 2) {
+            return Moves.NONE;
+        }
+
+        int start = 0;
+        int type = Piece.PAWN;
+        int pieceIndex = "NBRQK".indexOf(core.charAt(0));
+        if (pieceIndex >= 0) {
+            type = Piece.KNIGHT + pieceIndex;
+            start = 1;
+        }
+        int promotionType = Piece.NONE;
+        int promotionIndex = "NBRQ".indexOf(core.charAt(end - 1));
+        if (type == Piece.PAWN && promotionIndex >= 0) {
+            promotionType = Piece.KNIGHT + promotionIndex;
+            end--;
+            if (end > 0 && core.charAt(end - 1) == '=') {
+                end--;
+            }
+        }
+        if (end - start < 2) {
+            return Moves.NONE;
+        }
+        int to = Bitboards.parseSquare(core.substring(end - 2, end));
+        if (to < 0) {
+            return Moves.NONE;
+        }
+        int fromFile = -1;
+        int fromRank = -1;
+        for (int i = start; i < end - 2; i++) {
+            char c = core.charAt(i);
+            if (c >= 'a' && c <= 'h') {
+                fromFile = c - 'a';
+            } else if (c >= '1' && c <= '8') {
+                fromRank = c - '1';
+            } else if (c != 'x' && c != '-') {
+                return Moves.NONE;
+            }
+        }
+
+        int[] moves = pos.scratchMoves;
+        int count = MoveGenerator.generatePseudoLegal(pos, moves);
+        int found = Moves.NONE;
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+            int from = Moves.from(move);
+            if (Moves.to(move) != to || Moves.isCastle(move)
+                    || Piece.type(pos.pieceAt(from)) != type
+                    || Moves.promotionType(move) != promotionType
+                    || (fromFile >= 0 && Bitboards.file(from) != fromFile)
+                    || (fromRank >= 0 && Bitboards.rank(from) != fromRank)
+                    || !MoveGenerator.isLegal(pos, move)) {
+                continue;
+            }
+            if (found != Moves.NONE) {
+                return Moves.NONE;
+            }
+            found = move;
+        }
+        return found;
+    }
+
+    private static int findCastle(Position pos, int flag) {
+        int[] moves = pos.scratchMoves;
+        int count = MoveGenerator.generatePseudoLegal(pos, moves);
+        for (int i = 0; i < count; i++) {
+            if (Moves.flag(moves[i]) == flag && MoveGenerator.isLegal(pos, moves[i])) {
+                return moves[i];
+            }
+        }
+        return Moves.NONE;
+    }
+
+    private static void appendMove(StringBuilder san, Position pos, int move) {
+        int flag = Moves.flag(move);
+        if (flag == Moves.KING_CASTLE) {
+            san.append("O-O");
+            return;
+        }
+        if (flag == Moves.QUEEN_CASTLE) {
+            san.append("O-O-O");
+            return;
+        }
+        int from = Moves.from(move);
+        int to = Moves.to(move);
+        int type = Piece.type(pos.pieceAt(from));
+        if (type == Piece.PAWN) {
+            if (Moves.isCapture(move)) {
+                san.append((char) ('a' + Bitboards.file(from))).append('x');
+            }
+            san.append(Bitboards.squareName(to));
+            if (Moves.isPromotion(move)) {
+                san.append('=').append(Piece.fenChar(Moves.promotionType(move)));
+            }
+            return;
+        }
+        san.append(Piece.fenChar(type));
+        appendDisambiguation(san, pos, move, type);
+        if (Moves.isCapture(move)) {
+            san.append('x');
+        }
+        san.append(Bitboards.squareName(to));
+    }
+
+    /**
+     * Origin file, rank or both when another piece of the same type can also reach the target
+     */
+    private static void appendDisambiguation(StringBuilder san, Position pos, int move, int type) {
+        int from = Moves.from(move);
+        int to = Moves.to(move);
+        int[] moves = pos.scratchMoves;
+        int count = MoveGenerator.generateLegal(pos, moves);
+        boolean ambiguous = false;
+        boolean sameFile = false;
+        boolean sameRank = false;
+        for (int i = 0; i < count; i++) {
+            int other = Moves.from(moves[i]);
+            if (other != from && Moves.to(moves[i]) == to && Piece.type(pos.pieceAt(other)) == type) {
+                ambiguous = true;
+                sameFile |= Bitboards.file(other) == Bitboards.file(from);
+                sameRank |= Bitboards.rank(other) == Bitboards.rank(from);
+            }
+        }
+        if (!ambiguous) {
+            return;
+        }
+        if (!sameFile) {
+            san.append((char) ('a' + Bitboards.file(from)));
+        } else if (!sameRank) {
+            san.append((char) ('1' + Bitboards.rank(from)));
+        } else {
+            san.append(Bitboards.squareName(from));
+        }
+    }
+}
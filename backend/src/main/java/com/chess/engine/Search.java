@@ -0,0 +1,365 @@
+package com.chess.engine;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Iterative-deepening alpha-beta search with quiescence, null-move pruning, check extensions and
+ * move ordering by transposition table move, previous principal variation, MVV-LVA, killer moves
+ * and history heuristic. A Search instance keeps its buffers between calls; use one instance per
+ * thread. Several instances may share one {@link TranspositionTable} and {@link EvaluationCache}
+ * (see {@link LazySmpSearch}).
+ */
+public final class Search {
+
+    public static final int INFINITY = 32000;
+    public static final int MATE = 31000;
+    public static final int MAX_PLY = 100;
+
+    private static final int NODES_BETWEEN_TIME_CHECKS = 1024;
+    private static final int SCORE_PV_MOVE = 3_000_000;
+    private static final int SCORE_TT_MOVE = 2_000_000;
+    private static final int SCORE_CAPTURE = 1_000_000;
+    private static final int SCORE_FIRST_KILLER = 900_000;
+    private static final int SCORE_SECOND_KILLER = 800_000;
+
+    private final int[][] moves = new int[MAX_PLY + 1][MoveGenerator.MAX_MOVES];
+    private final int[][] moveScores = new int[MAX_PLY + 1][MoveGenerator.MAX_MOVES];
+    private final int[][] killers = new int[MAX_PLY + 1][2];
+    private final int[][] history = new int[Piece.COUNT][64];
+    private final int[][] pv = new int[MAX_PLY + 1][MAX_PLY + 1];
+    private final int[] pvLength = new int[MAX_PLY + 1];
+    private final int[] previousPv = new int[MAX_PLY + 1];
+    private int previousPvLength;
+    private boolean followPv;
+
+    private long[] keyStack = new long[512];
+    private int keyCount;
+
+    private final TranspositionTable table;
+    private final EvaluationCache evaluationCache;
+    private Position pos;
+    private long nodes;
+    private long deadline;
+    private boolean stopped;
+    private boolean completeFirstIteration;
+    private volatile AtomicBoolean stopSignal = new AtomicBoolean();
+
+    // Transposition table counters of the current search, added to the table's totals once at the end
+    private long ttProbes;
+    private long ttHits;
+    private long ttStores;
+
+    public Search() {
+        this(new TranspositionTable(16), new EvaluationCache(4));
+    }
+
+    public Search(TranspositionTable table, EvaluationCache evaluationCache) {
+        this.table = table;
+        this.evaluationCache = evaluationCache;
+    }
+
+    /**
+     * Searches the current position of the game. The game history is only read, never modified.
+     */
+    public SearchResult search(PositionHistory game, SearchLimits limits) {
+        return search(game, limits, new AtomicBoolean(), 1);
+    }
+
+    /**
+     * Searches with an external stop signal shared with other threads. The first iteration always
+     * completes, even past the deadline, so that there is a move to play.
+     */
+    public SearchResult search(PositionHistory game, SearchLimits limits, AtomicBoolean stopSignal, int firstDepth) {
+        return search(game, limits, stopSignal, firstDepth, true);
+    }
+
+    /**
+     * Search of a helper thread of a parallel search: it starts at the given depth so that helpers do
+     * not all walk the tree in lockstep, and returns as soon as the stop signal is set or the deadline
+     * passes, even during its first iteration, since the calling thread provides the move to play.
+     */
+    public SearchResult searchAsHelper(PositionHistory game, SearchLimits limits, AtomicBoolean stopSignal, int firstDepth) {
+        return search(game, limits, stopSignal, firstDepth, false);
+    }
+
+    private SearchResult search(PositionHistory game, SearchLimits limits, AtomicBoolean stopSignal, int firstDepth,
+                                boolean completeFirstIteration) {
+        this.stopSignal = stopSignal;
+        this.completeFirstIteration = completeFirstIteration;
+        long start = System.currentTimeMillis();
+        pos = game.position().copy();
+        long[] gameKeys = game.keys();
+        if (keyStack.length < gameKeys.length + MAX_PLY + 1) {
+            keyStack = new long[gameKeys.length + MAX_PLY + 1];
+        }
+        System.arraycopy(gameKeys, 0, keyStack, 0, gameKeys.length);
+        keyCount = gameKeys.length;
+
+        nodes = 0;
+        stopped = false;
+        deadline = System.nanoTime() + limits.timeMillis() * 1_000_000L;
+        previousPvLength = 0;
+        ttProbes = 0;
+        ttHits = 0;
+        ttStores = 0;
+        clearHeuristics();
+
+        int bestMove = Moves.NONE;
+        int bestScore = 0;
+        int completedDepth = 0;
+        for (int depth = Math.min(firstDepth, limits.maxDepth()); depth <= limits.maxDepth(); depth++) {
+            followPv = true;
+            int score = alphaBeta(depth, -INFINITY, INFINITY, 0, false);
+            if (stopped) {
+                break;  // only after the first iteration, unless this is a helper
+            }
+            if (pvLength[0] == 0) {
+                break;  // no legal move at the root
+            }
+            bestMove = pv[0][0];
+            bestScore = score;
+            completedDepth = depth;
+            previousPvLength = pvLength[0];
+            System.arraycopy(pv[0], 0, previousPv, 0, previousPvLength);
+            if (Math.abs(score) >= MATE - MAX_PLY || timeUp()) {
+                break;
+            }
+        }
+        table.addCounts(ttProbes, ttHits, ttStores);
+        return new SearchResult(bestMove, bestScore, completedDepth, nodes, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Asks a running search to return as soon as possible with its best completed iteration.
+     */
+    public void stop() {
+        stopSignal.set(true);
+    }
+
+    private void clearHeuristics() {
+        for (int[] pair : killers) {
+            pair[0] = Moves.NONE;
+            pair[1] = Moves.NONE;
+        }
+        for (int[] row : history) {
+            Arrays.fill(row, 0);
+        }
+    }
+
+    private boolean timeUp() {
+        return stopSignal.get() || System.nanoTime() > deadline;
+    }
+
+    private void checkTime() {
+        // The calling thread always completes its first iteration so that there is a move to play
+        if ((nodes & (NODES_BETWEEN_TIME_CHECKS - 1)) == 0
+                && (previousPvLength > 0 || !completeFirstIteration) && timeUp()) {
+            stopped = true;
+        }
+    }
+
+    private boolean isRepetition() {
+        long key = keyStack[keyCount - 1];
+        int limit = Math.max(0, keyCount - 1 - pos.halfmoveClock);
+        for (int i = keyCount - 3; i >= limit; i -= 2) {
+            if (keyStack[i] == key) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int alphaBeta(int depth, int alpha, int beta, int ply, boolean nullMoveAllowed) {
+        pvLength[ply] = 0;
+        if (ply > 0 && (isRepetition() || pos.halfmoveClock >= 100)) {
+            return 0;
+        }
+        boolean inCheck = pos.inCheck();
+        if (inCheck) {
+            depth++;
+        }
+        if (depth <= 0 || ply >= MAX_PLY - 1) {
+            return quiescence(alpha, beta, ply);
+        }
+        nodes++;
+        checkTime();
+        if (stopped) {
+            return 0;
+        }
+
+        int originalAlpha = alpha;
+        long entry = table.probe(pos.key);
+        ttProbes++;
+        int ttMove = Moves.NONE;
+        if (entry != 0) {
+            ttHits++;
+            ttMove = TranspositionTable.move(entry);
+            if (ply > 0 && TranspositionTable.depth(entry) >= depth) {
+                int ttScore = TranspositionTable.scoreFromTable(TranspositionTable.score(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.BOUND_EXACT
+                        || (bound == TranspositionTable.BOUND_LOWER && ttScore >= beta)
+                        || (bound == TranspositionTable.BOUND_UPPER && ttScore <= alpha)) {
+                    return ttScore;
+                }
+            }
+        }
+
+        if (nullMoveAllowed && !inCheck && depth >= 3 && beta < MATE - MAX_PLY
+                && pos.hasNonPawnMaterial(pos.sideToMove) && evaluationCache.evaluate(pos) >= beta) {
+            int reduction = depth > 6 ? 3 : 2;
+            pos.makeNullMove();
+            keyStack[keyCount++] = pos.key;
+            int score = -alphaBeta(depth - 1 - reduction, -beta, -beta + 1, ply + 1, false);
+            keyCount--;
+            pos.unmakeNullMove();
+            if (stopped) {
+                return 0;
+            }
+            if (score >= beta) {
+                return beta;
+            }
+        }
+
+        int[] list = moves[ply];
+        int count = MoveGenerator.generatePseudoLegal(pos, list);
+        int pvMove = followPv && ply < previousPvLength ? previousPv[ply] : Moves.NONE;
+        if (pvMove == Moves.NONE) {
+            followPv = false;
+        }
+        scoreMoves(list, moveScores[ply], count, ply, pvMove, ttMove);
+
+        int legal = 0;
+        int bestMove = Moves.NONE;
+        for (int i = 0; i < count; i++) {
+            int move = pickNext(list, moveScores[ply], i, count);
+            pos.makeMove(move);
+            if (pos.leftKingInCheck()) {
+                pos.unmakeMove(move);
+                continue;
+            }
+            legal++;
+            keyStack[keyCount++] = pos.key;
+            int score = -alphaBeta(depth - 1, -beta, -alpha, ply + 1, true);
+            keyCount--;
+            pos.unmakeMove(move);
+            followPv = false;
+            if (stopped) {
+                return 0;
+            }
+            if (score > alpha) {
+                alpha = score;
+                bestMove = move;
+                pv[ply][0] = move;
+                System.arraycopy(pv[ply + 1], 0, pv[ply], 1, pvLength[ply + 1]);
+                pvLength[ply] = pvLength[ply + 1] + 1;
+                if (score >= beta) {
+                    if (!Moves.isCapture(move)) {
+                        if (killers[ply][0] != move) {
+                            killers[ply][1] = killers[ply][0];
+                            killers[ply][0] = move;
+                        }
+                        history[pos.board[Moves.from(move)]][Moves.to(move)] += depth * depth;
+                    }
+                    table.store(pos.key, move, TranspositionTable.scoreToTable(beta, ply), depth,
+                                TranspositionTable.BOUND_LOWER);
+                    ttStores++;
+                    return beta;
+                }
+            }
+        }
+        if (legal == 0) {
+            return inCheck ? -MATE + ply : 0;
+        }
+        table.store(pos.key, bestMove, TranspositionTable.scoreToTable(alpha, ply), depth,
+                    alpha > originalAlpha ? TranspositionTable.BOUND_EXACT : TranspositionTable.BOUND_UPPER);
+        ttStores++;
+        return alpha;
+    }
+
+    private int quiescence(int alpha, int beta, int ply) {
+        nodes++;
+        checkTime();
+        if (stopped) {
+            return 0;
+        }
+        int standPat = evaluationCache.evaluate(pos);
+        if (standPat >= beta || ply >= MAX_PLY - 1) {
+            return standPat;
+        }
+        if (standPat > alpha) {
+            alpha = standPat;
+        }
+
+        int[] list = moves[ply];
+        int count = MoveGenerator.generateCaptures(pos, list);
+        scoreMoves(list, moveScores[ply], count, ply, Moves.NONE, Moves.NONE);
+        for (int i = 0; i < count; i++) {
+            int move = pickNext(list, moveScores[ply], i, count);
+            pos.makeMove(move);
+            if (pos.leftKingInCheck()) {
+                pos.unmakeMove(move);
+                continue;
+            }
+            int score = -quiescence(-beta, -alpha, ply + 1);
+            pos.unmakeMove(move);
+            if (stopped) {
+                return 0;
+            }
+            if (score > alpha) {
+                if (score >= beta) {
+                    return beta;
+                }
+                alpha = score;
+            }
+        }
+        return alpha;
+    }
+
+    private void scoreMoves(int[] list, int[] scores, int count, int ply, int pvMove, int ttMove) {
+        for (int i = 0; i < count; i++) {
+            int move = list[i];
+            int score;
+            if (move == pvMove) {
+                score = SCORE_PV_MOVE;
+            } else if (move == ttMove) {
+                score = SCORE_TT_MOVE;
+            } else if (Moves.isCapture(move) || Moves.isPromotion(move)) {
+                int victim = Moves.flag(move) == Moves.EN_PASSANT || !Moves.isCapture(move)
+                        ? Piece.PAWN : Piece.type(pos.board[Moves.to(move)]);
+                int attacker = Piece.type(pos.board[Moves.from(move)]);
+                score = SCORE_CAPTURE + Evaluator.PIECE_VALUES[victim] * 10 - attacker;
+                if (Moves.isPromotion(move)) {
+                    score += Evaluator.PIECE_VALUES[Moves.promotionType(move)];
+                }
+            } else if (move == killers[ply][0]) {
+                score = SCORE_FIRST_KILLER;
+            } else if (move == killers[ply][1]) {
+                score = SCORE_SECOND_KILLER;
+            } else {
+                score = Math.min(history[pos.board[Moves.from(move)]][Moves.to(move)], SCORE_SECOND_KILLER - 1);
+            }
+            scores[i] = score;
+        }
+    }
+
+    // Selection sort step: moves the best remaining move to index i and returns it
+    private static int pickNext(int[] list, int[] scores, int i, int count) {
+        int best = i;
+        for (int j = i + 1; j < count; j++) {
+            if (scores[j] > scores[best]) {
+                best = j;
+            }
+        }
+        if (best != i) {
+            int move = list[i];
+            list[i] = list[best];
+            list[best] = move;
+            int score = scores[i];
+            scores[i] = scores[best];
+            scores[best] = score;
+        }
+        return list[i];
+    }
+}
@@ -0,0 +1,14 @@
+package com.chess.engine;
+
+/**
+ * Budget for one search: wall-clock time in milliseconds and maximum nominal depth in plies.
+ */
+public record SearchLimits(long timeMillis, int maxDepth) {
+
+    public SearchLimits {
+        if (timeMillis <= 0) {
+            throw new IllegalArgumentException("timeMillis must be positive");
+        }
+        maxDepth = Math.max(1, Math.min(maxDepth, Search.MAX_PLY - 1));
+    }
+}
@@ -0,0 +1,12 @@
+package com.chess.engine;
+
+/**
+ * Outcome of a search: best move ({@link Moves#NONE} when there is no legal move), its score in
+ * centipawns from the side to move's view, the last completed depth and the nodes visited.
+ */
+public record SearchResult(int bestMove, int score, int depth, long nodes, long elapsedMillis) {
+
+    public boolean isMateScore() {
+        return Math.abs(score) >= Search.MATE - Search.MAX_PLY;
+    }
+}
@@ -0,0 +1,173 @@
+package com.chess.engine;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free transposition table shared by all search threads, allocated off-heap with a fixed byte budget.
+ * Entries are two longs, {@code key ^ data} and {@code data}; a reader only accepts an entry whose halves
+ * XOR back to its key, so a torn write from a concurrent store reads as a miss instead of corrupt data.
+ * Entries are grouped in 4-way buckets of one cache line; a store replaces the same position, else the
+ * slot with the lowest depth after penalizing entries from older searches.
+ * <p>
+ * Data layout: bits 0-15 move, 16-31 score, 32-39 depth, 40-41 bound, 42-47 search generation.
+ */
+public final class TranspositionTable {
+
+    public static final int BOUND_EXACT = 1;
+    public static final int BOUND_LOWER = 2;
+    public static final int BOUND_UPPER = 3;
+
+    private static final int BUCKET_SLOTS = 4;
+    private static final int BUCKET_LONGS = BUCKET_SLOTS * 2;
+    private static final int BUCKET_BYTES = BUCKET_LONGS * Long.BYTES;
+    private static final int GENERATION_MASK = 0x3F;
+    // Depth plies one generation of age is worth when choosing a slot to replace
+    private static final int AGE_WEIGHT = 8;
+    private static final int OCCUPANCY_SAMPLE_BUCKETS = 1000;
+
+    private final OffHeapLongArray table;
+    private final long bucketMask;
+    private volatile int generation;
+
+    private final LongAdder probes = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder stores = new LongAdder();
+
+    public TranspositionTable(int sizeMb) {
+        long buckets = Long.highestOneBit(Math.max(1L, (long) sizeMb * 1024 * 1024 / BUCKET_BYTES));
+        this.table = new OffHeapLongArray(buckets * BUCKET_LONGS);
+        this.bucketMask = buckets - 1;
+    }
+
+    /**
+     * Starts a new search generation so entries of earlier searches are replaced first.
+     */
+    public void newSearch() {
+        generation = (generation + 1) & GENERATION_MASK;
+    }
+
+    /**
+     * Returns the packed data stored for the key, or 0 on a miss.
+     */
+    public long probe(long key) {
+        long base = (key & bucketMask) * BUCKET_LONGS;
+        for (int slot = 0; slot < BUCKET_SLOTS; slot++) {
+            long index = base + slot * 2;
+            long data = table.get(index + 1);
+            if ((table.get(index) ^ data) == key && data != 0) {
+                return data;
+            }
+        }
+        return 0L;
+    }
+
+    /**
+     * Stores a search result. Mate scores must already be converted with {@link #scoreToTable}.
+     */
+    public void store(long key, int move, int score, int depth, int bound) {
+        int currentGeneration = generation;
+        long base = (key & bucketMask) * BUCKET_LONGS;
+        long target = base;
+        int lowestValue = Integer.MAX_VALUE;
+        for (int slot = 0; slot < BUCKET_SLOTS; slot++) {
+            long index = base + slot * 2;
+            long data = table.get(index + 1);
+            if (data == 0) {
+                if (lowestValue > Integer.MIN_VALUE) {
+                    target = index;
+                    lowestValue = Integer.MIN_VALUE;
+                }
+                continue;
+            }
+            if ((table.get(index) ^ data) == key) {
+                // Same position: keep a deeper bound from this search unless the new result is exact
+                if (bound != BOUND_EXACT && depth(data) > depth && generation(data) == currentGeneration) {
+                    return;
+                }
+                if (move == Moves.NONE) {
+                    move = move(data);
+                }
+                target = index;
+                break;
+            }
+            int age = (currentGeneration - generation(data)) & GENERATION_MASK;
+            int value = depth(data) - AGE_WEIGHT * age;
+            if (value < lowestValue) {
+                lowestValue = value;
+                target = index;
+            }
+        }
+        long data = (move & 0xFFFFL)
+                  | ((score & 0xFFFFL) << 16)
+                  | ((long) (depth & 0xFF) << 32)
+                  | ((long) bound << 40)
+                  | ((long) currentGeneration << 42);
+        table.set(target, key ^ data);
+        table.set(target + 1, data);
+    }
+
+    /**
+     * Adds a search's probe, hit and store counts to the totals of {@link #stats}. Probes and stores do
+     * not count themselves: each search thread counts in plain fields and reports once when it ends.
+     */
+    public void addCounts(long probeCount, long hitCount, long storeCount) {
+        probes.add(probeCount);
+        hits.add(hitCount);
+        stores.add(storeCount);
+    }
+
+    public void clear() {
+        table.clear();
+    }
+
+    /**
+     * Occupancy sampled over the first buckets, counting only entries written by the current generation.
+     */
+    public CacheStats stats() {
+        long sampledBuckets = Math.min(OCCUPANCY_SAMPLE_BUCKETS, bucketMask + 1);
+        int currentGeneration = generation;
+        long used = 0;
+        for (long i = 0; i < sampledBuckets * BUCKET_SLOTS; i++) {
+            long data = table.get(i * 2 + 1);
+            if (data != 0 && generation(data) == currentGeneration) {
+                used++;
+            }
+        }
+        double occupancy = (double) used / (sampledBuckets * BUCKET_SLOTS);
+        return new CacheStats(table.sizeBytes(), (bucketMask + 1) * BUCKET_SLOTS, occupancy,
+                probes.sum(), hits.sum(), stores.sum());
+    }
+
+    public static int move(long data) { return (int) (data & 0xFFFF); }
+
+    public static int score(long data) { return (short) (data >>> 16); }
+
+    public static int depth(long data) { return (int) ((data >>> 32) & 0xFF); }
+
+    public static int bound(long data) { return (int) ((data >>> 40) & 0x3); }
+
+    private static int generation(long data) { return (int) ((data >>> 42) & GENERATION_MASK); }
+
+    /**
+     * Mate scores are stored relative to the node rather than the root so they stay valid at other plies.
+     */
+    public static int scoreToTable(int score, int ply) {
+        if (score >= Search.MATE - Search.MAX_PLY) {
+            return score + ply;
+        }
+        if (score <= -Search.MATE + Search.MAX_PLY) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    public static int scoreFromTable(int score, int ply) {
+        if (score >= Search.MATE - Search.MAX_PLY) {
+            return score - ply;
+        }
+        if (score <= -Search.MATE + Search.MAX_PLY) {
+            return score + ply;
+        }
+        return score;
+    }
+}
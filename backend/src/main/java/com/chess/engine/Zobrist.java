@@ -0,0 +1,66 @@
+package com.chess.engine;
+
+import java.util.SplittableRandom;
+
+/**
+ * Zobrist hashing keys. Generated from a fixed seed so keys are stable across restarts and nodes.
+ */
+public final class Zobrist {
+
+    static final long[][] PIECE_SQUARE = new long[Piece.COUNT][64];
+    static final long[] CASTLING = new long[16];
+    static final long[] EN_PASSANT_FILE = new long[8];
+    static final long SIDE;
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x5EEDC0DE2024L);
+        for (int piece = 0; piece < Piece.COUNT; piece++) {
+            for (int sq = 0; sq < 64; sq++) {
+                PIECE_SQUARE[piece][sq] = random.nextLong();
+            }
+        }
+        for (int i = 0; i < CASTLING.length; i++) {
+            CASTLING[i] = random.nextLong();
+        }
+        for (int i = 0; i < EN_PASSANT_FILE.length; i++) {
+            EN_PASSANT_FILE[i] = random.nextLong();
+        }
+        SIDE = random.nextLong();
+    }
+
+    private Zobrist() {}
+
+    /**
+     * The en passant file only counts when the side to move has a pawn able to capture,
+     * so positions that differ only by an unusable en passant square hash (and repeat) the same.
+     */
+    static boolean enPassantHashed(Position pos) {
+        int ep = pos.enPassantSquare;
+        if (ep < 0) {
+            return false;
+        }
+        int us = pos.sideToMove;
+        return (Bitboards.PAWN_ATTACKS[us ^ 1][ep] & pos.pieces[Piece.of(us, Piece.PAWN)]) != 0;
+    }
+
+    /**
+     * Computes the key from scratch; Position keeps it up to date incrementally afterwards.
+     */
+    static long compute(Position pos) {
+        long key = 0;
+        for (int sq = 0; sq < 64; sq++) {
+            int piece = pos.board[sq];
+            if (piece != Piece.NONE) {
+                key ^= PIECE_SQUARE[piece][sq];
+            }
+        }
+        key ^= CASTLING[pos.castlingRights];
+        if (enPassantHashed(pos)) {
+            key ^= EN_PASSANT_FILE[pos.enPassantSquare & 7];
+        }
+        if (pos.sideToMove == Piece.BLACK) {
+            key ^= SIDE;
+        }
+        return key;
+    }
+}
@@ -2,6 +2,7 @@ package com.chess.exception;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -38,6 +39,24 @@ public class GlobalExceptionHandler {
         return buildErrorResponse(ex.getMessage(), HttpStatus.CONFLICT, request);
     }
 
+    @ExceptionHandler(MovePersistenceException.class)
+    public ResponseEntity<Map<String, Object>> handleMovePersistenceException(
+            MovePersistenceException ex, WebRequest request) {
+        logger.error("Move not persisted: {}", ex.getMessage());
+        return buildErrorResponse(ex.getMessage(), HttpStatus.SERVICE_UNAVAILABLE, request);
+    }
+
+    @ExceptionHandler(ServerBusyException.class)
+    public ResponseEntity<Map<String, Object>> handleServerBusyException(
+            ServerBusyException ex, WebRequest request) {
+        ResponseEntity<Map<String, Object>> response =
+                buildErrorResponse(ex.getMessage(), HttpStatus.SERVICE_UNAVAILABLE, request);
+        // Turned away before any work: the client may simply try again
+        return ResponseEntity.status(response.getStatusCode())
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(response.getBody());
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Map<String, Object>> handleGlobalException(
             Exception ex, WebRequest request) {
@@ -0,0 +1,11 @@
+package com.chess.exception;
+
+public class MovePersistenceException extends RuntimeException {
+    public MovePersistenceException(String message) {
+        super(message);
+    }
+
+    public MovePersistenceException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,90 @@
+package com.chess.journal;
+
+import com.chess.engine.Bitboards;
+import com.chess.engine.Piece;
+import com.chess.model.Move;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.zip.CRC32C;
+
+/**
+ * One journaled move: enough to play it again through the normal move path.
+ * <p>
+ * On disk a record is {@link #SIZE} bytes: the payload length, the CRC32C of the payload, then the
+ * payload (sequence, game id, move number, from, to, piece type, color, promotion type, creation
+ * time). A length other than {@link #PAYLOAD_SIZE} or a CRC mismatch marks the end of the log.
+ */
+public record JournalRecord(long sequence, long gameId, int moveNumber, int from, int to, int pieceType,
+                            int color, int promotionType, long createdAtMillis) {
+
+    static final int PAYLOAD_SIZE = 8 + 8 + 4 + 5 + 8;
+    static final int SIZE = 8 + PAYLOAD_SIZE;
+
+    /**
+     * Record of a move accepted in memory; the sequence is assigned by {@link MoveJournal#append}
+     */
+    public static JournalRecord of(long gameId, Move move) {
+        long createdAt = move.getCreatedAt() != null
+            ? move.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+            : System.currentTimeMillis();
+        return new JournalRecord(0, gameId, move.getMoveNumber(),
+                                 Bitboards.parseSquare(move.getFromPosition()),
+                                 Bitboards.parseSquare(move.getToPosition()),
+                                 Piece.parseType(move.getPieceType()),
+                                 "BLACK".equals(move.getPlayerColor()) ? Piece.BLACK : Piece.WHITE,
+                                 Piece.parseType(move.getPromotion()),
+                                 createdAt);
+    }
+
+    JournalRecord withSequence(long sequence) {
+        return new JournalRecord(sequence, gameId, moveNumber, from, to, pieceType, color, promotionType,
+                                 createdAtMillis);
+    }
+
+    public String fromSquare() { return Bitboards.squareName(from); }
+
+    public String toSquare() { return Bitboards.squareName(to); }
+
+    public String pieceName() { return Piece.typeName(pieceType); }
+
+    public String colorName() { return Piece.colorName(color); }
+
+    public String promotionName() { return promotionType == Piece.NONE ? null : Piece.typeName(promotionType); }
+
+    public LocalDateTime createdAt() {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(createdAtMillis), ZoneId.systemDefault());
+    }
+
+    /**
+     * Encodes the record as stored, from index 0 of a heap buffer of at least {@link #SIZE} bytes
+     */
+    void encode(ByteBuffer buffer, CRC32C crc) {
+        buffer.clear();
+        buffer.position(8);
+        writePayload(buffer);
+        crc.reset();
+        crc.update(buffer.array(), buffer.arrayOffset() + 8, PAYLOAD_SIZE);
+        buffer.putInt(0, PAYLOAD_SIZE).putInt(4, (int) crc.getValue());
+    }
+
+    void writePayload(ByteBuffer buffer) {
+        buffer.putLong(sequence)
+              .putLong(gameId)
+              .putInt(moveNumber)
+              .put((byte) from)
+              .put((byte) to)
+              .put((byte) pieceType)
+              .put((byte) color)
+              .put((byte) promotionType)
+              .putLong(createdAtMillis);
+    }
+
+    static JournalRecord readPayload(ByteBuffer buffer) {
+        return new JournalRecord(buffer.getLong(), buffer.getLong(), buffer.getInt(),
+                                 buffer.get(), buffer.get(), buffer.get(), buffer.get(), buffer.get(),
+                                 buffer.getLong());
+    }
+}
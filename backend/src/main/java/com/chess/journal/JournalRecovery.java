@@ -0,0 +1,107 @@
+package com.chess.journal;
+
+import com.chess.repository.GameRepository;
+import com.chess.service.GameServiceInterface;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Replays the journal of the previous run, then opens the journal for new moves. It runs once every
+ * bean is created, before the web server accepts connections, so replayed moves precede live ones.
+ * <p>
+ * A record whose move number is not above the game's ply count in the database was already copied
+ * there and is skipped. The others are played again through the normal move path, which validates
+ * them and writes them to the database, since the journal is not accepting yet.
+ */
+@Component
+@ConditionalOnProperty(name = "chess.journal.enabled", havingValue = "true")
+public class JournalRecovery implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(JournalRecovery.class);
+
+    @Autowired
+    private MoveJournal moveJournal;
+
+    @Autowired
+    private GameServiceInterface gameService;
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        try {
+            List<JournalRecord> records = moveJournal.recover();
+            long lastSequence = replay(records);
+            moveJournal.open(lastSequence + 1);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open the move journal", e);
+        }
+    }
+
+    /**
+     * Plays the records missing from the database and waits until they are committed; returns the
+     * last sequence found
+     */
+    long replay(List<JournalRecord> records) {
+        // Next move number expected per game, and games that cannot take their records any more
+        Map<Long, Integer> nextMove = new HashMap<>();
+        Set<Long> abandoned = new HashSet<>();
+        List<CompletableFuture<?>> commits = new ArrayList<>();
+        long lastSequence = 0;
+        int skipped = 0;
+        for (JournalRecord record : records) {
+            lastSequence = Math.max(lastSequence, record.sequence());
+            if (abandoned.contains(record.gameId())) {
+                continue;
+            }
+            Integer expected = nextMove.computeIfAbsent(record.gameId(), gameId ->
+                gameRepository.findVersionById(gameId)
+                              .map(version -> (version.getPlyCount() != null ? version.getPlyCount() : 0) + 1)
+                              .orElse(null));
+            if (expected == null) {
+                logger.warn("Journal has moves of game {}, which does not exist", record.gameId());
+                abandoned.add(record.gameId());
+                continue;
+            }
+            if (record.moveNumber() < expected) {
+                skipped++;
+                continue;
+            }
+            if (record.moveNumber() > expected) {
+                logger.warn("Journal is missing moves {} to {} of game {}: its later moves are not replayed",
+                           expected, record.moveNumber() - 1, record.gameId());
+                abandoned.add(record.gameId());
+                continue;
+            }
+            try {
+                commits.add(gameService.makeMoveAsync(record.gameId(), record.fromSquare(), record.toSquare(),
+                                                      record.pieceName(), record.colorName(),
+                                                      record.promotionName()));
+                nextMove.put(record.gameId(), expected + 1);
+            } catch (RuntimeException e) {
+                logger.warn("Cannot replay move {} of game {}: {}", record.moveNumber(), record.gameId(),
+                           e.getMessage());
+                abandoned.add(record.gameId());
+            }
+        }
+        // The previous segments are deleted next: everything in them must be in the database first
+        CompletableFuture.allOf(commits.toArray(CompletableFuture[]::new)).join();
+        logger.info("Journal recovery: {} moves replayed, {} already saved", commits.size(), skipped);
+        return lastSequence;
+    }
+}
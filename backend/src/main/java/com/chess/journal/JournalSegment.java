@@ -0,0 +1,105 @@
+package com.chess.journal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * One preallocated journal file, memory-mapped for its whole length. Records are written back to
+ * back after an 8-byte header; the untouched remainder of the file is zeros, which reads as the end.
+ * Writes go through {@link MoveJournal}, one at a time.
+ */
+final class JournalSegment {
+
+    static final String PREFIX = "moves-";
+    static final String SUFFIX = ".journal";
+
+    private static final int MAGIC = 0x43484A31; // "CHJ1"
+    private static final int HEADER_SIZE = 8;
+
+    final Path path;
+    final long firstSequence;
+    // Sequence of the last record written; firstSequence - 1 while the segment is empty
+    long lastSequence;
+    private final MappedByteBuffer buffer;
+    private int position = HEADER_SIZE;
+
+    private JournalSegment(Path path, long firstSequence, MappedByteBuffer buffer) {
+        this.path = path;
+        this.firstSequence = firstSequence;
+        this.lastSequence = firstSequence - 1;
+        this.buffer = buffer;
+    }
+
+    /**
+     * Creates the segment whose first record will have the given sequence
+     */
+    static JournalSegment create(Path directory, long firstSequence, int size) throws IOException {
+        Path path = directory.resolve(String.format("%s%020d%s", PREFIX, firstSequence, SUFFIX));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                                                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // The mapping stays valid after the channel is closed
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, size);
+            return new JournalSegment(path, firstSequence, buffer);
+        }
+    }
+
+    /**
+     * Adds the segment's valid records to the list, stopping at the first torn, blank or corrupt one;
+     * returns false if the file is not a journal segment
+     */
+    static boolean read(Path path, List<JournalRecord> records) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+                return false;
+            }
+            CRC32C crc = new CRC32C();
+            int position = HEADER_SIZE;
+            while (position + JournalRecord.SIZE <= buffer.limit()
+                   && buffer.getInt(position) == JournalRecord.PAYLOAD_SIZE) {
+                ByteBuffer payload = buffer.slice(position + 8, JournalRecord.PAYLOAD_SIZE);
+                crc.reset();
+                crc.update(payload.duplicate());
+                if ((int) crc.getValue() != buffer.getInt(position + 4)) {
+                    break;
+                }
+                records.add(JournalRecord.readPayload(payload));
+                position += JournalRecord.SIZE;
+            }
+            return true;
+        }
+    }
+
+    boolean hasRoom() {
+        return position + JournalRecord.SIZE <= buffer.capacity();
+    }
+
+    /**
+     * Writes a record encoded in {@code scratch} by {@link JournalRecord#encode}
+     */
+    void write(ByteBuffer scratch, long sequence) {
+        buffer.put(position, scratch, 0, JournalRecord.SIZE);
+        position += JournalRecord.SIZE;
+        lastSequence = sequence;
+    }
+
+    /**
+     * Flushes the written records to the storage device
+     */
+    void force() {
+        buffer.force();
+    }
+
+    void delete() throws IOException {
+        Files.deleteIfExists(path);
+    }
+}
@@ -0,0 +1,265 @@
+package com.chess.journal;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only move journal in front of the database. Once {@link JournalRecovery} has opened it,
+ * which {@code chess.journal.enabled} turns on, a move is acknowledged as soon as its record is on
+ * disk and the write-behind queue copies it to the relational tables afterwards.
+ * <ul>
+ *   <li>Records of every game go, in order, into segments of {@code chess.journal.segment-mb} that
+ *       are memory-mapped files under {@code chess.journal.dir}. Each record has a CRC32C.</li>
+ *   <li>Group commit: one sync thread forces the dirty segments and completes every record
+ *       appended before the force, so concurrent moves share one flush.</li>
+ *   <li>A segment is deleted once all its records are in the database. Records left by a crash
+ *       are returned by {@link #recover} and replayed by {@link JournalRecovery} before
+ *       {@link #open} starts a new segment.</li>
+ * </ul>
+ * A record is in the page cache as soon as it is written, so it survives a killed process. The
+ * force makes it survive a power loss too.
+ */
+@Component
+public class MoveJournal {
+
+    private static final Logger logger = LoggerFactory.getLogger(MoveJournal.class);
+
+    @Value("${chess.journal.dir:journal}")
+    private String dir;
+
+    @Value("${chess.journal.segment-mb:64}")
+    private int segmentMb;
+
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final ByteBuffer scratch = ByteBuffer.allocate(JournalRecord.SIZE);
+    private final CRC32C crc = new CRC32C();
+    // Guarded by appendLock
+    private final List<JournalSegment> segments = new ArrayList<>();
+    private final Set<JournalSegment> dirty = new LinkedHashSet<>();
+    private JournalSegment active;
+    private long nextSequence = 1;
+
+    private final LinkedBlockingQueue<CompletableFuture<Void>> syncQueue = new LinkedBlockingQueue<>();
+    // Journaled and not yet committed to the database
+    private final ConcurrentSkipListSet<Long> unpersisted = new ConcurrentSkipListSet<>();
+    private final AtomicLong appended = new AtomicLong();
+    private final AtomicLong forces = new AtomicLong();
+    private final AtomicLong forceNanos = new AtomicLong();
+    private Path directory;
+    private List<Path> previousSegments = List.of();
+    private Thread syncer;
+    private volatile boolean accepting;
+
+    /**
+     * True once {@link #open} has run: moves are then acknowledged by the journal
+     */
+    public boolean isAccepting() {
+        return accepting;
+    }
+
+    /**
+     * Records found in the segments of the previous run, in sequence order
+     */
+    public List<JournalRecord> recover() throws IOException {
+        directory = Path.of(dir).toAbsolutePath();
+        Files.createDirectories(directory);
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory,
+                JournalSegment.PREFIX + "*" + JournalSegment.SUFFIX)) {
+            stream.forEach(files::add);
+        }
+        // Zero-padded sequences: name order is sequence order
+        files.sort(null);
+        List<JournalRecord> records = new ArrayList<>();
+        List<Path> segmentFiles = new ArrayList<>();
+        for (Path file : files) {
+            if (JournalSegment.read(file, records)) {
+                segmentFiles.add(file);
+            } else {
+                logger.warn("Ignoring {}: not a journal segment", file);
+            }
+        }
+        previousSegments = segmentFiles;
+        logger.info("Journal {}: {} records in {} segments", directory, records.size(), segmentFiles.size());
+        return records;
+    }
+
+    /**
+     * Deletes the previous run's segments, whose records must all be in the database by now, and
+     * starts accepting moves
+     */
+    public void open(long firstSequence) throws IOException {
+        for (Path file : previousSegments) {
+            Files.deleteIfExists(file);
+        }
+        previousSegments = List.of();
+        nextSequence = firstSequence;
+        active = JournalSegment.create(directory, nextSequence, segmentMb * 1024 * 1024);
+        segments.add(active);
+        // Before the sync thread starts, whose loop runs while accepting
+        accepting = true;
+        syncer = new Thread(this::syncLoop, "chess-journal-sync");
+        syncer.setDaemon(true);
+        syncer.start();
+        logger.info("Journal open at sequence {}, {} MB segments", nextSequence, segmentMb);
+    }
+
+    /**
+     * Appends a move and returns its sequence; the future completes once the record is forced.
+     * Appends of one game must come from one thread at a time to keep their order.
+     */
+    public long append(JournalRecord record, CompletableFuture<Void> durable) {
+        appendLock.lock();
+        try {
+            if (!active.hasRoom()) {
+                active = JournalSegment.create(directory, nextSequence, segmentMb * 1024 * 1024);
+                segments.add(active);
+            }
+            long sequence = nextSequence++;
+            record.withSequence(sequence).encode(scratch, crc);
+            active.write(scratch, sequence);
+            dirty.add(active);
+            unpersisted.add(sequence);
+            syncQueue.add(durable);
+            appended.incrementAndGet();
+            return sequence;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot start a new journal segment", e);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Marks a record as committed to the database, so that its segment can eventually be deleted
+     */
+    public void persisted(long sequence) {
+        unpersisted.remove(sequence);
+    }
+
+    public long appended() {
+        return appended.get();
+    }
+
+    public long forces() {
+        return forces.get();
+    }
+
+    /**
+     * Mean duration of one group commit, in microseconds
+     */
+    public double meanForceMicros() {
+        long count = forces.get();
+        return count == 0 ? 0 : forceNanos.get() / 1e3 / count;
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        if (!accepting) {
+            return;
+        }
+        accepting = false;
+        syncer.interrupt();
+        syncer.join(TimeUnit.SECONDS.toMillis(10));
+        // Nothing is acknowledged by the sync thread any more: force what is left on this one
+        List<CompletableFuture<Void>> waiting = new ArrayList<>();
+        syncQueue.drainTo(waiting);
+        sync(waiting);
+        logger.info("Journal closed: {} records, {} group commits, {} us per commit",
+                   appended.get(), forces.get(), String.format("%.1f", meanForceMicros()));
+    }
+
+    private void syncLoop() {
+        List<CompletableFuture<Void>> batch = new ArrayList<>();
+        while (accepting) {
+            try {
+                CompletableFuture<Void> first = syncQueue.poll(1, TimeUnit.SECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    syncQueue.drainTo(batch);
+                    sync(batch);
+                    batch.clear();
+                }
+                deletePersistedSegments();
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                logger.error("Journal sync failed: {}", e.getMessage(), e);
+                batch.forEach(durable -> durable.completeExceptionally(e));
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Forces every segment written since the last sync, then completes the futures: each of them was
+     * queued after its record was written, so the records are on disk
+     */
+    private void sync(List<CompletableFuture<Void>> batch) {
+        List<JournalSegment> toForce;
+        appendLock.lock();
+        try {
+            toForce = new ArrayList<>(dirty);
+            dirty.clear();
+        } finally {
+            appendLock.unlock();
+        }
+        long start = System.nanoTime();
+        for (JournalSegment segment : toForce) {
+            segment.force();
+        }
+        forceNanos.addAndGet(System.nanoTime() - start);
+        forces.incrementAndGet();
+        for (CompletableFuture<Void> durable : batch) {
+            durable.complete(null);
+        }
+    }
+
+    /**
+     * Deletes the full segments whose records have all reached the database
+     */
+    void deletePersistedSegments() {
+        List<JournalSegment> persisted = new ArrayList<>();
+        appendLock.lock();
+        try {
+            long oldestUnpersisted = unpersisted.isEmpty() ? nextSequence : unpersisted.first();
+            for (JournalSegment segment : segments) {
+                if (segment != active && !dirty.contains(segment) && segment.lastSequence < oldestUnpersisted) {
+                    persisted.add(segment);
+                }
+            }
+            segments.removeAll(persisted);
+        } finally {
+            appendLock.unlock();
+        }
+        for (JournalSegment segment : persisted) {
+            try {
+                segment.delete();
+                logger.debug("Deleted journal segment {}", segment.path);
+            } catch (IOException e) {
+                logger.warn("Cannot delete journal segment {}: {}", segment.path, e.getMessage());
+            }
+        }
+    }
+}
@@ -7,10 +7,15 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "games")
+@Table(name = "games", indexes = {
+    @Index(name = "idx_games_white_history", columnList = "white_player_id, status, updated_at, id"),
+    @Index(name = "idx_games_black_history", columnList = "black_player_id, status, updated_at, id")
+})
 public class Game {
+    // Pooled sequence, like Move, so bulk imports can batch game inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "game_seq")
+    @SequenceGenerator(name = "game_seq", sequenceName = "games_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne
@@ -27,6 +32,28 @@ public class Game {
     @Column(name = "current_turn")
     private String currentTurn; // "WHITE" or "BLACK"
     
+    @Column(name = "result")
+    private String result; // "1-0", "0-1" or "1/2-1/2" once finished
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "end_reason")
+    private EndReason endReason;
+    
+    @Column(name = "white_accuracy")
+    private Double whiteAccuracy; // Percent, set by game analysis
+    
+    @Column(name = "black_accuracy")
+    private Double blackAccuracy;
+    
+    @Column(name = "analyzed_at")
+    private LocalDateTime analyzedAt; // Null until the finished game has been analyzed
+    
+    @Column(name = "ply_count")
+    private Integer plyCount; // Moves persisted so far; null for games saved before checkpoints
+    
+    @Column(name = "current_fen")
+    private String currentFen; // Position after the last persisted move
+    
     @Column(name = "created_at")
     private LocalDateTime createdAt;
     
@@ -34,6 +61,7 @@ public class Game {
     private LocalDateTime updatedAt;
     
     @OneToMany(mappedBy = "game", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @OrderBy("moveNumber ASC")
     @JsonManagedReference
     private List<Move> moves = new ArrayList<>();
     
@@ -41,6 +69,10 @@ public class Game {
         WAITING, ACTIVE, FINISHED, PAUSED
     }
     
+    public enum EndReason {
+        CHECKMATE, STALEMATE, THREEFOLD_REPETITION, FIFTY_MOVE_RULE
+    }
+    
     public Game() {
         this.createdAt = LocalDateTime.now();
         this.updatedAt = LocalDateTime.now();
@@ -64,6 +96,28 @@ public class Game {
     public String getCurrentTurn() { return currentTurn; }
     public void setCurrentTurn(String currentTurn) { this.currentTurn = currentTurn; }
     
+    public String getResult() { return result; }
+    public void setResult(String result) { this.result = result; }
+    
+    public EndReason getEndReason() { return endReason; }
+    public void setEndReason(EndReason endReason) { this.endReason = endReason; }
+    
+    public Double getWhiteAccuracy() { return whiteAccuracy; }
+    public void setWhiteAccuracy(Double whiteAccuracy) { this.whiteAccuracy = whiteAccuracy; }
+    
+    public Double getBlackAccuracy() { return blackAccuracy; }
+    public void setBlackAccuracy(Double blackAccuracy) { this.blackAccuracy = blackAccuracy; }
+    
+    public LocalDateTime getAnalyzedAt() { return analyzedAt; }
+    public void setAnalyzedAt(LocalDateTime analyzedAt) { this.analyzedAt = analyzedAt; }
+    
+    public Integer getPlyCount() { return plyCount; }
+    public void setPlyCount(Integer plyCount) { this.plyCount = plyCount; }
+    
+    public String getCurrentFen() { return currentFen; }
+    public void setCurrentFen(String currentFen) { this.currentFen = currentFen; }
+    
+    
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
     
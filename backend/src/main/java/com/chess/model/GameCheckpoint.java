@@ -0,0 +1,88 @@
+package com.chess.model;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Position of a game after a ply, saved every chess.game.checkpoint-interval plies so that any ply
+ * can be reached by replaying at most one interval of moves. One row per checkpoint, apart from the
+ * game's row, which then stays the same size however long the game.
+ * <p>
+ * Like {@link GameMoves}, the id is assigned: {@link #isNew} lets Spring Data insert a new
+ * checkpoint without a merge.
+ */
+@Entity
+@Table(name = "game_checkpoints")
+@IdClass(GameCheckpoint.Key.class)
+public class GameCheckpoint implements Persistable<GameCheckpoint.Key> {
+    @Id
+    @Column(name = "game_id")
+    private Long gameId;
+    
+    @Id
+    @Column(name = "ply")
+    private Integer ply;
+    
+    @Column(name = "fen")
+    private String fen;
+    
+    @Transient
+    private boolean isNew = true; // Until loaded or persisted
+    
+    /**
+     * Primary key: the game, then the ply, so the nearest checkpoint before a ply is one index seek
+     */
+    public static class Key implements Serializable {
+        private Long gameId;
+        private Integer ply;
+        
+        public Key() {}
+        
+        public Key(Long gameId, Integer ply) {
+            this.gameId = gameId;
+            this.ply = ply;
+        }
+        
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Key key && Objects.equals(gameId, key.gameId) && Objects.equals(ply, key.ply);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(gameId, ply);
+        }
+    }
+    
+    public GameCheckpoint() {}
+    
+    public GameCheckpoint(Long gameId, Integer ply, String fen) {
+        this.gameId = gameId;
+        this.ply = ply;
+        this.fen = fen;
+    }
+    
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+    
+    @Override
+    public Key getId() { return new Key(gameId, ply); }
+    
+    @Override
+    public boolean isNew() { return isNew; }
+    
+    // Getters and Setters
+    public Long getGameId() { return gameId; }
+    public void setGameId(Long gameId) { this.gameId = gameId; }
+    
+    public Integer getPly() { return ply; }
+    public void setPly(Integer ply) { this.ply = ply; }
+    
+    public String getFen() { return fen; }
+    public void setFen(String fen) { this.fen = fen; }
+}
@@ -0,0 +1,81 @@
+package com.chess.model;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+import java.time.LocalDateTime;
+
+/**
+ * Packed move list of one game, used when chess.game.move-storage=packed. One row per game instead of
+ * one per ply: each move takes 2 bytes and its clock delta a varint of 1-3 bytes.
+ * <p>
+ * The id is the game's, assigned rather than generated, so {@link #isNew} tells Spring Data whether to
+ * persist or merge: a new record is inserted without the SELECT a merge would issue first.
+ */
+@Entity
+@Table(name = "game_moves")
+public class GameMoves implements Persistable<Long> {
+    @Id
+    @Column(name = "game_id")
+    private Long gameId;
+    
+    @Column(name = "started_at")
+    private LocalDateTime startedAt; // Base of the clock deltas
+    
+    @Column(name = "last_move_at")
+    private LocalDateTime lastMoveAt; // Sum of the clock deltas, so an append need not decode them; null if written before
+    
+    @Lob
+    @Column(name = "moves")
+    private byte[] moves; // 16 bits per ply, big-endian: from | to << 6 | promotion << 12
+    
+    @Lob
+    @Column(name = "clocks")
+    private byte[] clocks; // Unsigned varint per ply: milliseconds since the previous move
+    
+    @Lob
+    @Column(name = "analysis")
+    private byte[] analysis; // 3 bytes per ply once analyzed: evaluation (16 bits) and annotation
+    
+    @Transient
+    private boolean isNew = true; // Until loaded or persisted
+    
+    public GameMoves() {}
+    
+    public GameMoves(Long gameId, LocalDateTime startedAt) {
+        this.gameId = gameId;
+        this.startedAt = startedAt;
+        this.moves = new byte[0];
+        this.clocks = new byte[0];
+    }
+    
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+    
+    @Override
+    public Long getId() { return gameId; }
+    
+    @Override
+    public boolean isNew() { return isNew; }
+    
+    // Getters and Setters
+    public Long getGameId() { return gameId; }
+    public void setGameId(Long gameId) { this.gameId = gameId; }
+    
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+    
+    public LocalDateTime getLastMoveAt() { return lastMoveAt; }
+    public void setLastMoveAt(LocalDateTime lastMoveAt) { this.lastMoveAt = lastMoveAt; }
+    
+    public byte[] getMoves() { return moves; }
+    public void setMoves(byte[] moves) { this.moves = moves; }
+    
+    public byte[] getClocks() { return clocks; }
+    public void setClocks(byte[] clocks) { this.clocks = clocks; }
+    
+    public byte[] getAnalysis() { return analysis; }
+    public void setAnalysis(byte[] analysis) { this.analysis = analysis; }
+}
@@ -5,10 +5,17 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "moves")
+// Seeks to a ply, the moves after one and the export all read a game's moves in ply order; unique
+// so that a ply can never be written twice
+@Table(name = "moves", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_moves_game_ply", columnNames = {"game_id", "move_number"})
+})
 public class Move {
+    // Pooled sequence rather than IDENTITY so the write-behind queue can batch inserts:
+    // ids are reserved 50 at a time without a round trip per row
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "move_seq")
+    @SequenceGenerator(name = "move_seq", sequenceName = "moves_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne
@@ -34,12 +41,26 @@ public class Move {
     @Column(name = "captured_piece")
     private String capturedPiece;
     
+    @Column(name = "promotion")
+    private String promotion; // Promotion piece type, null for non-promoting moves
+    
     @Column(name = "move_notation")
     private String moveNotation; // Standard chess notation
     
+    @Column(name = "evaluation")
+    private Integer evaluation; // Centipawns from White's view after the move, set by game analysis
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "annotation")
+    private Annotation annotation; // Null for good moves
+    
     @Column(name = "created_at")
     private LocalDateTime createdAt;
     
+    public enum Annotation {
+        MISTAKE, BLUNDER
+    }
+    
     public Move() {
         this.createdAt = LocalDateTime.now();
     }
@@ -69,9 +90,18 @@ public class Move {
     public String getCapturedPiece() { return capturedPiece; }
     public void setCapturedPiece(String capturedPiece) { this.capturedPiece = capturedPiece; }
     
+    public String getPromotion() { return promotion; }
+    public void setPromotion(String promotion) { this.promotion = promotion; }
+    
     public String getMoveNotation() { return moveNotation; }
     public void setMoveNotation(String moveNotation) { this.moveNotation = moveNotation; }
     
+    public Integer getEvaluation() { return evaluation; }
+    public void setEvaluation(Integer evaluation) { this.evaluation = evaluation; }
+    
+    public Annotation getAnnotation() { return annotation; }
+    public void setAnnotation(Annotation annotation) { this.annotation = annotation; }
+    
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 }
\ No newline at end of file
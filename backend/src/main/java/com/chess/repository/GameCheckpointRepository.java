@@ -0,0 +1,15 @@
+package com.chess.repository;
+
+import com.chess.model.GameCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.util.Optional;
+
+@Repository
+public interface GameCheckpointRepository extends JpaRepository<GameCheckpoint, GameCheckpoint.Key> {
+    
+    /**
+     * Nearest checkpoint at or before a ply
+     */
+    Optional<GameCheckpoint> findFirstByGameIdAndPlyLessThanEqualOrderByPlyDesc(Long gameId, Integer ply);
+}
@@ -0,0 +1,27 @@
+package com.chess.repository;
+
+import com.chess.model.GameMoves;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+@Repository
+public interface GameMovesRepository extends JpaRepository<GameMoves, Long> {
+    
+    /**
+     * Rows of {@code [Game, GameMoves]}, one per packed game
+     */
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = MoveRepository.EXPORT_FETCH_SIZE),
+                  @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+    @Query("SELECT g, gm FROM GameMoves gm JOIN Game g ON g.id = gm.gameId "
+         + "LEFT JOIN FETCH g.whitePlayer w LEFT JOIN FETCH g.blackPlayer b "
+         + "WHERE " + MoveRepository.EXPORT_FILTER + " ORDER BY g.id")
+    Stream<Object[]> streamForExport(@Param("player") String player, @Param("from") LocalDateTime from,
+                                     @Param("to") LocalDateTime to);
+}
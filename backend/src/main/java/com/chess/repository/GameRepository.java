@@ -1,21 +1,68 @@
 package com.chess.repository;
 
+import com.chess.dto.GameSummaryDto;
 import com.chess.model.Game;
 import com.chess.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface GameRepository extends JpaRepository<Game, Long> {
     
+    /**
+     * The columns a game's version is made of
+     */
+    interface GameVersion {
+        Integer getPlyCount();
+        Game.GameStatus getStatus();
+        LocalDateTime getAnalyzedAt();
+    }
+    
+    @Query("SELECT g.plyCount AS plyCount, g.status AS status, g.analyzedAt AS analyzedAt FROM Game g WHERE g.id = :id")
+    Optional<GameVersion> findVersionById(@Param("id") Long id);
+    
+    @Query("SELECT g FROM Game g LEFT JOIN FETCH g.whitePlayer LEFT JOIN FETCH g.blackPlayer LEFT JOIN FETCH g.moves WHERE g.id = :id")
+    Optional<Game> findWithMovesById(@Param("id") Long id);
+    
     @Query("SELECT g FROM Game g WHERE (g.whitePlayer = ?1 OR g.blackPlayer = ?1) AND g.status = 'ACTIVE'")
     Optional<Game> findActiveGameByPlayer(User player);
     
-    @Query("SELECT g FROM Game g WHERE (g.whitePlayer = ?1 OR g.blackPlayer = ?1)")
-    List<Game> findGamesByPlayer(User player);
+    @Query("SELECT g FROM Game g WHERE (g.whitePlayer = ?1 OR g.blackPlayer = ?1) AND g.status = ?2")
+    List<Game> findGamesByPlayerAndStatus(User player, Game.GameStatus status);
     
     List<Game> findByStatus(Game.GameStatus status);
-}
\ No newline at end of file
+    
+    @Query("SELECT g.id FROM Game g WHERE g.status = 'FINISHED' AND g.analyzedAt IS NULL AND g.id > ?1 ORDER BY g.id")
+    List<Long> findUnanalyzedFinishedGameIds(Long afterId, Pageable page);
+    
+    long countByStatusAndAnalyzedAtIsNull(Game.GameStatus status);
+    
+    // History pages, one query per color so each is a range seek on its (player, status, updated_at, id) index.
+    // The keyset condition picks up right after the last game of the previous page, however deep;
+    // its updatedAt <= bound is what lets the index seek straight there.
+    @Query("SELECT new com.chess.dto.GameSummaryDto(g.id, w.username, b.username, g.status, g.result, g.endReason, "
+         + "g.plyCount, g.createdAt, g.updatedAt) "
+         + "FROM Game g JOIN g.whitePlayer w LEFT JOIN g.blackPlayer b "
+         + "WHERE g.whitePlayer.id = :playerId AND g.status = :status "
+         + "AND g.updatedAt <= :updatedAt AND (g.updatedAt < :updatedAt OR g.id < :id) "
+         + "ORDER BY g.updatedAt DESC, g.id DESC")
+    List<GameSummaryDto> findHistoryAsWhite(@Param("playerId") Long playerId, @Param("status") Game.GameStatus status,
+                                            @Param("updatedAt") LocalDateTime updatedAt, @Param("id") Long id,
+                                            Pageable page);
+    
+    @Query("SELECT new com.chess.dto.GameSummaryDto(g.id, w.username, b.username, g.status, g.result, g.endReason, "
+         + "g.plyCount, g.createdAt, g.updatedAt) "
+         + "FROM Game g JOIN g.blackPlayer b LEFT JOIN g.whitePlayer w "
+         + "WHERE g.blackPlayer.id = :playerId AND g.status = :status "
+         + "AND g.updatedAt <= :updatedAt AND (g.updatedAt < :updatedAt OR g.id < :id) "
+         + "ORDER BY g.updatedAt DESC, g.id DESC")
+    List<GameSummaryDto> findHistoryAsBlack(@Param("playerId") Long playerId, @Param("status") Game.GameStatus status,
+                                            @Param("updatedAt") LocalDateTime updatedAt, @Param("id") Long id,
+                                            Pageable page);
+}
@@ -2,12 +2,44 @@ package com.chess.repository;
 
 import com.chess.model.Move;
 import com.chess.model.Game;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface MoveRepository extends JpaRepository<Move, Long> {
+    
+    // Export cursors: rows are read from the driver this many at a time rather than all at once
+    String EXPORT_FETCH_SIZE = "500";
+    
+    // Game filters shared by the export queries; a null parameter disables its filter
+    String EXPORT_FILTER = "(:player IS NULL OR w.username = :player OR b.username = :player) "
+                         + "AND (:from IS NULL OR g.createdAt >= :from) AND (:to IS NULL OR g.createdAt < :to)";
+    
     List<Move> findByGameOrderByMoveNumberAsc(Game game);
     List<Move> findByGameIdOrderByMoveNumberAsc(Long gameId);
+    List<Move> findByGameIdAndMoveNumberBetweenOrderByMoveNumberAsc(Long gameId, Integer first, Integer last);
+    List<Move> findByGameIdAndMoveNumberGreaterThanOrderByMoveNumberAsc(Long gameId, Integer moveNumber);
+    
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+                  @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+    @Query("SELECT m FROM Move m JOIN FETCH m.game g LEFT JOIN FETCH g.whitePlayer w LEFT JOIN FETCH g.blackPlayer b "
+         + "WHERE " + EXPORT_FILTER + " ORDER BY g.id, m.moveNumber")
+    Stream<Move> streamForExport(@Param("player") String player, @Param("from") LocalDateTime from,
+                                 @Param("to") LocalDateTime to);
+    
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+                  @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+    @Query("SELECT m FROM Move m JOIN FETCH m.game g LEFT JOIN FETCH g.whitePlayer w LEFT JOIN FETCH g.blackPlayer b "
+         + "WHERE " + EXPORT_FILTER + " AND NOT EXISTS (SELECT gm.gameId FROM GameMoves gm WHERE gm.gameId = g.id) "
+         + "ORDER BY g.id, m.moveNumber")
+    Stream<Move> streamUnpackedForExport(@Param("player") String player, @Param("from") LocalDateTime from,
+                                         @Param("to") LocalDateTime to);
 }
\ No newline at end of file
@@ -2,7 +2,11 @@ package com.chess.repository;
 
 import com.chess.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,4 +15,12 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
     List<User> findByIsOnlineTrue();
     boolean existsByUsername(String username);
+    
+    @Modifying
+    @Query("UPDATE User u SET u.isOnline = :online WHERE u.username IN :usernames")
+    int updateOnlineStatus(@Param("usernames") Collection<String> usernames, @Param("online") boolean online);
+    
+    @Modifying
+    @Query("UPDATE User u SET u.isOnline = false WHERE u.isOnline = true")
+    int clearOnlineStatus();
 }
\ No newline at end of file
@@ -0,0 +1,48 @@
+package com.chess.service;
+
+import com.chess.engine.Piece;
+import com.chess.engine.PositionHistory;
+import com.chess.model.Game;
+import com.chess.model.Move;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Authoritative in-memory state of a game held by {@link ActiveGameStore}. The database copy may lag
+ * behind by the moves still queued in {@link MoveWriteBehind}. Guarded by its own monitor.
+ */
+final class ActiveGame {
+
+    final Long id;
+    final String whiteUsername;
+    final String blackUsername;
+    final PositionHistory history;
+    Game.GameStatus status;
+    String result;
+    Game.EndReason endReason;
+    LocalDateTime updatedAt;
+    // Moves accepted but not yet committed by the write-behind queue, oldest first
+    final List<Move> unsaved = new ArrayList<>();
+    volatile long lastAccessMillis = System.currentTimeMillis();
+
+    ActiveGame(Game game, PositionHistory history) {
+        this.id = game.getId();
+        this.whiteUsername = game.getWhitePlayer() != null ? game.getWhitePlayer().getUsername() : null;
+        this.blackUsername = game.getBlackPlayer() != null ? game.getBlackPlayer().getUsername() : null;
+        this.history = history;
+        this.status = game.getStatus();
+        this.result = game.getResult();
+        this.endReason = game.getEndReason();
+        this.updatedAt = game.getUpdatedAt();
+    }
+
+    String currentTurn() {
+        return history.position().sideToMove() == Piece.WHITE ? "WHITE" : "BLACK";
+    }
+
+    boolean isActive() {
+        return status == Game.GameStatus.ACTIVE;
+    }
+}
@@ -0,0 +1,196 @@
+package com.chess.service;
+
+import com.chess.engine.Bitboards;
+import com.chess.engine.MoveGenerator;
+import com.chess.engine.Moves;
+import com.chess.engine.Piece;
+import com.chess.engine.PositionHistory;
+import com.chess.exception.GameNotFoundException;
+import com.chess.exception.InvalidMoveException;
+import com.chess.model.Game;
+import com.chess.model.Move;
+import com.chess.repository.GameRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Authoritative store of active games keyed by id: position, ply count, turn and status live here
+ * and the database follows through {@link MoveWriteBehind}.
+ * <ul>
+ *   <li>Recovery: a game missing from the store (first access, restart, eviction) is rebuilt by
+ *       replaying its moves from the database. Only active games are kept. {@link #getAsync} does
+ *       this on {@code chess.game.store.load-threads} threads of its own, for callers on shared
+ *       threads that must not wait on the database.</li>
+ *   <li>Eviction: a finished game leaves the store once its last write is committed; a game without
+ *       moves for {@code chess.game.store.idle-minutes} leaves it once nothing is pending.</li>
+ * </ul>
+ */
+@Component
+public class ActiveGameStore {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ActiveGameStore.class);
+    
+    @Value("${chess.game.store.idle-minutes:30}")
+    private long idleMinutes;
+    
+    @Value("${chess.game.store.load-threads:4}")
+    private int loadThreads;
+    
+    @Autowired
+    private GameRepository gameRepository;
+    
+    @Autowired
+    private MoveStorage moveStorage;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    private final ConcurrentMap<Long, ActiveGame> games = new ConcurrentHashMap<>();
+    private ScheduledExecutorService sweeper;
+    private ExecutorService loader;
+    
+    @PostConstruct
+    public void startExecutors() {
+        sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "chess-game-store");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1, idleMinutes / 2);
+        sweeper.scheduleAtFixedRate(this::evictIdle, period, period, TimeUnit.MINUTES);
+        AtomicInteger threadNumber = new AtomicInteger();
+        loader = Executors.newFixedThreadPool(loadThreads, runnable -> {
+            Thread thread = new Thread(runnable, "chess-game-loader-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    @PreDestroy
+    public void stopExecutors() {
+        sweeper.shutdownNow();
+        loader.shutdownNow();
+    }
+    
+    /**
+     * Returns the game, loading and caching it if it is active. Games that are not active are
+     * rebuilt on every call and never cached.
+     */
+    ActiveGame get(Long gameId) {
+        ActiveGame game = games.get(gameId);
+        if (game == null) {
+            game = load(gameId);
+            if (game.isActive()) {
+                ActiveGame existing = games.putIfAbsent(gameId, game);
+                if (existing != null) {
+                    game = existing;
+                }
+            }
+        }
+        game.lastAccessMillis = System.currentTimeMillis();
+        return game;
+    }
+    
+    /**
+     * Same as {@link #get}, but a game missing from the store is loaded on the loader threads
+     * rather than on the caller's
+     */
+    CompletableFuture<ActiveGame> getAsync(Long gameId) {
+        ActiveGame game = games.get(gameId);
+        if (game != null) {
+            game.lastAccessMillis = System.currentTimeMillis();
+            return CompletableFuture.completedFuture(game);
+        }
+        return CompletableFuture.supplyAsync(() -> get(gameId), loader);
+    }
+    
+    /**
+     * Returns the game only if it is already in the store, without touching the database
+     */
+    ActiveGame peek(Long gameId) {
+        return games.get(gameId);
+    }
+    
+    void evict(Long gameId) {
+        games.remove(gameId);
+    }
+    
+    public int size() {
+        return games.size();
+    }
+    
+    /**
+     * Converts stored moves, in order, into engine moves; throws InvalidMoveException if one is not legal
+     */
+    static int[] toEngineMoves(List<Move> moves) {
+        PositionHistory history = new PositionHistory();
+        int[] engineMoves = new int[moves.size()];
+        for (int i = 0; i < engineMoves.length; i++) {
+            engineMoves[i] = toEngineMove(history, moves.get(i));
+            history.play(engineMoves[i]);
+        }
+        return engineMoves;
+    }
+    
+    /**
+     * Reads the game in its own transaction so that a caller outside any transaction, such as
+     * makeMove waiting on the write-behind queue, does not keep holding the connection
+     */
+    private ActiveGame load(Long gameId) {
+        return transactionTemplate.execute(status -> {
+            Game game = gameRepository.findById(gameId)
+                .orElseThrow(() -> new GameNotFoundException("Game not found with ID: " + gameId));
+            List<Move> moves = moveStorage.findMoves(gameId);
+            logger.debug("Rebuilding position of game {} from {} stored moves", gameId, moves.size());
+            
+            PositionHistory history = new PositionHistory();
+            for (Move played : moves) {
+                history.play(toEngineMove(history, played));
+            }
+            return new ActiveGame(game, history);
+        });
+    }
+    
+    private void evictIdle() {
+        long cutoff = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(idleMinutes);
+        int evicted = 0;
+        for (ActiveGame game : games.values()) {
+            synchronized (game) {
+                if (game.lastAccessMillis < cutoff && game.unsaved.isEmpty()) {
+                    games.remove(game.id, game);
+                    evicted++;
+                }
+            }
+        }
+        if (evicted > 0) {
+            logger.info("Evicted {} idle games, {} still in memory", evicted, games.size());
+        }
+    }
+    
+    static int toEngineMove(PositionHistory history, Move played) {
+        int move = MoveGenerator.findLegalMove(history.position(),
+                Bitboards.parseSquare(played.getFromPosition()),
+                Bitboards.parseSquare(played.getToPosition()),
+                Piece.parseType(played.getPromotion()));
+        if (move == Moves.NONE) {
+            throw new InvalidMoveException("Stored move history is not legal at move " + played.getMoveNumber());
+        }
+        return move;
+    }
+}
@@ -0,0 +1,291 @@
+package com.chess.service;
+
+import com.chess.dto.GameDto;
+import com.chess.dto.MoveDto;
+import com.chess.dto.UserDto;
+import com.chess.engine.Bitboards;
+import com.chess.engine.EvaluationCache;
+import com.chess.engine.LazySmpSearch;
+import com.chess.engine.Moves;
+import com.chess.engine.Piece;
+import com.chess.engine.PositionHistory;
+import com.chess.engine.SearchLimits;
+import com.chess.engine.SearchResult;
+import com.chess.engine.TranspositionTable;
+import com.chess.model.Game;
+import com.chess.repository.GameRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Built-in computer opponent. Searches run on a dedicated bounded pool so that engine work
+ * never occupies the STOMP inbound channel threads. In Lazy-SMP mode each search also borrows
+ * helper threads from a second pool, fewer of them the more engine games are searching at once.
+ */
+@Service
+public class ComputerPlayerService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ComputerPlayerService.class);
+
+    // Below this the search cannot complete a useful iteration
+    private static final long MIN_MOVE_TIME_MS = 50;
+    // Spread the remaining game budget over at least this many moves
+    private static final int MOVES_TO_GO = 20;
+
+    @Value("${chess.game.computer.username:computer}")
+    private String computerUsername;
+
+    @Value("${chess.game.computer.move-time-ms:1000}")
+    private long moveTimeMs;
+
+    @Value("${chess.game.computer.max-depth:64}")
+    private int maxDepth;
+
+    @Value("${chess.game.computer.game-time-ms:300000}")
+    private long gameTimeMs;
+
+    @Value("${chess.game.computer.threads:2}")
+    private int threads;
+
+    @Value("${chess.game.computer.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${chess.game.computer.lazy-smp:true}")
+    private boolean lazySmp;
+
+    // Total helper + main threads shared by all concurrent searches; 0 means one per core
+    @Value("${chess.game.computer.smp-threads:0}")
+    private int smpThreads;
+
+    @Autowired
+    private UserServiceInterface userService;
+
+    @Autowired
+    private GameServiceInterface gameService;
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private GameNotificationService gameNotificationService;
+
+    @Autowired
+    private GameMailboxes gameMailboxes;
+
+    @Autowired
+    private PresenceRegistry presenceRegistry;
+
+    @Autowired
+    private OpeningBookService openingBookService;
+
+    @Autowired
+    private TranspositionTable transpositionTable;
+
+    @Autowired
+    private EvaluationCache evaluationCache;
+
+    private ThreadPoolExecutor executor;
+    private ThreadPoolExecutor helperExecutor;
+    private LazySmpSearch search;
+    private final AtomicInteger activeSearches = new AtomicInteger();
+    private final ConcurrentMap<Long, ComputerGame> games = new ConcurrentHashMap<>();
+
+    /**
+     * Color played by the computer in a game and thinking time spent so far
+     */
+    private static final class ComputerGame {
+        final String color;
+        final AtomicLong spentMillis = new AtomicLong();
+
+        ComputerGame(String color) {
+            this.color = color;
+        }
+    }
+
+    @PostConstruct
+    public void startExecutor() {
+        if (smpThreads <= 0) {
+            smpThreads = Runtime.getRuntime().availableProcessors();
+        }
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                daemonThreads("chess-engine-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        // Helpers never queue: a helper that cannot start immediately is not worth running
+        helperExecutor = new ThreadPoolExecutor(0, Math.max(1, smpThreads - 1), 30L, TimeUnit.SECONDS,
+                new SynchronousQueue<>(),
+                daemonThreads("chess-engine-helper-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        search = new LazySmpSearch(transpositionTable, evaluationCache, helperExecutor);
+        logger.info("Computer opponent '{}' ready: {} engine threads, {} ms/move, depth {}, lazy SMP {} ({} threads)",
+                   computerUsername, threads, moveTimeMs, maxDepth, lazySmp, smpThreads);
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @PreDestroy
+    public void stopExecutor() {
+        executor.shutdownNow();
+        helperExecutor.shutdownNow();
+    }
+
+    /**
+     * Creates the computer user if needed, shows it online and resumes its active games
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void registerComputerUser() {
+        if (userService.findByUsername(computerUsername).isEmpty()) {
+            UserDto created = userService.createUser(computerUsername, UUID.randomUUID().toString());
+            logger.info("Computer user created with ID: {}", created.getId());
+        }
+        // No WebSocket session behind it: online until shutdown
+        presenceRegistry.pin(computerUsername);
+
+        userService.findByUsername(computerUsername).ifPresent(computer -> {
+            for (Game game : gameRepository.findGamesByPlayerAndStatus(computer, Game.GameStatus.ACTIVE)) {
+                onGameStarted(new GameDto(game));
+            }
+        });
+    }
+
+    public boolean isComputer(String username) {
+        return computerUsername.equals(username);
+    }
+
+    /**
+     * Registers a game involving the computer and moves right away if it plays the side to move
+     */
+    public void onGameStarted(GameDto game) {
+        String color;
+        if (game.getWhitePlayer() != null && isComputer(game.getWhitePlayer().getUsername())) {
+            color = "WHITE";
+        } else if (game.getBlackPlayer() != null && isComputer(game.getBlackPlayer().getUsername())) {
+            color = "BLACK";
+        } else {
+            return;
+        }
+        ComputerGame computerGame = new ComputerGame(color);
+        games.put(game.getId(), computerGame);
+        logger.info("Computer plays {} in game {}", color, game.getId());
+
+        if (color.equals(game.getCurrentTurn())) {
+            requestMove(game.getId(), computerGame);
+        }
+    }
+
+    /**
+     * Called after each broadcast move; schedules the computer's reply when it is its turn
+     */
+    public void onMovePlayed(Long gameId, MoveDto move) {
+        ComputerGame computerGame = games.get(gameId);
+        if (computerGame == null) {
+            return;
+        }
+        if (move.getEndReason() != null) {
+            games.remove(gameId);
+            return;
+        }
+        if (!computerGame.color.equals(move.getPlayerColor())) {
+            requestMove(gameId, computerGame);
+        }
+    }
+
+    private void requestMove(Long gameId, ComputerGame computerGame) {
+        try {
+            executor.execute(() -> playMove(gameId, computerGame));
+        } catch (RejectedExecutionException e) {
+            logger.warn("Engine queue full, cannot reply in game {}", gameId);
+            gameNotificationService.notifyError(gameId, "L'ordinateur est surchargé, réessayez plus tard");
+        }
+    }
+
+    private void playMove(Long gameId, ComputerGame computerGame) {
+        try {
+            PositionHistory snapshot = gameService.getPositionSnapshot(gameId);
+
+            // Book moves cost no thinking time
+            int bestMove = openingBookService.pickMove(snapshot);
+            if (bestMove != Moves.NONE) {
+                logger.debug("Book move in game {}: {}", gameId, Moves.toUci(bestMove));
+            } else {
+                bestMove = searchMove(gameId, computerGame, snapshot);
+            }
+
+            if (bestMove == Moves.NONE) {
+                logger.warn("Engine found no legal move in game {}", gameId);
+                return;
+            }
+            int piece = snapshot.position().pieceAt(Moves.from(bestMove));
+            String promotion = Moves.isPromotion(bestMove) ? Piece.typeName(Moves.promotionType(bestMove)) : null;
+
+            int chosen = bestMove;
+            // Played through the game's mailbox, in order with the moves received from the players
+            gameMailboxes.submit(gameId,
+                () -> gameService.makeMoveAsync(gameId,
+                        Bitboards.squareName(Moves.from(chosen)),
+                        Bitboards.squareName(Moves.to(chosen)),
+                        Piece.typeName(Piece.type(piece)),
+                        computerGame.color,
+                        promotion),
+                (move, error) -> {
+                    if (error != null) {
+                        logger.error("Computer move failed in game {}: {}", gameId, error.getMessage(), error);
+                        gameNotificationService.notifyError(gameId, "Erreur du moteur");
+                        return;
+                    }
+                    gameNotificationService.notifyMove(gameId, move);
+                    if (move.getEndReason() != null) {
+                        games.remove(gameId);
+                    }
+                });
+        } catch (Exception e) {
+            logger.error("Computer move failed in game {}: {}", gameId, e.getMessage(), e);
+            gameNotificationService.notifyError(gameId, "Erreur du moteur");
+        }
+    }
+
+    private int searchMove(Long gameId, ComputerGame computerGame, PositionHistory snapshot) {
+        long remaining = gameTimeMs - computerGame.spentMillis.get();
+        long budget = Math.max(MIN_MOVE_TIME_MS, Math.min(moveTimeMs, remaining / MOVES_TO_GO));
+
+        SearchResult result;
+        int searching = activeSearches.incrementAndGet();
+        try {
+            int helpers = lazySmp ? Math.max(1, smpThreads / searching) - 1 : 0;
+            result = search.search(snapshot, new SearchLimits(budget, maxDepth), helpers);
+            logger.debug("Engine in game {}: {} score {} depth {} nodes {} in {} ms with {} helpers", gameId,
+                        Moves.toUci(result.bestMove()), result.score(), result.depth(), result.nodes(),
+                        result.elapsedMillis(), helpers);
+        } finally {
+            activeSearches.decrementAndGet();
+        }
+        computerGame.spentMillis.addAndGet(result.elapsedMillis());
+        return result.bestMove();
+    }
+}
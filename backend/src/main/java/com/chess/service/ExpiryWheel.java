@@ -0,0 +1,86 @@
+package com.chess.service;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel for entries that expire after a period of inactivity. An entry sits in the
+ * slot of its deadline; keeping it alive only moves its deadline forward, and the slot notices when
+ * it comes round and moves the entry to the slot of the new deadline. A touch is one field write
+ * and a tick only visits the entries due in its slot, however many are tracked, so there is no
+ * scheduled task per entry and no sorted structure to maintain.
+ * <p>
+ * Entries may be scheduled from any thread; {@link #advance} runs on one thread at a time.
+ */
+public final class ExpiryWheel<E extends ExpiryWheel.Expiring> {
+
+    /**
+     * Something with a deadline that may move forward while it waits
+     */
+    public interface Expiring {
+        long deadlineMillis();
+    }
+
+    // Marks where a tick's entries end in its slot; advance() runs on one thread, so one marker serves
+    private static final Expiring END_OF_TICK = () -> Long.MAX_VALUE;
+
+    private final long tickMillis;
+    private final int mask;
+    private final Queue<Expiring>[] slots;
+    // Last tick processed; slots of later ticks are still to come
+    private volatile long currentTick;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public ExpiryWheel(long tickMillis, int slotCount, long nowMillis) {
+        if (Integer.bitCount(slotCount) != 1) {
+            throw new IllegalArgumentException("Slot count must be a power of two: " + slotCount);
+        }
+        this.tickMillis = tickMillis;
+        this.mask = slotCount - 1;
+        this.slots = new Queue[slotCount];
+        for (int i = 0; i < slotCount; i++) {
+            slots[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.currentTick = nowMillis / tickMillis;
+    }
+
+    /**
+     * Adds an entry to the slot of its deadline; a deadline further than one turn away is checked
+     * again when the slot comes round, and put back
+     */
+    public void schedule(E entry) {
+        long tick = Math.max(entry.deadlineMillis() / tickMillis, currentTick + 1);
+        slots[(int) (tick & mask)].add(entry);
+    }
+
+    /**
+     * Processes every tick up to now: entries past their deadline go to {@code expired}, the others
+     * move to the slot of their current deadline
+     */
+    @SuppressWarnings("unchecked")
+    public void advance(long nowMillis, Consumer<? super E> expired) {
+        long target = nowMillis / tickMillis;
+        while (currentTick < target) {
+            long tick = currentTick + 1;
+            // From here on, schedule() aims at later slots
+            currentTick = tick;
+            Queue<Expiring> slot = slots[(int) (tick & mask)];
+            // Only the entries ahead of the marker: one put back into this slot is a turn away. Not
+            // size(), which walks the whole queue
+            slot.add(END_OF_TICK);
+            for (Expiring entry = slot.poll(); entry != END_OF_TICK; entry = slot.poll()) {
+                due((E) entry, tick, expired);
+            }
+        }
+    }
+
+    private void due(E entry, long tick, Consumer<? super E> expired) {
+        long deadlineTick = entry.deadlineMillis() / tickMillis;
+        if (deadlineTick > tick) {
+            slots[(int) (deadlineTick & mask)].add(entry);
+        } else {
+            expired.accept(entry);
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.chess.service;
+
+import com.chess.dto.AnalysisStatusDto;
+import com.chess.engine.EvaluationCache;
+import com.chess.engine.GameAnalyzer;
+import com.chess.engine.Search;
+import com.chess.engine.SearchLimits;
+import com.chess.engine.TranspositionTable;
+import com.chess.exception.InvalidMoveException;
+import com.chess.model.Game;
+import com.chess.model.Move;
+import com.chess.repository.GameRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Batch analysis of finished games. A coordinator thread pages through unanalyzed game ids and
+ * hands each game to a fork-join pool; a semaphore caps the games in flight so memory stays flat
+ * whatever the backlog. Each game's annotations and analyzedAt are committed together, so an
+ * interrupted run resumes from the games not yet marked.
+ */
+@Service
+public class GameAnalysisService {
+
+    private static final Logger logger = LoggerFactory.getLogger(GameAnalysisService.class);
+
+    // Log progress every this many games
+    private static final int PROGRESS_INTERVAL = 100;
+
+    @Value("${chess.analysis.run-on-startup:false}")
+    private boolean runOnStartup;
+
+    // 0 means one worker per core
+    @Value("${chess.analysis.threads:0}")
+    private int threads;
+
+    // Games queued or running at once; 0 means twice the worker count
+    @Value("${chess.analysis.window:0}")
+    private int window;
+
+    @Value("${chess.analysis.batch-size:100}")
+    private int batchSize;
+
+    @Value("${chess.analysis.depth:8}")
+    private int depth;
+
+    @Value("${chess.analysis.move-time-ms:500}")
+    private long moveTimeMs;
+
+    @Value("${chess.analysis.hash-mb:32}")
+    private int hashMb;
+
+    @Value("${chess.analysis.eval-cache-mb:8}")
+    private int evalCacheMb;
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private MoveStorage moveStorage;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private ForkJoinPool pool;
+    private ThreadLocal<GameAnalyzer> analyzers;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile boolean stopRequested;
+
+    // Statistics of the current or last run
+    private volatile long runStartedAt;
+    private volatile long runFinishedAt;
+    private final AtomicLong analyzedGames = new AtomicLong();
+    private final AtomicLong failedGames = new AtomicLong();
+    private final AtomicLong analyzedPlies = new AtomicLong();
+
+    @PostConstruct
+    public void startPool() {
+        if (threads <= 0) {
+            threads = Runtime.getRuntime().availableProcessors();
+        }
+        if (window <= 0) {
+            window = 2 * threads;
+        }
+        pool = new ForkJoinPool(threads);
+        // Both kept apart from the live games' tables so that analysis never evicts their entries
+        TranspositionTable table = new TranspositionTable(hashMb);
+        EvaluationCache evaluationCache = new EvaluationCache(evalCacheMb);
+        SearchLimits limits = new SearchLimits(moveTimeMs, depth);
+        analyzers = ThreadLocal.withInitial(() -> new GameAnalyzer(new Search(table, evaluationCache), limits));
+    }
+
+    @PreDestroy
+    public void stopPool() {
+        stopRequested = true;
+        pool.shutdownNow();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void catchUpOnStartup() {
+        if (runOnStartup) {
+            start();
+        }
+    }
+
+    /**
+     * Starts analyzing the backlog in the background; returns false if a run is already in progress
+     */
+    public boolean start() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        stopRequested = false;
+        runStartedAt = System.currentTimeMillis();
+        runFinishedAt = 0;
+        analyzedGames.set(0);
+        failedGames.set(0);
+        analyzedPlies.set(0);
+
+        Thread coordinator = new Thread(this::analyzeBacklog, "chess-analysis");
+        coordinator.setDaemon(true);
+        coordinator.start();
+        return true;
+    }
+
+    /**
+     * Stops handing out games; games already in flight still complete
+     */
+    public void stop() {
+        stopRequested = true;
+    }
+
+    public AnalysisStatusDto getStatus() {
+        long end = runFinishedAt != 0 ? runFinishedAt : System.currentTimeMillis();
+        long elapsed = runStartedAt == 0 ? 0 : end - runStartedAt;
+        long games = analyzedGames.get();
+        AnalysisStatusDto status = new AnalysisStatusDto();
+        status.setRunning(running.get());
+        status.setAnalyzedGames(games);
+        status.setFailedGames(failedGames.get());
+        status.setAnalyzedPlies(analyzedPlies.get());
+        status.setRemainingGames(gameRepository.countByStatusAndAnalyzedAtIsNull(Game.GameStatus.FINISHED));
+        status.setElapsedMillis(elapsed);
+        status.setGamesPerMinute(elapsed == 0 ? 0.0 : games * 60_000.0 / elapsed);
+        return status;
+    }
+
+    private void analyzeBacklog() {
+        Semaphore inFlight = new Semaphore(window);
+        logger.info("Game analysis started: {} workers, {} games in flight, depth {}", threads, window, depth);
+        try {
+            long lastId = 0;
+            while (!stopRequested) {
+                List<Long> ids = gameRepository.findUnanalyzedFinishedGameIds(lastId, PageRequest.of(0, batchSize));
+                if (ids.isEmpty()) {
+                    break;
+                }
+                for (Long gameId : ids) {
+                    if (stopRequested) {
+                        break;
+                    }
+                    inFlight.acquire();
+                    pool.execute(() -> {
+                        try {
+                            analyzeGame(gameId);
+                        } finally {
+                            inFlight.release();
+                        }
+                    });
+                }
+                lastId = ids.get(ids.size() - 1);
+            }
+            // Wait for the games still in flight
+            inFlight.acquire(window);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            logger.error("Game analysis aborted: {}", e.getMessage(), e);
+        } finally {
+            runFinishedAt = System.currentTimeMillis();
+            running.set(false);
+            AnalysisStatusDto status = getStatus();
+            logger.info("Game analysis finished: {} games ({} failed) in {} ms, {} games/min",
+                       status.getAnalyzedGames(), status.getFailedGames(), status.getElapsedMillis(),
+                       String.format("%.1f", status.getGamesPerMinute()));
+        }
+    }
+
+    private void analyzeGame(Long gameId) {
+        try {
+            List<Move> moves = moveStorage.findMoves(gameId);
+            GameAnalyzer.GameAnalysis analysis;
+            try {
+                analysis = analyzers.get().analyze(ActiveGameStore.toEngineMoves(moves));
+            } catch (InvalidMoveException e) {
+                // Marked as analyzed without annotations so it is not retried on every run
+                logger.warn("Game {} cannot be analyzed: {}", gameId, e.getMessage());
+                analysis = null;
+                failedGames.incrementAndGet();
+            }
+            saveAnalysis(gameId, moves, analysis);
+
+            long games = analyzedGames.incrementAndGet();
+            analyzedPlies.addAndGet(moves.size());
+            if (games % PROGRESS_INTERVAL == 0) {
+                logger.info("Game analysis progress: {} games, {} games/min", games,
+                           String.format("%.1f", getStatus().getGamesPerMinute()));
+            }
+        } catch (Exception e) {
+            failedGames.incrementAndGet();
+            logger.error("Analysis of game {} failed: {}", gameId, e.getMessage(), e);
+        }
+    }
+
+    private void saveAnalysis(Long gameId, List<Move> moves, GameAnalyzer.GameAnalysis analysis) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Game game = gameRepository.findById(gameId).orElse(null);
+            if (game == null) {
+                return;
+            }
+            if (analysis != null) {
+                for (int ply = 0; ply < moves.size(); ply++) {
+                    Move move = moves.get(ply);
+                    move.setEvaluation(analysis.evaluations()[ply + 1]);
+                    move.setAnnotation(switch (analysis.judgements()[ply]) {
+                        case BLUNDER -> Move.Annotation.BLUNDER;
+                        case MISTAKE -> Move.Annotation.MISTAKE;
+                        case GOOD -> null;
+                    });
+                }
+                moveStorage.saveAnalysis(game, moves);
+                game.setWhiteAccuracy(Double.isNaN(analysis.whiteAccuracy()) ? null : analysis.whiteAccuracy());
+                game.setBlackAccuracy(Double.isNaN(analysis.blackAccuracy()) ? null : analysis.blackAccuracy());
+            }
+            game.setAnalyzedAt(LocalDateTime.now());
+            gameRepository.save(game);
+        });
+    }
+}
@@ -0,0 +1,244 @@
+package com.chess.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * One actor per game for move handling. Each game has a mailbox whose messages run one at a time,
+ * in submission order, on a shared pool sized to the cores: moves of one game never race, while
+ * different games run in parallel.
+ * <ul>
+ *   <li>A message is an action returning a future (a move waiting for its write) and a continuation
+ *       (the broadcast). The next message starts only after the continuation, but no pool thread
+ *       waits for the future meanwhile.</li>
+ *   <li>Scheduling is lock-free: the thread that finds a mailbox idle schedules it, and the running
+ *       mailbox gives its thread back after {@link #BATCH} messages so a busy game cannot starve
+ *       the others.</li>
+ *   <li>Depth and latency (submission to end of continuation) are kept per game; a mailbox idle for
+ *       {@code chess.game.mailbox.idle-minutes} is dropped.</li>
+ * </ul>
+ */
+@Component
+public class GameMailboxes {
+
+    private static final Logger logger = LoggerFactory.getLogger(GameMailboxes.class);
+
+    private static final int BATCH = 32;
+
+    // 0 means one per core: a move loads a game missing from the store on the store's own threads,
+    // so messages do not block on I/O and more threads would only contend
+    @Value("${chess.game.mailbox.threads:0}")
+    private int threads;
+
+    @Value("${chess.game.mailbox.idle-minutes:10}")
+    private long idleMinutes;
+
+    private final ConcurrentMap<Long, Mailbox> mailboxes = new ConcurrentHashMap<>();
+    private ExecutorService executor;
+    private ScheduledExecutorService sweeper;
+
+    /**
+     * Counters of one game's mailbox, as exposed by {@link #stats}
+     */
+    public record MailboxStats(Long gameId, int depth, long processed, long failed,
+                               double averageLatencyMillis, double maxLatencyMillis) {}
+
+    private record Message(Supplier<? extends CompletableFuture<?>> action,
+                           BiConsumer<Object, Throwable> then, long submittedNanos) {}
+
+    private static final class Mailbox {
+        final Long gameId;
+        final Queue<Message> queue = new ConcurrentLinkedQueue<>();
+        // Messages submitted and not finished yet, the one running included
+        final AtomicInteger depth = new AtomicInteger();
+        final AtomicBoolean scheduled = new AtomicBoolean();
+        final AtomicLong processed = new AtomicLong();
+        final AtomicLong failed = new AtomicLong();
+        final AtomicLong totalLatencyNanos = new AtomicLong();
+        final AtomicLong maxLatencyNanos = new AtomicLong();
+        volatile long lastActivityMillis = System.currentTimeMillis();
+
+        Mailbox(Long gameId) {
+            this.gameId = gameId;
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(poolSize, runnable -> {
+            Thread thread = new Thread(runnable, "chess-game-actor-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "chess-game-mailboxes");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1, idleMinutes / 2);
+        sweeper.scheduleAtFixedRate(this::dropIdle, period, period, TimeUnit.MINUTES);
+        logger.info("Game mailboxes ready: {} actor threads", poolSize);
+    }
+
+    @PreDestroy
+    public void stop() {
+        sweeper.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    /**
+     * Queues a message for the game: the action runs after every message submitted before it, and
+     * the continuation gets the future's value, or the failure thrown by the action or the future
+     */
+    @SuppressWarnings("unchecked")
+    public <T> void submit(Long gameId, Supplier<CompletableFuture<T>> action, BiConsumer<T, Throwable> then) {
+        Message message = new Message(action, (BiConsumer<Object, Throwable>) then, System.nanoTime());
+        // Queued inside compute so that dropIdle never removes a mailbox that has just been given work
+        Mailbox mailbox = mailboxes.compute(gameId, (id, existing) -> {
+            Mailbox target = existing != null ? existing : new Mailbox(id);
+            target.depth.incrementAndGet();
+            target.queue.add(message);
+            return target;
+        });
+        schedule(mailbox);
+    }
+
+    /**
+     * Counters of the game's mailbox, or null when the game has none
+     */
+    public MailboxStats stats(Long gameId) {
+        Mailbox mailbox = mailboxes.get(gameId);
+        return mailbox != null ? stats(mailbox) : null;
+    }
+
+    /**
+     * Counters of every mailbox, deepest first
+     */
+    public List<MailboxStats> stats() {
+        List<MailboxStats> stats = new ArrayList<>();
+        for (Mailbox mailbox : mailboxes.values()) {
+            stats.add(stats(mailbox));
+        }
+        stats.sort(Comparator.comparingInt(MailboxStats::depth).reversed()
+                             .thenComparing(MailboxStats::gameId));
+        return stats;
+    }
+
+    private static MailboxStats stats(Mailbox mailbox) {
+        long processed = mailbox.processed.get();
+        double average = processed > 0 ? mailbox.totalLatencyNanos.get() / 1e6 / processed : 0;
+        return new MailboxStats(mailbox.gameId, mailbox.depth.get(), processed, mailbox.failed.get(),
+                                average, mailbox.maxLatencyNanos.get() / 1e6);
+    }
+
+    private void schedule(Mailbox mailbox) {
+        if (mailbox.scheduled.compareAndSet(false, true)) {
+            executor.execute(() -> run(mailbox));
+        }
+    }
+
+    /**
+     * Runs queued messages while holding the mailbox's scheduled flag, which only one thread can
+     * own: either it empties the queue, or it passes the flag on with a resubmission
+     */
+    private void run(Mailbox mailbox) {
+        for (int i = 0; i < BATCH; i++) {
+            Message message = mailbox.queue.poll();
+            if (message == null) {
+                mailbox.scheduled.set(false);
+                // A message queued between the poll and the release would otherwise wait for the next one
+                if (!mailbox.queue.isEmpty()) {
+                    schedule(mailbox);
+                }
+                return;
+            }
+            CompletableFuture<?> pending;
+            try {
+                pending = message.action().get();
+            } catch (RuntimeException e) {
+                pending = CompletableFuture.failedFuture(e);
+            }
+            if (!pending.isDone()) {
+                // Resume on the pool, not on the thread completing the future
+                pending.whenComplete((value, error) -> executor.execute(() -> {
+                    finish(mailbox, message, value, error);
+                    run(mailbox);
+                }));
+                return;
+            }
+            Object value = null;
+            Throwable error = null;
+            try {
+                value = pending.join();
+            } catch (RuntimeException e) {
+                error = e;
+            }
+            finish(mailbox, message, value, error);
+        }
+        executor.execute(() -> run(mailbox));
+    }
+
+    private void finish(Mailbox mailbox, Message message, Object value, Throwable error) {
+        Throwable cause = error;
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        try {
+            message.then().accept(value, cause);
+        } catch (RuntimeException e) {
+            logger.error("Message for game {} failed: {}", mailbox.gameId, e.getMessage(), e);
+            cause = e;
+        }
+        long latency = System.nanoTime() - message.submittedNanos();
+        mailbox.processed.incrementAndGet();
+        if (cause != null) {
+            mailbox.failed.incrementAndGet();
+        }
+        mailbox.totalLatencyNanos.addAndGet(latency);
+        mailbox.maxLatencyNanos.accumulateAndGet(latency, Math::max);
+        mailbox.lastActivityMillis = System.currentTimeMillis();
+        mailbox.depth.decrementAndGet();
+    }
+
+    private void dropIdle() {
+        long cutoff = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(idleMinutes);
+        int[] dropped = { 0 };
+        for (Long gameId : mailboxes.keySet()) {
+            mailboxes.computeIfPresent(gameId, (id, mailbox) -> {
+                if (mailbox.depth.get() == 0 && mailbox.lastActivityMillis < cutoff) {
+                    dropped[0]++;
+                    return null;
+                }
+                return mailbox;
+            });
+        }
+        if (dropped[0] > 0) {
+            logger.info("Dropped {} idle game mailboxes, {} left", dropped[0], mailboxes.size());
+        }
+    }
+}
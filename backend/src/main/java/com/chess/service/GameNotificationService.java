@@ -0,0 +1,44 @@
+package com.chess.service;
+
+import com.chess.dto.GameMessage;
+import com.chess.dto.MoveDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+@Service
+public class GameNotificationService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(GameNotificationService.class);
+    
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+    
+    /**
+     * Diffuse un coup joué dans la salle de la partie, suivi de GAME_OVER si le coup termine la partie
+     */
+    public void notifyMove(Long gameId, MoveDto move) {
+        messagingTemplate.convertAndSend("/topic/game/" + gameId, move);
+        
+        if (move.getEndReason() != null) {
+            GameMessage gameOver = new GameMessage("GAME_OVER", "system", "all");
+            gameOver.setGameId(gameId);
+            gameOver.setContent(move.getEndReason());
+            gameOver.setData(move.getResult());
+            messagingTemplate.convertAndSend("/topic/game/" + gameId, gameOver);
+            logger.info("Game {} over: {} ({})", gameId, move.getResult(), move.getEndReason());
+        }
+    }
+    
+    /**
+     * Envoie une erreur dans la salle de la partie
+     */
+    public void notifyError(Long gameId, String errorMessage) {
+        GameMessage error = new GameMessage("ERROR", "system", "all");
+        error.setGameId(gameId);
+        error.setContent(errorMessage);
+        messagingTemplate.convertAndSend("/topic/game/" + gameId, error);
+    }
+}
@@ -1,22 +1,39 @@
 package com.chess.service;
 
 import com.chess.dto.GameDto;
+import com.chess.dto.GameHistoryDto;
+import com.chess.dto.GameResponseDto;
+import com.chess.dto.GameSummaryDto;
+import com.chess.dto.LegalMovesDto;
 import com.chess.dto.MoveDto;
+import com.chess.dto.PositionDto;
+import com.chess.engine.Bitboards;
+import com.chess.engine.MoveGenerator;
+import com.chess.engine.Moves;
+import com.chess.engine.Piece;
+import com.chess.engine.Position;
+import com.chess.engine.PositionHistory;
 import com.chess.exception.GameNotFoundException;
 import com.chess.exception.InvalidMoveException;
 import com.chess.model.Game;
 import com.chess.model.Move;
 import com.chess.model.User;
+import com.chess.repository.GameCheckpointRepository;
 import com.chess.repository.GameRepository;
-import com.chess.repository.MoveRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,11 +42,26 @@ public class GameServiceImpl implements GameServiceInterface {
     
     private static final Logger logger = LoggerFactory.getLogger(GameServiceImpl.class);
     
+    // Keyset of the first history page: after every stored game (datetime2 stops at year 9999)
+    private static final LocalDateTime HISTORY_START = LocalDateTime.of(9999, 12, 31, 0, 0);
+    
+    private static final Comparator<GameSummaryDto> NEWEST_FIRST =
+        Comparator.comparing(GameSummaryDto::getUpdatedAt).thenComparing(GameSummaryDto::getId).reversed();
+    
     @Autowired
     private GameRepository gameRepository;
     
     @Autowired
-    private MoveRepository moveRepository;
+    private GameCheckpointRepository gameCheckpointRepository;
+    
+    @Autowired
+    private MoveStorage moveStorage;
+    
+    @Autowired
+    private ActiveGameStore activeGameStore;
+    
+    @Autowired
+    private MoveWriteBehind moveWriteBehind;
     
     @Override
     public GameDto createGame(User whitePlayer, User blackPlayer) {
@@ -41,6 +73,8 @@ public class GameServiceImpl implements GameServiceInterface {
         game.setBlackPlayer(blackPlayer);
         game.setStatus(Game.GameStatus.ACTIVE);
         game.setCurrentTurn("WHITE");
+        game.setPlyCount(0);
+        game.setCurrentFen(Position.START_FEN);
         game.setCreatedAt(LocalDateTime.now());
         game.setUpdatedAt(LocalDateTime.now());
         
@@ -56,7 +90,8 @@ public class GameServiceImpl implements GameServiceInterface {
         logger.debug("Finding active game for player: {}", player.getUsername());
         
         Optional<Game> gameOpt = gameRepository.findActiveGameByPlayer(player);
-        return gameOpt.map(GameDto::new);
+        return gameOpt.map(this::toDto)
+                      .filter(game -> Game.GameStatus.ACTIVE.toString().equals(game.getStatus()));
     }
     
     @Override
@@ -65,78 +100,454 @@ public class GameServiceImpl implements GameServiceInterface {
         logger.debug("Finding game by ID: {}", gameId);
         
         Optional<Game> gameOpt = gameRepository.findById(gameId);
-        return gameOpt.map(GameDto::new);
+        return gameOpt.map(this::toDto);
     }
     
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public MoveDto makeMove(Long gameId, String from, String to, String piece, String playerColor) {
+        return makeMove(gameId, from, to, piece, playerColor, null);
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public MoveDto makeMove(Long gameId, String from, String to, String piece, String playerColor, String promotion) {
+        // Never acknowledge a move before its batch is durable
+        try {
+            return makeMoveAsync(gameId, from, to, piece, playerColor, promotion).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CompletableFuture<MoveDto> makeMoveAsync(Long gameId, String from, String to, String piece,
+                                                    String playerColor, String promotion) {
         logger.info("Making move in game {}: {} {} from {} to {}", 
                    gameId, playerColor, piece, from, to);
         
-        Game game = gameRepository.findById(gameId)
-            .orElseThrow(() -> new GameNotFoundException("Game not found with ID: " + gameId));
+        // Validate move format
+        int fromSquare = Bitboards.parseSquare(from);
+        int toSquare = Bitboards.parseSquare(to);
+        int pieceType = Piece.parseType(piece);
+        if (fromSquare < 0 || toSquare < 0 || pieceType == Piece.NONE) {
+            throw new InvalidMoveException("Invalid move format");
+        }
         
+        // A game not in memory is loaded off this thread, which may be a game actor shared with others
+        CompletableFuture<ActiveGame> loaded = activeGameStore.getAsync(gameId);
+        if (!loaded.isDone()) {
+            return loaded.thenCompose(game -> acceptMove(game, gameId, from, to, piece, playerColor,
+                                                         fromSquare, toSquare, pieceType, promotion));
+        }
+        return acceptMove(loaded.join(), gameId, from, to, piece, playerColor, fromSquare, toSquare, pieceType, promotion);
+    }
+    
+    /**
+     * Applies the move to the game as loaded, and returns its reply once it is durable
+     */
+    private CompletableFuture<MoveDto> acceptMove(ActiveGame loaded, Long gameId, String from, String to, String piece,
+                                                  String playerColor, int fromSquare, int toSquare, int pieceType,
+                                                  String promotion) {
+        // The store is authoritative: the move is validated and applied in memory and persisted
+        // by the write-behind queue
+        AcceptedMove accepted = null;
+        ActiveGame game = loaded;
+        while (accepted == null) {
+            synchronized (game) {
+                // Evicted between lookup and lock: retry on the instance now in the store
+                if (!game.isActive() || activeGameStore.peek(gameId) == game) {
+                    accepted = applyMove(game, from, to, piece, playerColor, fromSquare, toSquare, pieceType, promotion);
+                }
+            }
+            if (accepted == null) {
+                game = activeGameStore.get(gameId);
+            }
+        }
+        
+        // Completed outside the lock: the writer takes it to clear the move from the unsaved list
+        AcceptedMove done = accepted;
+        return done.committed().thenApply(committed -> {
+            done.dto().setId(done.move().getId());
+            logger.info("Move completed successfully: {}", done.move().getMoveNotation());
+            return done.dto();
+        });
+    }
+    
+    /**
+     * A move applied in memory, its reply and the completion of its write
+     */
+    private record AcceptedMove(Move move, MoveDto dto, CompletableFuture<Void> committed) {}
+    
+    private AcceptedMove applyMove(ActiveGame game, String from, String to, String piece, String playerColor,
+                                   int fromSquare, int toSquare, int pieceType, String promotion) {
         // Validate game status
-        if (game.getStatus() != Game.GameStatus.ACTIVE) {
+        if (!game.isActive()) {
             throw new InvalidMoveException("Game is not active");
         }
         
         // Validate turn
-        if (!game.getCurrentTurn().equals(playerColor)) {
-            throw new InvalidMoveException("Not your turn. Current turn: " + game.getCurrentTurn());
+        if (!game.currentTurn().equals(playerColor)) {
+            throw new InvalidMoveException("Not your turn. Current turn: " + game.currentTurn());
         }
         
-        // Validate move format
-        if (!isValidMoveFormat(from, to, piece)) {
-            throw new InvalidMoveException("Invalid move format");
+        // Validate move against the chess rules
+        PositionHistory history = game.history;
+        Position position = history.position();
+        int movingPiece = position.pieceAt(fromSquare);
+        if (movingPiece == Piece.NONE || Piece.type(movingPiece) != pieceType) {
+            throw new InvalidMoveException("No " + piece + " on " + from);
+        }
+        int legalMove = MoveGenerator.findLegalMove(position, fromSquare, toSquare, Piece.parseType(promotion));
+        if (legalMove == Moves.NONE) {
+            throw new InvalidMoveException("Illegal move: " + from + "-" + to);
         }
         
         // Create move
         Move move = new Move();
-        move.setGame(game);
         move.setFromPosition(from);
         move.setToPosition(to);
         move.setPieceType(piece);
         move.setPlayerColor(playerColor);
-        move.setMoveNumber(game.getMoves().size() + 1);
-        move.setMoveNotation(generateMoveNotation(from, to, piece));
+        move.setCapturedPiece(capturedPieceName(position, legalMove));
+        if (Moves.isPromotion(legalMove)) {
+            move.setPromotion(Piece.typeName(Moves.promotionType(legalMove)));
+        }
+        move.setMoveNumber(history.plyCount() + 1);
+        move.setMoveNotation(MoveNotation.generate(from, to, piece));
         move.setCreatedAt(LocalDateTime.now());
         
-        Move savedMove = moveRepository.save(move);
+        history.play(legalMove);
+        game.updatedAt = LocalDateTime.now();
+        checkGameEnd(game);
         
-        // Switch turn
-        game.setCurrentTurn(playerColor.equals("WHITE") ? "BLACK" : "WHITE");
-        game.setUpdatedAt(LocalDateTime.now());
-        gameRepository.save(game);
+        // Built before queueing: the writer thread fills in the id and game once committed
+        MoveDto moveDto = new MoveDto(move);
+        CompletableFuture<Void> committed = moveWriteBehind.append(game, move);
         
-        logger.info("Move completed successfully: {}", savedMove.getMoveNotation());
-        return new MoveDto(savedMove);
+        if (game.isActive()) {
+            // Sent with the broadcast so the opponent's client needs no rules of its own
+            moveDto.setLegalMoves(new LegalMovesDto(history.position()));
+        } else {
+            moveDto.setResult(game.result);
+            moveDto.setEndReason(game.endReason.toString());
+        }
+        return new AcceptedMove(move, moveDto, committed);
     }
     
     @Override
     @Transactional(readOnly = true)
-    public List<MoveDto> getGameMoves(Long gameId) {
-        logger.debug("Getting moves for game: {}", gameId);
+    public List<MoveDto> getGameMoves(Long gameId, Integer sinceMove) {
+        logger.debug("Getting moves for game {} after move {}", gameId, sinceMove);
+        int after = sinceMove != null ? Math.max(0, sinceMove) : 0;
         
-        if (!gameRepository.existsById(gameId)) {
-            throw new GameNotFoundException("Game not found with ID: " + gameId);
+        ActiveGame active = activeGameStore.peek(gameId);
+        if (active != null) {
+            synchronized (active) {
+                // Every move asked for is still waiting for the write-behind queue: no query at all
+                if (after >= active.history.plyCount() - active.unsaved.size()) {
+                    List<MoveDto> moveDtos = new ArrayList<>();
+                    addUnsavedMoves(moveDtos, active, after);
+                    return moveDtos;
+                }
+            }
         }
         
-        List<Move> moves = moveRepository.findByGameIdOrderByMoveNumberAsc(gameId);
-        return moves.stream()
+        List<Move> moves = after > 0 ? moveStorage.findMovesAfter(gameId, after) : moveStorage.findMoves(gameId);
+        if (moves.isEmpty() && !gameRepository.existsById(gameId)) {
+            throw new GameNotFoundException("Game not found with ID: " + gameId);
+        }
+        List<MoveDto> moveDtos = moves.stream()
+                   .map(MoveDto::new)
+                   .collect(Collectors.toCollection(ArrayList::new));
+        if (active != null) {
+            int stored = moves.isEmpty() ? after : moves.get(moves.size() - 1).getMoveNumber();
+            synchronized (active) {
+                addUnsavedMoves(moveDtos, active, stored);
+            }
+        }
+        return moveDtos;
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public GameResponseDto getGameSnapshot(Long gameId) {
+        MoveStorage.StoredGame stored = moveStorage.findGame(gameId)
+            .orElseThrow(() -> new GameNotFoundException("Game not found with ID: " + gameId));
+        Game game = stored.game();
+        GameDto gameDto = new GameDto(game);
+        List<MoveDto> moveDtos = stored.moves().stream()
                    .map(MoveDto::new)
-                   .collect(Collectors.toList());
+                   .collect(Collectors.toCollection(ArrayList::new));
+        GameResponseDto response = new GameResponseDto(gameDto, moveDtos);
+        
+        ActiveGame active = activeGameStore.peek(gameId);
+        if (active != null) {
+            synchronized (active) {
+                applyActiveState(gameDto, active);
+                int last = stored.moves().isEmpty() ? 0 : stored.moves().get(stored.moves().size() - 1).getMoveNumber();
+                addUnsavedMoves(moveDtos, active, last);
+                Position position = active.history.position();
+                response.setFen(position.toFen());
+                response.setLegalMoves(active.isActive() ? new LegalMovesDto(position) : null);
+                response.setVersion(version(gameId, active.history.plyCount(), active.status, game.getAnalyzedAt()));
+            }
+            return response;
+        }
+        
+        String fen = game.getCurrentFen();
+        if (fen == null) {
+            // Saved before positions were stored
+            PositionHistory history = new PositionHistory();
+            for (int move : ActiveGameStore.toEngineMoves(stored.moves())) {
+                history.play(move);
+            }
+            fen = history.position().toFen();
+        }
+        response.setFen(fen);
+        if (game.getStatus() == Game.GameStatus.ACTIVE) {
+            response.setLegalMoves(new LegalMovesDto(Position.fromFen(fen)));
+        }
+        response.setVersion(version(gameId, stored.moves().size(), game.getStatus(), game.getAnalyzedAt()));
+        return response;
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public String getGameVersion(Long gameId) {
+        ActiveGame active = activeGameStore.peek(gameId);
+        if (active != null) {
+            synchronized (active) {
+                // A finished game can still be annotated by the analysis, which only the database knows about
+                if (active.isActive()) {
+                    return version(gameId, active.history.plyCount(), active.status, null);
+                }
+            }
+        }
+        return gameRepository.findVersionById(gameId)
+            .filter(stored -> stored.getPlyCount() != null)
+            .map(stored -> version(gameId, stored.getPlyCount(), stored.getStatus(), stored.getAnalyzedAt()))
+            .orElse(null);
+    }
+    
+    /**
+     * Changes with every move, with the end of the game and once the game is analyzed
+     */
+    private static String version(Long gameId, int plies, Game.GameStatus status, LocalDateTime analyzedAt) {
+        return gameId + "-" + plies + "-" + status + (analyzedAt != null ? "-analyzed" : "");
+    }
+    
+    /**
+     * Moves accepted in memory but not yet committed by the write-behind queue; the caller holds the game's lock
+     */
+    private static void addUnsavedMoves(List<MoveDto> moveDtos, ActiveGame active, int after) {
+        for (Move move : active.unsaved) {
+            if (move.getMoveNumber() > after) {
+                moveDtos.add(new MoveDto(move));
+            }
+        }
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public LegalMovesDto getLegalMoves(Long gameId) {
+        ActiveGame game = activeGameStore.get(gameId);
+        synchronized (game) {
+            return game.isActive() ? new LegalMovesDto(game.history.position()) : null;
+        }
     }
     
-    private boolean isValidMoveFormat(String from, String to, String piece) {
-        // Basic validation - can be expanded with chess rules
-        return from != null && from.matches("[a-h][1-8]") &&
-               to != null && to.matches("[a-h][1-8]") &&
-               piece != null && !piece.trim().isEmpty();
+    @Override
+    @Transactional(readOnly = true)
+    public PositionHistory getPositionSnapshot(Long gameId) {
+        ActiveGame game = activeGameStore.get(gameId);
+        synchronized (game) {
+            return game.history.copy();
+        }
     }
     
-    private String generateMoveNotation(String from, String to, String piece) {
-        // Simple notation for now - can be improved with proper chess notation
-        return piece.charAt(0) + from + "-" + to;
+    @Override
+    @Transactional(readOnly = true)
+    public PositionDto getPosition(Long gameId, Integer ply) {
+        // Current position of a game held in memory
+        ActiveGame active = activeGameStore.peek(gameId);
+        List<Move> unsavedMoves = null;
+        int saved = 0;
+        if (active != null) {
+            synchronized (active) {
+                int current = active.history.plyCount();
+                if (ply == null || ply == current) {
+                    return new PositionDto(gameId, current, active.history.position().toFen());
+                }
+                // Played but not in the database yet: the unsaved moves are the last ones, oldest first
+                saved = current - active.unsaved.size();
+                if (ply > saved && ply < current) {
+                    unsavedMoves = new ArrayList<>(active.unsaved.subList(0, ply - saved));
+                }
+            }
+        }
+        if (unsavedMoves != null) {
+            PositionDto base = storedPosition(gameId, saved);
+            if (base == null) {
+                return null;
+            }
+            PositionHistory history = new PositionHistory(Position.fromFen(base.getFen()));
+            for (Move move : unsavedMoves) {
+                history.play(ActiveGameStore.toEngineMove(history, move));
+            }
+            return new PositionDto(gameId, ply, history.position().toFen());
+        }
+        return storedPosition(gameId, ply);
+    }
+    
+    /**
+     * Position at a ply from the database: the game's current FEN, or a replay from the nearest checkpoint
+     */
+    private PositionDto storedPosition(Long gameId, Integer ply) {
+        Game game = gameRepository.findById(gameId)
+            .orElseThrow(() -> new GameNotFoundException("Game not found with ID: " + gameId));
+        Integer plyCount = game.getPlyCount();
+        if (plyCount == null) {
+            // Saved before checkpoints existed: only the start position is known
+            int target = ply != null ? ply : moveStorage.findMoves(gameId).size();
+            return replayPosition(gameId, 0, Position.START_FEN, target);
+        }
+        int target = ply != null ? ply : plyCount;
+        if (target < 0 || target > plyCount) {
+            return null;
+        }
+        if (target == plyCount) {
+            return new PositionDto(gameId, target, game.getCurrentFen());
+        }
+        
+        // Nearest checkpoint at or before the target, then at most one interval of moves
+        return gameCheckpointRepository.findFirstByGameIdAndPlyLessThanEqualOrderByPlyDesc(gameId, target)
+            .map(checkpoint -> replayPosition(gameId, checkpoint.getPly(), checkpoint.getFen(), target))
+            .orElseGet(() -> replayPosition(gameId, 0, Position.START_FEN, target));
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public GameHistoryDto getGameHistory(User player, Game.GameStatus status, String cursor, int size) {
+        LocalDateTime updatedAt = HISTORY_START;
+        long id = Long.MAX_VALUE;
+        if (cursor != null) {
+            int separator = cursor.lastIndexOf('_');
+            try {
+                updatedAt = LocalDateTime.parse(cursor.substring(0, separator));
+                id = Long.parseLong(cursor.substring(separator + 1));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid history cursor: " + cursor);
+            }
+        }
+        
+        // One more than a page from each color tells whether another page follows
+        PageRequest page = PageRequest.of(0, size + 1);
+        List<GameSummaryDto> asWhite = gameRepository.findHistoryAsWhite(player.getId(), status, updatedAt, id, page);
+        List<GameSummaryDto> asBlack = gameRepository.findHistoryAsBlack(player.getId(), status, updatedAt, id, page);
+        List<GameSummaryDto> games = new ArrayList<>(size + 1);
+        int white = 0;
+        int black = 0;
+        while (games.size() <= size && (white < asWhite.size() || black < asBlack.size())) {
+            GameSummaryDto next;
+            if (black == asBlack.size()
+                    || (white < asWhite.size() && NEWEST_FIRST.compare(asWhite.get(white), asBlack.get(black)) < 0)) {
+                next = asWhite.get(white++);
+            } else {
+                next = asBlack.get(black++);
+            }
+            // A game against oneself comes from both queries
+            if (games.isEmpty() || !games.get(games.size() - 1).getId().equals(next.getId())) {
+                games.add(next);
+            }
+        }
+        
+        String nextCursor = null;
+        if (games.size() > size) {
+            games.remove(size);
+            GameSummaryDto last = games.get(size - 1);
+            nextCursor = last.getUpdatedAt() + "_" + last.getId();
+        }
+        return new GameHistoryDto(games, nextCursor);
+    }
+    
+    private PositionDto replayPosition(Long gameId, int base, String fen, int target) {
+        if (target < base) {
+            return null;
+        }
+        PositionHistory history = new PositionHistory(Position.fromFen(fen));
+        if (target > base) {
+            List<Move> moves = moveStorage.findMoves(gameId, base + 1, target);
+            if (moves.size() < target - base) {
+                return null;
+            }
+            for (Move move : moves) {
+                history.play(ActiveGameStore.toEngineMove(history, move));
+            }
+        }
+        return new PositionDto(gameId, target, history.position().toFen());
+    }
+    
+    /**
+     * Game as stored, with turn, status and result taken from the store when it holds a newer state
+     */
+    private GameDto toDto(Game game) {
+        GameDto dto = new GameDto(game);
+        ActiveGame active = activeGameStore.peek(game.getId());
+        if (active != null) {
+            synchronized (active) {
+                applyActiveState(dto, active);
+            }
+        }
+        return dto;
+    }
+    
+    private static void applyActiveState(GameDto dto, ActiveGame active) {
+        dto.setCurrentTurn(active.currentTurn());
+        dto.setStatus(active.status.toString());
+        dto.setResult(active.result);
+        dto.setEndReason(active.endReason != null ? active.endReason.toString() : null);
+        dto.setUpdatedAt(active.updatedAt);
+    }
+    
+    /**
+     * Finishes the game on checkmate, stalemate, threefold repetition or the fifty-move rule
+     */
+    private void checkGameEnd(ActiveGame game) {
+        PositionHistory history = game.history;
+        Position position = history.position();
+        if (!MoveGenerator.hasLegalMove(position)) {
+            if (position.inCheck()) {
+                finishGame(game, Game.EndReason.CHECKMATE, position.sideToMove() == Piece.WHITE ? "0-1" : "1-0");
+            } else {
+                finishGame(game, Game.EndReason.STALEMATE, "1/2-1/2");
+            }
+        } else if (history.isThreefoldRepetition()) {
+            finishGame(game, Game.EndReason.THREEFOLD_REPETITION, "1/2-1/2");
+        } else if (history.isFiftyMoveRule()) {
+            finishGame(game, Game.EndReason.FIFTY_MOVE_RULE, "1/2-1/2");
+        }
+    }
+    
+    private void finishGame(ActiveGame game, Game.EndReason reason, String result) {
+        logger.info("Game {} finished: {} ({})", game.id, result, reason);
+        // Stays in the store until the write-behind queue has committed the final move
+        game.status = Game.GameStatus.FINISHED;
+        game.endReason = reason;
+        game.result = result;
+    }
+    
+    static String capturedPieceName(Position position, int move) {
+        if (!Moves.isCapture(move)) {
+            return null;
+        }
+        if (Moves.flag(move) == Moves.EN_PASSANT) {
+            return Piece.typeName(Piece.PAWN);
+        }
+        return Piece.typeName(Piece.type(position.pieceAt(Moves.to(move))));
     }
 }
\ No newline at end of file
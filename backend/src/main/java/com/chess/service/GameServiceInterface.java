@@ -1,10 +1,17 @@
 package com.chess.service;
 
 import com.chess.dto.GameDto;
+import com.chess.dto.GameHistoryDto;
+import com.chess.dto.GameResponseDto;
+import com.chess.dto.LegalMovesDto;
 import com.chess.dto.MoveDto;
+import com.chess.dto.PositionDto;
+import com.chess.engine.PositionHistory;
+import com.chess.model.Game;
 import com.chess.model.User;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 public interface GameServiceInterface {
     
@@ -29,7 +36,47 @@ public interface GameServiceInterface {
     MoveDto makeMove(Long gameId, String from, String to, String piece, String playerColor);
     
     /**
-     * Récupère tous les mouvements d'une partie
+     * Effectue un mouvement avec une pièce de promotion explicite (dame par défaut)
      */
-    List<MoveDto> getGameMoves(Long gameId);
+    MoveDto makeMove(Long gameId, String from, String to, String piece, String playerColor, String promotion);
+    
+    /**
+     * Applique un mouvement en mémoire sans attendre son enregistrement ; le futur se termine une fois le coup validé en base
+     */
+    CompletableFuture<MoveDto> makeMoveAsync(Long gameId, String from, String to, String piece, String playerColor, String promotion);
+    
+    /**
+     * Récupère les mouvements d'une partie joués après sinceMove (tous si null)
+     */
+    List<MoveDto> getGameMoves(Long gameId, Integer sinceMove);
+    
+    /**
+     * Partie, coups, coups légaux et position en une lecture
+     */
+    GameResponseDto getGameSnapshot(Long gameId);
+    
+    /**
+     * Version d'une partie pour l'ETag, lue en mémoire pour une partie en cours ; null si elle ne peut pas être calculée sans charger la partie
+     */
+    String getGameVersion(Long gameId);
+    
+    /**
+     * Coups légaux du joueur au trait, ou null si la partie n'est pas active
+     */
+    LegalMovesDto getLegalMoves(Long gameId);
+    
+    /**
+     * Retourne une copie de la position courante d'une partie, pour le moteur
+     */
+    PositionHistory getPositionSnapshot(Long gameId);
+    
+    /**
+     * Position (FEN) après le demi-coup donné, ou position courante si ply est null ; null si ce demi-coup n'existe pas
+     */
+    PositionDto getPosition(Long gameId, Integer ply);
+    
+    /**
+     * Historique d'un joueur, des parties les plus récentes aux plus anciennes, page par page à partir d'un curseur (null = première page)
+     */
+    GameHistoryDto getGameHistory(User player, Game.GameStatus status, String cursor, int size);
 }
\ No newline at end of file
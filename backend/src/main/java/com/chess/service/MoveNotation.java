@@ -0,0 +1,14 @@
+package com.chess.service;
+
+/**
+ * Notation stored with each move, shared by live play, the PGN import and the packed storage.
+ */
+public final class MoveNotation {
+
+    private MoveNotation() {}
+
+    public static String generate(String from, String to, String piece) {
+        // Simple notation for now - can be improved with proper chess notation
+        return piece.charAt(0) + from + "-" + to;
+    }
+}
@@ -0,0 +1,57 @@
+package com.chess.service;
+
+import com.chess.model.Game;
+import com.chess.model.Move;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+
+/**
+ * Storage format of the moves of a game, chosen with chess.game.move-storage: one row per move
+ * ({@link RowMoveStorage}, default) or one packed row per game ({@link PackedMoveStorage}).
+ * Every method runs in the caller's transaction.
+ */
+public interface MoveStorage {
+    
+    /**
+     * A game with its players and its moves in playing order
+     */
+    record StoredGame(Game game, List<Move> moves) {}
+    
+    /**
+     * A game with its players and its moves; a single query with the row storage
+     */
+    Optional<StoredGame> findGame(Long gameId);
+    
+    /**
+     * Moves of a game in playing order
+     */
+    List<Move> findMoves(Long gameId);
+    
+    /**
+     * Moves numbered first to last inclusive; only the number, squares and promotion are guaranteed
+     */
+    List<Move> findMoves(Long gameId, int first, int last);
+    
+    /**
+     * Complete moves played after the given move number
+     */
+    List<Move> findMovesAfter(Long gameId, int moveNumber);
+    
+    /**
+     * Appends moves already linked to their game, in each game's playing order
+     */
+    void append(List<Move> moves);
+    
+    /**
+     * Saves the evaluation and annotation of every move of an analyzed game
+     */
+    void saveAnalysis(Game game, List<Move> moves);
+    
+    /**
+     * Streams the played games (at least one move) with their moves, filtered by player and creation
+     * date (a null filter is ignored, to is exclusive); one game is loaded at a time
+     */
+    void forEachGame(String player, LocalDateTime from, LocalDateTime to, BiConsumer<Game, List<Move>> action);
+}
@@ -0,0 +1,463 @@
+package com.chess.service;
+
+import com.chess.exception.MovePersistenceException;
+import com.chess.journal.JournalRecord;
+import com.chess.journal.MoveJournal;
+import com.chess.model.Game;
+import com.chess.model.GameCheckpoint;
+import com.chess.model.Move;
+import com.chess.repository.GameCheckpointRepository;
+import com.chess.repository.GameRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write-behind persistence for {@link ActiveGameStore}. Moves are appended to a queue and a single
+ * writer thread commits them in batches, together with the latest state of each game touched.
+ * One writer keeps every game's moves in order. A batch failing on the database or the connection is
+ * retried with backoff; once that fails {@code max-attempts} times, or at once for any other failure,
+ * its games are written one by one, so that only a game that still fails is dropped, with its later
+ * queued moves, and evicted to reload from the database.
+ * On shutdown the queue is drained before the context closes.
+ * <p>
+ * A batch is flushed when it reaches {@code batch-size} moves or when its first move has waited
+ * {@code linger-ms}, whichever comes first. Moves of many games share one transaction and, with
+ * sequence ids and {@code hibernate.jdbc.batch_size}, one JDBC batch. Each append returns a future
+ * completed once its batch is committed, so callers acknowledge only durable moves.
+ * <p>
+ * Each write also keeps the game's ply count, its current FEN and, every
+ * {@code chess.game.checkpoint-interval} plies, a FEN checkpoint used to seek to any ply.
+ * <p>
+ * With the {@link MoveJournal} on, a move is acknowledged as soon as its journal record is forced
+ * and the batch only copies it to the tables. Batches are then never dropped: transient failures
+ * are retried until the database is back, or left in the journal for the next startup. Any other
+ * failure is narrowed down to the games at fault, which are parked: their moves stay in the
+ * journal, to be replayed on the next startup, while the other games keep being written.
+ */
+@Component
+public class MoveWriteBehind {
+    
+    private static final Logger logger = LoggerFactory.getLogger(MoveWriteBehind.class);
+    
+    private static final long MAX_BACKOFF_MS = 5000;
+    
+    @Value("${chess.game.write-behind.batch-size:200}")
+    private int batchSize;
+    
+    @Value("${chess.game.write-behind.linger-ms:0}")
+    private long lingerMs;
+    
+    @Value("${chess.game.checkpoint-interval:16}")
+    private int checkpointInterval;
+    
+    @Value("${chess.game.write-behind.max-attempts:5}")
+    private int maxAttempts;
+    
+    @Autowired
+    private GameRepository gameRepository;
+    
+    @Autowired
+    private GameCheckpointRepository gameCheckpointRepository;
+    
+    @Autowired
+    private MoveStorage moveStorage;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private ActiveGameStore activeGameStore;
+    
+    @Autowired
+    private MoveJournal moveJournal;
+    
+    private final LinkedBlockingQueue<PendingMove> queue = new LinkedBlockingQueue<>();
+    private final AtomicLong writtenMoves = new AtomicLong();
+    private final AtomicLong droppedMoves = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong commitNanos = new AtomicLong();
+    private Thread writer;
+    private volatile boolean running;
+    // Set when a batch is left in the journal at shutdown: later moves must not be written past it
+    private volatile boolean leftToJournal;
+    // Games whose moves the database refuses, left in the journal until the next startup
+    private final Set<Long> parkedGames = ConcurrentHashMap.newKeySet();
+    
+    /**
+     * A move to insert plus the state of its game right after it; journalSequence is 0 when the
+     * move is not journaled
+     */
+    private record PendingMove(ActiveGame game, Move move, String fen, String currentTurn, Game.GameStatus status,
+                               String result, Game.EndReason endReason, LocalDateTime updatedAt,
+                               CompletableFuture<Void> committed, long journalSequence) {}
+    
+    @PostConstruct
+    public void startWriter() {
+        running = true;
+        writer = new Thread(this::writeLoop, "chess-write-behind");
+        writer.setDaemon(true);
+        writer.start();
+    }
+    
+    @PreDestroy
+    public void stopWriter() throws InterruptedException {
+        running = false;
+        writer.interrupt();
+        writer.join(TimeUnit.SECONDS.toMillis(30));
+        if (!queue.isEmpty()) {
+            logger.warn("Flushing {} queued moves before shutdown", queue.size());
+            flush();
+        }
+    }
+    
+    /**
+     * Queues a move accepted in memory; must be called while holding the game's lock so that
+     * appends of one game keep their order. The future completes once the move is durable: in the
+     * journal when it is on, otherwise in the database, or exceptionally with
+     * {@link MovePersistenceException} if its batch was dropped.
+     */
+    CompletableFuture<Void> append(ActiveGame game, Move move) {
+        CompletableFuture<Void> committed = new CompletableFuture<>();
+        CompletableFuture<Void> acknowledged = committed;
+        long journalSequence = 0;
+        if (moveJournal.isAccepting()) {
+            CompletableFuture<Void> journaled = new CompletableFuture<>();
+            try {
+                journalSequence = moveJournal.append(JournalRecord.of(game.id, move), journaled);
+                acknowledged = journaled;
+            } catch (RuntimeException e) {
+                // The move is already applied in memory: fall back to acknowledging the commit
+                logger.error("Journal append failed for game {}: {}", game.id, e.getMessage(), e);
+            }
+        }
+        game.unsaved.add(move);
+        queue.add(new PendingMove(game, move, game.history.position().toFen(), game.currentTurn(), game.status,
+                                  game.result, game.endReason, game.updatedAt, committed, journalSequence));
+        return acknowledged;
+    }
+    
+    public int pending() {
+        return queue.size();
+    }
+    
+    public long written() {
+        return writtenMoves.get();
+    }
+    
+    public long dropped() {
+        return droppedMoves.get();
+    }
+    
+    public long batches() {
+        return batches.get();
+    }
+    
+    /**
+     * Mean time to commit one batch, in milliseconds
+     */
+    public double meanCommitMillis() {
+        long count = batches.get();
+        return count == 0 ? 0 : commitNanos.get() / 1e6 / count;
+    }
+    
+    private void writeLoop() {
+        List<PendingMove> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                if (batch.isEmpty()) {
+                    PendingMove first = queue.poll(1, TimeUnit.SECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    fill(batch, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMs));
+                }
+                writeWithRetry(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                // Shutdown: stopWriter flushes what is left on the closing thread
+                if (!batch.isEmpty()) {
+                    writeWithRetry(batch);
+                }
+                return;
+            }
+        }
+    }
+    
+    /**
+     * Adds queued moves to the batch until it is full or the linger deadline has passed
+     */
+    private void fill(List<PendingMove> batch, long deadline) throws InterruptedException {
+        queue.drainTo(batch, batchSize - batch.size());
+        while (batch.size() < batchSize) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            PendingMove next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+            queue.drainTo(batch, batchSize - batch.size());
+        }
+    }
+    
+    private void flush() {
+        List<PendingMove> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            if (!writeWithRetry(batch)) {
+                // Writing later moves would leave a gap behind the ones kept in the journal
+                logger.warn("Leaving {} queued moves to the journal", queue.size());
+                return;
+            }
+            batch.clear();
+        }
+    }
+    
+    private boolean writeWithRetry(List<PendingMove> batch) {
+        return writeWithRetry(batch, maxAttempts);
+    }
+    
+    /**
+     * Writes the batch, retrying on failure; returns false if it was left in the journal because
+     * the database was still failing at shutdown
+     */
+    private boolean writeWithRetry(List<PendingMove> batch, int attempts) {
+        if (leftToJournal) {
+            return false;
+        }
+        if (!parkedGames.isEmpty()) {
+            batch = skipParked(batch);
+            if (batch.isEmpty()) {
+                return true;
+            }
+        }
+        long backoff = 100;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                long start = System.nanoTime();
+                write(batch);
+                commitNanos.addAndGet(System.nanoTime() - start);
+                batches.incrementAndGet();
+                afterCommit(batch);
+                return true;
+            } catch (RuntimeException e) {
+                if (!isTransient(e)) {
+                    // Retrying as is would fail the same way
+                    return isolate(batch, e);
+                }
+                if (moveJournal.isAccepting()) {
+                    // Already acknowledged: never dropped, the journal replays them on the next startup
+                    if (!running && attempt >= attempts) {
+                        logger.error("Leaving {} moves to the journal after {} failed attempts: {}",
+                                    batch.size(), attempt, e.getMessage());
+                        leftToJournal = true;
+                        return false;
+                    }
+                } else if (attempt >= attempts) {
+                    return isolate(batch, e);
+                }
+                logger.warn("Write-behind batch of {} moves failed (attempt {}), retrying in {} ms: {}",
+                           batch.size(), attempt, backoff, e.getMessage());
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+                backoff = Math.min(MAX_BACKOFF_MS, backoff * 2);
+            }
+        }
+    }
+    
+    /**
+     * Failures worth retrying as is: the database or the connection, not the data
+     */
+    private static boolean isTransient(RuntimeException e) {
+        return e instanceof TransientDataAccessException
+            || e instanceof DataAccessResourceFailureException
+            || e instanceof CannotCreateTransactionException;
+    }
+    
+    /**
+     * Writes the games of a batch that failed for good one at a time, so that only the games at
+     * fault are parked, or dropped without the journal; returns false if moves were left in the
+     * journal at shutdown
+     */
+    private boolean isolate(List<PendingMove> batch, RuntimeException cause) {
+        Map<Long, List<PendingMove>> byGame = new LinkedHashMap<>();
+        for (PendingMove pending : batch) {
+            byGame.computeIfAbsent(pending.game().id, id -> new ArrayList<>()).add(pending);
+        }
+        if (byGame.size() == 1) {
+            if (moveJournal.isAccepting()) {
+                park(batch, cause);
+            } else {
+                logger.error("Dropping {} moves of game {}: {}", batch.size(), batch.get(0).game().id,
+                            cause.getMessage(), cause);
+                drop(batch, cause);
+            }
+            return true;
+        }
+        logger.warn("Write-behind batch of {} moves failed: {}; writing its {} games one by one",
+                   batch.size(), cause.getMessage(), byGame.size());
+        // Without the journal the whole batch was already retried: one attempt per game is enough
+        int attempts = moveJournal.isAccepting() ? maxAttempts : 1;
+        for (List<PendingMove> moves : byGame.values()) {
+            writeWithRetry(moves, attempts);
+        }
+        return !leftToJournal;
+    }
+    
+    /**
+     * Stops writing a game: its moves stay unsaved in memory, which keeps it in the store, and
+     * unpersisted in the journal, which keeps their segments until they are replayed
+     */
+    private void park(List<PendingMove> moves, RuntimeException cause) {
+        Long gameId = moves.get(0).game().id;
+        parkedGames.add(gameId);
+        logger.error("Game {} cannot be written, its moves stay in the journal until the next startup: {}",
+                    gameId, cause.getMessage(), cause);
+        failParked(moves, cause);
+    }
+    
+    private List<PendingMove> skipParked(List<PendingMove> batch) {
+        List<PendingMove> kept = new ArrayList<>(batch.size());
+        List<PendingMove> parked = new ArrayList<>();
+        for (PendingMove pending : batch) {
+            (parkedGames.contains(pending.game().id) ? parked : kept).add(pending);
+        }
+        failParked(parked, null);
+        return kept;
+    }
+    
+    /**
+     * Only a move whose journal append failed was acknowledged on this future; the others already
+     * were, by their journal record
+     */
+    private static void failParked(List<PendingMove> moves, RuntimeException cause) {
+        for (PendingMove pending : moves) {
+            pending.committed().completeExceptionally(
+                new MovePersistenceException("Move could not be saved in game " + pending.game().id, cause));
+        }
+    }
+    
+    private void write(List<PendingMove> batch) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Map<Long, PendingMove> latestByGame = new LinkedHashMap<>();
+            for (PendingMove pending : batch) {
+                latestByGame.put(pending.game().id, pending);
+            }
+            Map<Long, Game> games = new HashMap<>();
+            for (Game game : gameRepository.findAllById(latestByGame.keySet())) {
+                games.put(game.getId(), game);
+            }
+            
+            List<Move> moves = new ArrayList<>(batch.size());
+            for (PendingMove pending : batch) {
+                // An id reserved by a rolled-back attempt would make the retry a merge
+                pending.move().setId(null);
+                pending.move().setGame(games.get(pending.game().id));
+                moves.add(pending.move());
+            }
+            moveStorage.append(moves);
+            
+            List<GameCheckpoint> checkpoints = new ArrayList<>();
+            for (PendingMove pending : batch) {
+                if (pending.move().getMoveNumber() % checkpointInterval == 0) {
+                    checkpoints.add(new GameCheckpoint(pending.game().id, pending.move().getMoveNumber(), pending.fen()));
+                }
+            }
+            gameCheckpointRepository.saveAll(checkpoints);
+            
+            // Dirty checking turns these into one JDBC batch of updates at commit
+            for (PendingMove latest : latestByGame.values()) {
+                Game game = games.get(latest.game().id);
+                game.setPlyCount(latest.move().getMoveNumber());
+                game.setCurrentFen(latest.fen());
+                game.setCurrentTurn(latest.currentTurn());
+                game.setStatus(latest.status());
+                game.setResult(latest.result());
+                game.setEndReason(latest.endReason());
+                game.setUpdatedAt(latest.updatedAt());
+            }
+        });
+    }
+    
+    private void afterCommit(List<PendingMove> batch) {
+        writtenMoves.addAndGet(batch.size());
+        for (PendingMove pending : batch) {
+            ActiveGame game = pending.game();
+            synchronized (game) {
+                game.unsaved.remove(pending.move());
+                // Finished games leave the store once everything they produced is durable
+                if (!game.isActive() && game.unsaved.isEmpty()) {
+                    activeGameStore.evict(game.id);
+                }
+            }
+            if (pending.journalSequence() > 0) {
+                moveJournal.persisted(pending.journalSequence());
+            }
+            pending.committed().complete(null);
+        }
+    }
+    
+    /**
+     * Fails the moves together with every later move of their games still queued, then evicts those
+     * games: writing the later moves would leave a gap at the dropped ones, and the reloaded game
+     * would not replay
+     */
+    private void drop(List<PendingMove> batch, RuntimeException cause) {
+        Map<Long, ActiveGame> affected = new LinkedHashMap<>();
+        for (PendingMove pending : batch) {
+            affected.putIfAbsent(pending.game().id, pending.game());
+        }
+        List<PendingMove> failed = new ArrayList<>(batch);
+        for (ActiveGame game : affected.values()) {
+            // Appends take the game's lock: none of its moves can be queued while it is purged
+            synchronized (game) {
+                queue.removeIf(pending -> {
+                    if (pending.game() == game) {
+                        failed.add(pending);
+                        return true;
+                    }
+                    return false;
+                });
+                game.unsaved.clear();
+                // Nothing of it is left in the queue: the database is now the truth for this game
+                activeGameStore.evict(game.id);
+            }
+        }
+        droppedMoves.addAndGet(failed.size());
+        if (failed.size() > batch.size()) {
+            logger.error("Also dropped {} later queued moves of the {} games affected",
+                        failed.size() - batch.size(), affected.size());
+        }
+        for (PendingMove pending : failed) {
+            pending.committed().completeExceptionally(
+                new MovePersistenceException("Move could not be saved in game " + pending.game().id, cause));
+        }
+    }
+}
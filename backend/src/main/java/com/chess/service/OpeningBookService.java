@@ -0,0 +1,80 @@
+package com.chess.service;
+
+import com.chess.dto.BookMoveDto;
+import com.chess.engine.Moves;
+import com.chess.engine.OpeningBook;
+import com.chess.engine.PositionHistory;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Polyglot opening book shared by all games, used by the computer opponent and for opening hints.
+ * Without {@code chess.engine.book-path} the service simply finds no book moves.
+ */
+@Service
+public class OpeningBookService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OpeningBookService.class);
+
+    @Value("${chess.engine.book-path:}")
+    private String bookPath;
+
+    // Past this ply the book is no longer consulted
+    @Value("${chess.engine.book-max-ply:30}")
+    private int maxPly;
+
+    @Autowired
+    private GameServiceInterface gameService;
+
+    private OpeningBook book;
+
+    @PostConstruct
+    public void openBook() {
+        if (bookPath == null || bookPath.isBlank()) {
+            logger.info("No opening book configured");
+            return;
+        }
+        try {
+            book = OpeningBook.open(Path.of(bookPath));
+            logger.info("Opening book {} mapped: {} entries", bookPath, book.size());
+        } catch (IOException e) {
+            logger.error("Cannot open opening book {}: {}", bookPath, e.getMessage());
+        }
+    }
+
+    public boolean isAvailable() {
+        return book != null;
+    }
+
+    /**
+     * Weighted random book move for the position, or {@link Moves#NONE} when out of book
+     */
+    public int pickMove(PositionHistory history) {
+        if (book == null || history.plyCount() >= maxPly) {
+            return Moves.NONE;
+        }
+        return book.pickMove(history.position(), ThreadLocalRandom.current());
+    }
+
+    /**
+     * Book moves for the current position of a game, heaviest first
+     */
+    public List<BookMoveDto> getHints(Long gameId) {
+        if (book == null) {
+            return List.of();
+        }
+        PositionHistory snapshot = gameService.getPositionSnapshot(gameId);
+        return book.moves(snapshot.position()).stream()
+                .map(BookMoveDto::new)
+                .toList();
+    }
+}
@@ -0,0 +1,293 @@
+package com.chess.service;
+
+import com.chess.engine.Bitboards;
+import com.chess.engine.MoveGenerator;
+import com.chess.engine.Moves;
+import com.chess.engine.Piece;
+import com.chess.engine.Position;
+import com.chess.engine.PositionHistory;
+import com.chess.exception.InvalidMoveException;
+import com.chess.model.Game;
+import com.chess.model.GameMoves;
+import com.chess.model.Move;
+import com.chess.repository.GameMovesRepository;
+import com.chess.repository.GameRepository;
+import com.chess.repository.MoveRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+
+/**
+ * All moves of a game in one {@link GameMoves} row. A move is 16 bits (from, to, promotion) and
+ * everything else in {@link Move} (piece, color, capture, notation) is rebuilt on read by replaying
+ * the game, so a full game loads with a single-row read.
+ * <p>
+ * Games written before the switch to this format keep their move rows: they are read from there
+ * until their next write converts them.
+ */
+@Component
+@ConditionalOnProperty(name = "chess.game.move-storage", havingValue = "packed")
+public class PackedMoveStorage implements MoveStorage {
+
+    private static final int MOVE_BYTES = 2;
+    private static final int ANALYSIS_BYTES = 3;
+    private static final short NO_EVALUATION = Short.MIN_VALUE;
+
+    @Autowired
+    private GameMovesRepository gameMovesRepository;
+
+    @Autowired
+    private MoveRepository moveRepository;
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Override
+    public Optional<StoredGame> findGame(Long gameId) {
+        return gameRepository.findById(gameId).map(game -> new StoredGame(game, findMoves(gameId)));
+    }
+
+    @Override
+    public List<Move> findMoves(Long gameId) {
+        return gameMovesRepository.findById(gameId)
+            .map(PackedMoveStorage::decode)
+            .orElseGet(() -> moveRepository.findByGameIdOrderByMoveNumberAsc(gameId));
+    }
+
+    /**
+     * Decodes only the requested plies and without replaying the game, so pieces, captures and
+     * notation are left empty
+     */
+    @Override
+    public List<Move> findMoves(Long gameId, int first, int last) {
+        GameMoves record = gameMovesRepository.findById(gameId).orElse(null);
+        if (record == null) {
+            return moveRepository.findByGameIdAndMoveNumberBetweenOrderByMoveNumberAsc(gameId, first, last);
+        }
+        byte[] packed = record.getMoves();
+        int end = Math.min(last, packed.length / MOVE_BYTES);
+        List<Move> moves = new ArrayList<>(Math.max(0, end - first + 1));
+        for (int moveNumber = Math.max(1, first); moveNumber <= end; moveNumber++) {
+            int index = (moveNumber - 1) * MOVE_BYTES;
+            int code = (packed[index] & 0xFF) << 8 | (packed[index + 1] & 0xFF);
+            int promotion = (code >>> 12) & 0x7;
+            Move move = new Move();
+            move.setMoveNumber(moveNumber);
+            move.setFromPosition(Bitboards.squareName(code & 0x3F));
+            move.setToPosition(Bitboards.squareName((code >>> 6) & 0x3F));
+            if (promotion != 0) {
+                move.setPromotion(Piece.typeName(Piece.KNIGHT + promotion - 1));
+            }
+            moves.add(move);
+        }
+        return moves;
+    }
+
+    /**
+     * Pieces and captures come from replaying the game, so the whole game is decoded: the cost is
+     * that of the game's length, not of the plies returned
+     */
+    @Override
+    public List<Move> findMovesAfter(Long gameId, int moveNumber) {
+        List<Move> moves = findMoves(gameId);
+        return new ArrayList<>(moves.subList(Math.max(0, Math.min(moveNumber, moves.size())), moves.size()));
+    }
+
+    @Override
+    public void append(List<Move> moves) {
+        Map<Long, List<Move>> movesByGame = new LinkedHashMap<>();
+        Map<Long, Game> games = new HashMap<>();
+        for (Move move : moves) {
+            Game game = move.getGame();
+            games.put(game.getId(), game);
+            movesByGame.computeIfAbsent(game.getId(), id -> new ArrayList<>()).add(move);
+        }
+        Map<Long, GameMoves> records = new HashMap<>();
+        for (GameMoves record : gameMovesRepository.findAllById(movesByGame.keySet())) {
+            records.put(record.getGameId(), record);
+        }
+
+        List<GameMoves> changed = new ArrayList<>(movesByGame.size());
+        for (Map.Entry<Long, List<Move>> entry : movesByGame.entrySet()) {
+            GameMoves record = records.get(entry.getKey());
+            if (record == null) {
+                record = new GameMoves(entry.getKey(), games.get(entry.getKey()).getCreatedAt());
+                // Earlier plies of a game not packed yet are still move rows
+                if (entry.getValue().get(0).getMoveNumber() > 1) {
+                    appendPlies(record, moveRepository.findByGameIdOrderByMoveNumberAsc(entry.getKey()));
+                }
+            }
+            appendPlies(record, entry.getValue());
+            changed.add(record);
+        }
+        gameMovesRepository.saveAll(changed);
+    }
+
+    @Override
+    public void saveAnalysis(Game game, List<Move> moves) {
+        GameMoves record = gameMovesRepository.findById(game.getId()).orElse(null);
+        if (record == null) {
+            record = new GameMoves(game.getId(), game.getCreatedAt());
+            appendPlies(record, moves);
+        }
+        byte[] analysis = new byte[moves.size() * ANALYSIS_BYTES];
+        for (int ply = 0; ply < moves.size(); ply++) {
+            Move move = moves.get(ply);
+            int evaluation = move.getEvaluation() != null ? move.getEvaluation() : NO_EVALUATION;
+            analysis[ply * ANALYSIS_BYTES] = (byte) (evaluation >>> 8);
+            analysis[ply * ANALYSIS_BYTES + 1] = (byte) evaluation;
+            analysis[ply * ANALYSIS_BYTES + 2] = (byte) (move.getAnnotation() != null ? move.getAnnotation().ordinal() + 1 : 0);
+        }
+        record.setAnalysis(analysis);
+        gameMovesRepository.save(record);
+    }
+
+    /**
+     * Packed games first, then the games still stored as rows
+     */
+    @Override
+    public void forEachGame(String player, LocalDateTime from, LocalDateTime to, BiConsumer<Game, List<Move>> action) {
+        try (Stream<Object[]> rows = gameMovesRepository.streamForExport(player, from, to)) {
+            rows.forEach(row -> action.accept((Game) row[0], decode((GameMoves) row[1])));
+        }
+        try (Stream<Move> moves = moveRepository.streamUnpackedForExport(player, from, to)) {
+            RowMoveStorage.forEachGame(moves, action);
+        }
+    }
+
+    /**
+     * Appends moves to the packed columns; each clock delta is measured from the previous ply. Only
+     * the new plies are encoded, the existing bytes are copied once.
+     */
+    private static void appendPlies(GameMoves record, List<Move> moves) {
+        if (moves.isEmpty()) {
+            return;
+        }
+        byte[] existing = record.getMoves();
+        byte[] packed = Arrays.copyOf(existing, existing.length + moves.size() * MOVE_BYTES);
+        ByteArrayOutputStream clocks = new ByteArrayOutputStream(moves.size() * 2);
+
+        LocalDateTime previous = lastMoveAt(record);
+        int index = existing.length;
+        for (Move move : moves) {
+            int code = encode(move);
+            packed[index++] = (byte) (code >>> 8);
+            packed[index++] = (byte) code;
+            LocalDateTime playedAt = move.getCreatedAt() != null ? move.getCreatedAt() : previous;
+            writeVarint(clocks, Math.max(0, Duration.between(previous, playedAt).toMillis()));
+            previous = playedAt;
+        }
+        record.setMoves(packed);
+        record.setClocks(concat(record.getClocks(), clocks.toByteArray()));
+        record.setLastMoveAt(previous);
+    }
+
+    private static byte[] concat(byte[] head, byte[] tail) {
+        byte[] joined = Arrays.copyOf(head, head.length + tail.length);
+        System.arraycopy(tail, 0, joined, head.length, tail.length);
+        return joined;
+    }
+
+    private static int encode(Move move) {
+        int promotion = Piece.parseType(move.getPromotion());
+        return Bitboards.parseSquare(move.getFromPosition())
+             | Bitboards.parseSquare(move.getToPosition()) << 6
+             | (promotion == Piece.NONE ? 0 : promotion - Piece.KNIGHT + 1) << 12;
+    }
+
+    private static List<Move> decode(GameMoves record) {
+        byte[] packed = record.getMoves();
+        byte[] clocks = record.getClocks();
+        byte[] analysis = record.getAnalysis();
+        int plies = packed.length / MOVE_BYTES;
+        List<Move> moves = new ArrayList<>(plies);
+
+        PositionHistory history = new PositionHistory();
+        LocalDateTime clock = record.getStartedAt();
+        int[] clockOffset = { 0 };
+        for (int ply = 0; ply < plies; ply++) {
+            int code = (packed[ply * MOVE_BYTES] & 0xFF) << 8 | (packed[ply * MOVE_BYTES + 1] & 0xFF);
+            int from = code & 0x3F;
+            int to = (code >>> 6) & 0x3F;
+            int promotion = (code >>> 12) & 0x7;
+            Position position = history.position();
+            int legalMove = MoveGenerator.findLegalMove(position, from, to,
+                    promotion == 0 ? Piece.NONE : Piece.KNIGHT + promotion - 1);
+            if (legalMove == Moves.NONE) {
+                throw new InvalidMoveException("Stored move history is not legal at move " + (ply + 1));
+            }
+            int piece = position.pieceAt(from);
+            clock = clock.plus(Duration.ofMillis(readVarint(clocks, clockOffset)));
+
+            Move move = new Move();
+            move.setMoveNumber(ply + 1);
+            move.setPlayerColor(Piece.colorName(Piece.color(piece)));
+            move.setFromPosition(Bitboards.squareName(from));
+            move.setToPosition(Bitboards.squareName(to));
+            move.setPieceType(Piece.typeName(Piece.type(piece)));
+            move.setCapturedPiece(GameServiceImpl.capturedPieceName(position, legalMove));
+            if (Moves.isPromotion(legalMove)) {
+                move.setPromotion(Piece.typeName(Moves.promotionType(legalMove)));
+            }
+            move.setMoveNotation(MoveNotation.generate(move.getFromPosition(), move.getToPosition(), move.getPieceType()));
+            move.setCreatedAt(clock);
+            if (analysis != null && analysis.length >= (ply + 1) * ANALYSIS_BYTES) {
+                short evaluation = (short) ((analysis[ply * ANALYSIS_BYTES] & 0xFF) << 8 | (analysis[ply * ANALYSIS_BYTES + 1] & 0xFF));
+                int annotation = analysis[ply * ANALYSIS_BYTES + 2];
+                move.setEvaluation(evaluation != NO_EVALUATION ? (int) evaluation : null);
+                move.setAnnotation(annotation > 0 ? Move.Annotation.values()[annotation - 1] : null);
+            }
+            moves.add(move);
+            history.play(legalMove);
+        }
+        return moves;
+    }
+
+    /**
+     * Time of the last ply; only records written before it was stored sum their clock deltas
+     */
+    private static LocalDateTime lastMoveAt(GameMoves record) {
+        if (record.getLastMoveAt() != null) {
+            return record.getLastMoveAt();
+        }
+        byte[] clocks = record.getClocks();
+        int[] offset = { 0 };
+        long elapsed = 0;
+        while (offset[0] < clocks.length) {
+            elapsed += readVarint(clocks, offset);
+        }
+        return record.getStartedAt().plus(Duration.ofMillis(elapsed));
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while (value >= 0x80) {
+            out.write((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarint(byte[] in, int[] offset) {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = in[offset[0]++];
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+}
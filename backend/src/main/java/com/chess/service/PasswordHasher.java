@@ -0,0 +1,184 @@
+package com.chess.service;
+
+import com.chess.exception.ServerBusyException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Runs the password encoder, BCrypt by design slow, off the request threads: a reconnect storm then
+ * queues on {@code chess.auth.hash-threads} threads instead of holding every Tomcat thread, and
+ * game requests keep being served.
+ * <ul>
+ *   <li>Admission: at most {@code chess.auth.hash-queue-capacity} hashes wait; past that a request
+ *       fails at once with {@link ServerBusyException}, a 503, rather than waiting longer than a
+ *       client would.</li>
+ *   <li>Metrics: time spent queued and time spent hashing, see {@link #stats()}.</li>
+ *   <li>What follows a hash, such as saving the new user or marking them online, reads and writes
+ *       the database: callers continue on {@link #ioExecutor()} so that the hashing threads, which
+ *       admission counts, only hash. Its queue is bounded too, by {@code chess.auth.io-queue-capacity}:
+ *       with a slow database, the follow-ups of finished hashes are turned away with a 503 rather
+ *       than piling up.</li>
+ * </ul>
+ */
+@Component
+public class PasswordHasher {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHasher.class);
+
+    @Value("${chess.auth.hash-threads:0}")
+    private int threads;
+
+    @Value("${chess.auth.hash-queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${chess.auth.io-threads:8}")
+    private int ioThreads;
+
+    @Value("${chess.auth.io-queue-capacity:64}")
+    private int ioQueueCapacity;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private ThreadPoolExecutor executor;
+    private ThreadPoolExecutor ioExecutor;
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong totalHashNanos = new AtomicLong();
+    private final AtomicLong maxHashNanos = new AtomicLong();
+
+    /**
+     * Queue depth and timings since startup
+     */
+    public record HashingStats(int threads, int queued, int queueCapacity, long completed, long rejected,
+                               double averageWaitMillis, double maxWaitMillis,
+                               double averageHashMillis, double maxHashMillis) {}
+
+    @PostConstruct
+    public void startExecutor() {
+        if (threads <= 0) {
+            threads = Runtime.getRuntime().availableProcessors();
+        }
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                daemonThreads("chess-hash-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        // Admission ends with the hash: the database work after it needs its own bound
+        ioExecutor = new ThreadPoolExecutor(ioThreads, ioThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(ioQueueCapacity),
+                daemonThreads("chess-auth-io-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        logger.info("Password hashing: {} threads, {} queued at most, {} I/O threads", threads, queueCapacity,
+                   ioThreads);
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @PreDestroy
+    public void stopExecutor() {
+        executor.shutdownNow();
+        ioExecutor.shutdownNow();
+    }
+
+    /**
+     * Executor for the blocking work that follows a hash; a dependent stage submitted when its queue
+     * is full fails with {@link ServerBusyException}
+     */
+    public Executor ioExecutor() {
+        return task -> {
+            try {
+                ioExecutor.execute(task);
+            } catch (RejectedExecutionException e) {
+                throw busy();
+            }
+        };
+    }
+
+    /**
+     * Hashes a password for storage; throws {@link ServerBusyException} when the queue is full
+     */
+    public CompletableFuture<String> encode(String rawPassword) {
+        return submit(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * Checks a password against its stored hash; throws {@link ServerBusyException} when the queue is full
+     */
+    public CompletableFuture<Boolean> matches(String rawPassword, String encodedPassword) {
+        return submit(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    public HashingStats stats() {
+        long done = completed.get();
+        return new HashingStats(threads, executor.getQueue().size(), queueCapacity, done, rejected.get(),
+                averageMillis(totalWaitNanos.get(), done), maxWaitNanos.get() / 1e6,
+                averageMillis(totalHashNanos.get(), done), maxHashNanos.get() / 1e6);
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> hashing) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        long submittedNanos = System.nanoTime();
+        try {
+            executor.execute(() -> {
+                long startedNanos = System.nanoTime();
+                try {
+                    T value = hashing.get();
+                    record(startedNanos - submittedNanos, System.nanoTime() - startedNanos);
+                    result.complete(value);
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            throw busy();
+        }
+        return result;
+    }
+
+    private ServerBusyException busy() {
+        long count = rejected.incrementAndGet();
+        // One line per hundred, a storm would otherwise flood the log
+        if (count % 100 == 1) {
+            logger.warn("Password hashing or its database follow-up saturated, {} requests turned away so far", count);
+        }
+        return new ServerBusyException("Serveur occupé, réessayez dans un instant");
+    }
+
+    private void record(long waitNanos, long hashNanos) {
+        completed.incrementAndGet();
+        totalWaitNanos.addAndGet(waitNanos);
+        maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+        totalHashNanos.addAndGet(hashNanos);
+        maxHashNanos.accumulateAndGet(hashNanos, Math::max);
+    }
+
+    private static double averageMillis(long totalNanos, long count) {
+        return count == 0 ? 0.0 : totalNanos / 1e6 / count;
+    }
+}
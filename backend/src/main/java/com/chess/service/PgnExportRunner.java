@@ -0,0 +1,70 @@
+package com.chess.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Command-line PGN export: started with {@code --chess.export.file=games.pgn} (gzip-compressed when
+ * the name ends in .gz), plus optional {@code chess.export.player}, {@code chess.export.from} and
+ * {@code chess.export.to} (inclusive yyyy-MM-dd days), it writes the archive and exits.
+ */
+@Component
+@ConditionalOnProperty(name = "chess.export.file")
+public class PgnExportRunner implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(PgnExportRunner.class);
+
+    @Value("${chess.export.file}")
+    private String file;
+
+    @Value("${chess.export.player:}")
+    private String player;
+
+    @Value("${chess.export.from:}")
+    private String from;
+
+    @Value("${chess.export.to:}")
+    private String to;
+
+    @Autowired
+    private PgnExportService pgnExportService;
+
+    @Autowired
+    private ConfigurableApplicationContext context;
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        Path path = Path.of(file);
+        LocalDateTime start = from.isBlank() ? null : LocalDate.parse(from).atStartOfDay();
+        LocalDateTime end = to.isBlank() ? null : LocalDate.parse(to).plusDays(1).atStartOfDay();
+        logger.info("Exporting games as PGN to {}", path.toAbsolutePath());
+        long exported;
+        try (OutputStream out = Files.newOutputStream(path)) {
+            if (file.endsWith(".gz")) {
+                GZIPOutputStream compressed = new GZIPOutputStream(out, 64 * 1024);
+                exported = pgnExportService.export(compressed, player.isBlank() ? null : player, start, end);
+                compressed.finish();
+            } else {
+                exported = pgnExportService.export(out, player.isBlank() ? null : player, start, end);
+            }
+        }
+        logger.info("Wrote {} games to {}", exported, path.toAbsolutePath());
+        System.exit(SpringApplication.exit(context, () -> 0));
+    }
+}
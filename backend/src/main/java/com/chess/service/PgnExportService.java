@@ -0,0 +1,157 @@
+package com.chess.service;
+
+import com.chess.engine.Bitboards;
+import com.chess.engine.MoveGenerator;
+import com.chess.engine.Moves;
+import com.chess.engine.Piece;
+import com.chess.engine.Position;
+import com.chess.engine.San;
+import com.chess.model.Game;
+import com.chess.model.Move;
+import com.chess.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Writes the game archive as PGN. Games and their moves come from one forward-only cursor
+ * ({@link MoveStorage#forEachGame}) and each game is written and dropped from the persistence
+ * context before the next one is read, so memory stays flat however large the archive is.
+ */
+@Service
+public class PgnExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PgnExportService.class);
+
+    private static final DateTimeFormatter PGN_DATE = DateTimeFormatter.ofPattern("yyyy.MM.dd");
+    private static final int LINE_LENGTH = 80;
+
+    @Autowired
+    private MoveStorage moveStorage;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Writes every game with at least one move, filtered by player username and by creation time
+     * (from inclusive, to exclusive; null disables a filter), and returns the number of games written.
+     * The stream is flushed but not closed.
+     */
+    @Transactional(readOnly = true)
+    public long export(OutputStream out, String player, LocalDateTime from, LocalDateTime to) {
+        long started = System.currentTimeMillis();
+        long[] exported = { 0 };
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        moveStorage.forEachGame(player, from, to, (game, moves) -> {
+            String pgn = toPgn(game, moves);
+            // The game is written, its entities are no longer needed
+            entityManager.clear();
+            if (pgn == null) {
+                return;
+            }
+            try {
+                writer.write(pgn);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            exported[0]++;
+        });
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        logger.info("Exported {} games as PGN in {} ms (player: {}, from: {}, to: {})",
+                    exported[0], System.currentTimeMillis() - started, player, from, to);
+        return exported[0];
+    }
+
+    /**
+     * PGN of one game, or null when its stored moves are not legal
+     */
+    static String toPgn(Game game, List<Move> moves) {
+        String result = game.getResult() != null ? game.getResult() : "*";
+        StringBuilder pgn = new StringBuilder(256 + moves.size() * 8);
+        appendTag(pgn, "Event", "ChessGame");
+        appendTag(pgn, "Site", "?");
+        appendTag(pgn, "Date", game.getCreatedAt() != null ? PGN_DATE.format(game.getCreatedAt()) : "????.??.??");
+        appendTag(pgn, "Round", "-");
+        appendTag(pgn, "White", playerName(game.getWhitePlayer()));
+        appendTag(pgn, "Black", playerName(game.getBlackPlayer()));
+        appendTag(pgn, "Result", result);
+        appendTag(pgn, "GameId", String.valueOf(game.getId()));
+        if (game.getEndReason() != null) {
+            appendTag(pgn, "Termination", game.getEndReason().name());
+        }
+        pgn.append('\n');
+
+        Position position = Position.startingPosition();
+        int lineStart = pgn.length();
+        for (Move move : moves) {
+            int legalMove = MoveGenerator.findLegalMove(position,
+                    Bitboards.parseSquare(move.getFromPosition()), Bitboards.parseSquare(move.getToPosition()),
+                    Piece.parseType(move.getPromotion()));
+            if (legalMove == Moves.NONE) {
+                logger.warn("Skipping game {} in PGN export: move {} is not legal", game.getId(), move.getMoveNumber());
+                return null;
+            }
+            StringBuilder token = new StringBuilder(24);
+            if (position.sideToMove() == Piece.WHITE) {
+                token.append(position.fullmoveNumber()).append(". ");
+            } else if (move == moves.get(0)) {
+                token.append(position.fullmoveNumber()).append("... ");
+            }
+            token.append(San.format(position, legalMove));
+            if (move.getAnnotation() != null) {
+                token.append(move.getAnnotation() == Move.Annotation.BLUNDER ? " $4" : " $2");
+            }
+            if (move.getEvaluation() != null) {
+                token.append(String.format(Locale.ROOT, " {[%%eval %.2f]}", move.getEvaluation() / 100.0));
+            }
+            lineStart = appendToken(pgn, token, lineStart);
+            position.makeMove(legalMove);
+        }
+        appendToken(pgn, new StringBuilder(result), lineStart);
+        return pgn.append("\n\n").toString();
+    }
+
+    /**
+     * Appends a movetext token, starting a new line past the PGN export line length
+     */
+    private static int appendToken(StringBuilder pgn, CharSequence token, int lineStart) {
+        if (pgn.length() > lineStart && pgn.length() - lineStart + 1 + token.length() > LINE_LENGTH) {
+            pgn.append('\n');
+            lineStart = pgn.length();
+        } else if (pgn.length() > lineStart) {
+            pgn.append(' ');
+        }
+        pgn.append(token);
+        return lineStart;
+    }
+
+    private static void appendTag(StringBuilder pgn, String name, String value) {
+        pgn.append('[').append(name).append(" \"")
+           .append(value.replace("\\", "\\\\").replace("\"", "\\\""))
+           .append("\"]\n");
+    }
+
+    private static String playerName(User player) {
+        return player != null ? player.getUsername() : "?";
+    }
+}
@@ -0,0 +1,47 @@
+package com.chess.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Command-line PGN import: started with {@code --chess.import.file=games.pgn}, and
+ * {@code --chess.import.offset=<bytes>} to resume an interrupted run, it imports the file and exits.
+ */
+@Component
+@ConditionalOnProperty(name = "chess.import.file")
+public class PgnImportRunner implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(PgnImportRunner.class);
+
+    @Value("${chess.import.file}")
+    private String file;
+
+    @Value("${chess.import.offset:0}")
+    private long offset;
+
+    @Autowired
+    private PgnImportService pgnImportService;
+
+    @Autowired
+    private ConfigurableApplicationContext context;
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        PgnImportService.ImportResult result = pgnImportService.importFile(Path.of(file), offset);
+        logger.info("Import finished: {} games, {} rejected, {} games/s, end offset {}",
+                    result.games(), result.rejected(),
+                    result.millis() > 0 ? result.games() * 1000 / result.millis() : result.games(), result.nextOffset());
+        System.exit(SpringApplication.exit(context, () -> 0));
+    }
+}
@@ -0,0 +1,488 @@
+package com.chess.service;
+
+import com.chess.engine.Bitboards;
+import com.chess.engine.MoveGenerator;
+import com.chess.engine.Moves;
+import com.chess.engine.Piece;
+import com.chess.engine.Position;
+import com.chess.engine.PositionHistory;
+import com.chess.engine.San;
+import com.chess.model.Game;
+import com.chess.model.GameCheckpoint;
+import com.chess.model.Move;
+import com.chess.model.User;
+import com.chess.repository.GameCheckpointRepository;
+import com.chess.repository.GameRepository;
+import com.chess.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Bulk PGN import. The file is read sequentially from a byte offset and cut into chunks of whole
+ * games; chunks are parsed, and their SAN checked against the move generator, on a fork-join pool
+ * while the calling thread keeps reading. Parsed chunks are written in file order, each in one
+ * transaction of batched inserts, and the offset after the last committed chunk is logged so an
+ * interrupted import can resume from there.
+ */
+@Service
+public class PgnImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PgnImportService.class);
+
+    private static final DateTimeFormatter PGN_DATE = DateTimeFormatter.ofPattern("yyyy.MM.dd");
+    private static final int READ_BUFFER = 1 << 20;
+    private static final long PROGRESS_MILLIS = 5000;
+
+    // Not a BCrypt hash: players created by an import cannot log in
+    private static final String IMPORTED_PASSWORD = "!imported";
+
+    // Player ids kept between chunks; cleared when it grows past this
+    private static final int PLAYER_CACHE_SIZE = 100_000;
+
+    // 0 means one parser per core
+    @Value("${chess.import.threads:0}")
+    private int threads;
+
+    // Games per parse task and per insert transaction
+    @Value("${chess.import.chunk-games:500}")
+    private int chunkGames;
+
+    // Chunks read ahead of the writer; 0 means twice the parser count
+    @Value("${chess.import.window:0}")
+    private int window;
+
+    @Value("${chess.game.checkpoint-interval:16}")
+    private int checkpointInterval;
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private GameCheckpointRepository gameCheckpointRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private MoveStorage moveStorage;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private ForkJoinPool pool;
+    private final Map<String, User> players = new HashMap<>();
+
+    /**
+     * Outcome of an import; nextOffset is where the next game of the file starts
+     */
+    public record ImportResult(long games, long rejected, long nextOffset, long millis) {}
+
+    // Checkpoints get their game id once the game is saved
+    private record ParsedGame(Game game, List<Move> moves, List<GameCheckpoint> checkpoints, String white, String black) {}
+
+    private record ParsedChunk(List<ParsedGame> games, int rejected, long endOffset) {}
+
+    @PostConstruct
+    public void startPool() {
+        if (threads <= 0) {
+            threads = Runtime.getRuntime().availableProcessors();
+        }
+        if (window <= 0) {
+            window = 2 * threads;
+        }
+        pool = new ForkJoinPool(threads);
+    }
+
+    @PreDestroy
+    public void stopPool() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Imports the games of a PGN file starting at the given byte offset, which must be 0 or the start of a game
+     */
+    public synchronized ImportResult importFile(Path file, long offset) throws IOException {
+        long started = System.currentTimeMillis();
+        long[] totals = { 0, 0 };
+        long[] progress = { offset, started, started };
+        Deque<ForkJoinTask<ParsedChunk>> inFlight = new ArrayDeque<>();
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            channel.position(offset);
+            InputStream in = Channels.newInputStream(channel);
+            byte[] buffer = new byte[READ_BUFFER];
+            GameBuffer game = new GameBuffer();
+            List<String> chunk = new ArrayList<>(chunkGames);
+            long position = offset;
+            boolean lineStart = true;
+            boolean inMovetext = false;
+
+            for (int read; (read = in.read(buffer)) > 0; ) {
+                int segment = 0;
+                for (int i = 0; i < read; i++) {
+                    byte b = buffer[i];
+                    if (lineStart && b == '[' && inMovetext) {
+                        // A tag line after movetext starts the next game
+                        game.append(buffer, segment, i - segment);
+                        segment = i;
+                        chunk.add(game.take());
+                        inMovetext = false;
+                        if (chunk.size() == chunkGames) {
+                            submit(inFlight, chunk, position + i, totals, progress);
+                            chunk = new ArrayList<>(chunkGames);
+                        }
+                    } else if (lineStart && b != '[' && b != '\n' && b != '\r' && b != ' ' && b != '\t') {
+                        inMovetext = true;
+                    }
+                    lineStart = b == '\n';
+                }
+                game.append(buffer, segment, read - segment);
+                position += read;
+            }
+            String last = game.take();
+            if (!last.isBlank()) {
+                chunk.add(last);
+            }
+            if (!chunk.isEmpty()) {
+                submit(inFlight, chunk, position, totals, progress);
+            }
+            while (!inFlight.isEmpty()) {
+                write(inFlight.poll().join(), totals, progress);
+            }
+        } finally {
+            // Parse results not yet written are dropped; the logged offset is where to resume
+            inFlight.forEach(task -> task.cancel(true));
+        }
+
+        long millis = System.currentTimeMillis() - started;
+        logger.info("Imported {} games from {} ({} rejected) in {} ms, {} games/s",
+                    totals[0], file, totals[1], millis, millis > 0 ? totals[0] * 1000 / millis : totals[0]);
+        return new ImportResult(totals[0], totals[1], progress[0], millis);
+    }
+
+    private void submit(Deque<ForkJoinTask<ParsedChunk>> inFlight, List<String> chunk, long endOffset,
+                        long[] totals, long[] progress) {
+        inFlight.add(pool.submit(() -> parseChunk(chunk, endOffset)));
+        while (inFlight.size() > window) {
+            write(inFlight.poll().join(), totals, progress);
+        }
+    }
+
+    private ParsedChunk parseChunk(List<String> texts, long endOffset) {
+        List<ParsedGame> games = new ArrayList<>(texts.size());
+        int rejected = 0;
+        for (String text : texts) {
+            ParsedGame game = parseGame(text);
+            if (game != null) {
+                games.add(game);
+            } else {
+                rejected++;
+            }
+        }
+        return new ParsedChunk(games, rejected, endOffset);
+    }
+
+    /**
+     * Inserts one chunk in a single transaction; with sequence ids the games and moves go out as JDBC batches
+     */
+    private void write(ParsedChunk chunk, long[] totals, long[] progress) {
+        // Players created in this chunk's transaction, known to other chunks only once it commits
+        Map<String, User> created = new HashMap<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Game> games = new ArrayList<>(chunk.games().size());
+            List<Move> moves = new ArrayList<>();
+            List<GameCheckpoint> checkpoints = new ArrayList<>();
+            for (ParsedGame parsed : chunk.games()) {
+                Game game = parsed.game();
+                game.setWhitePlayer(player(parsed.white(), created));
+                game.setBlackPlayer(player(parsed.black(), created));
+                games.add(game);
+                for (Move move : parsed.moves()) {
+                    move.setGame(game);
+                    moves.add(move);
+                }
+            }
+            gameRepository.saveAll(games);
+            for (ParsedGame parsed : chunk.games()) {
+                for (GameCheckpoint checkpoint : parsed.checkpoints()) {
+                    checkpoint.setGameId(parsed.game().getId());
+                    checkpoints.add(checkpoint);
+                }
+            }
+            moveStorage.append(moves);
+            gameCheckpointRepository.saveAll(checkpoints);
+        });
+        if (players.size() + created.size() > PLAYER_CACHE_SIZE) {
+            players.clear();
+        }
+        players.putAll(created);
+        created.keySet().forEach(userCache::invalidate);
+        totals[0] += chunk.games().size();
+        totals[1] += chunk.rejected();
+        progress[0] = chunk.endOffset();
+
+        long now = System.currentTimeMillis();
+        if (now - progress[1] >= PROGRESS_MILLIS) {
+            progress[1] = now;
+            logger.info("Imported {} games ({} rejected), {} games/s, resume offset {}",
+                        totals[0], totals[1], totals[0] * 1000 / Math.max(1, now - progress[2]), progress[0]);
+        }
+    }
+
+    private User player(String username, Map<String, User> created) {
+        User player = players.get(username);
+        if (player == null) {
+            player = created.get(username);
+        }
+        if (player == null) {
+            Optional<User> existing = userRepository.findByUsername(username);
+            if (existing.isPresent()) {
+                player = existing.get();
+                if (players.size() >= PLAYER_CACHE_SIZE) {
+                    players.clear();
+                }
+                players.put(username, player);
+            } else {
+                player = userRepository.save(new User(username, IMPORTED_PASSWORD));
+                created.put(username, player);
+            }
+        }
+        return player;
+    }
+
+    /**
+     * Game and moves of one PGN game, or null when it has no moves, starts from a set-up position
+     * or contains a move that is not legal
+     */
+    ParsedGame parseGame(String text) {
+        Map<String, String> tags = new HashMap<>();
+        StringBuilder movetext = new StringBuilder(text.length());
+        for (String line : text.split("\n")) {
+            String trimmed = line.strip();
+            if (trimmed.startsWith("[")) {
+                int space = trimmed.indexOf(' ');
+                int open = trimmed.indexOf('"');
+                int close = trimmed.lastIndexOf('"');
+                if (space > 1 && open > space && close > open) {
+                    tags.put(trimmed.substring(1, space),
+                             trimmed.substring(open + 1, close).replace("\\\"", "\"").replace("\\\\", "\\"));
+                }
+            } else if (!trimmed.startsWith("%")) {
+                movetext.append(line).append('\n');
+            }
+        }
+        if (tags.containsKey("FEN")) {
+            return null;
+        }
+
+        LocalDateTime playedAt = parseDate(tags.get("Date"));
+        PositionHistory history = new PositionHistory();
+        List<GameCheckpoint> checkpoints = new ArrayList<>();
+        List<Move> moves = new ArrayList<>();
+        for (String token : tokens(movetext)) {
+            Position position = history.position();
+            int legalMove = San.parse(position, token);
+            if (legalMove == Moves.NONE) {
+                logger.debug("Rejected PGN game {} - {}: '{}' is not a legal move at ply {}",
+                             tags.get("White"), tags.get("Black"), token, moves.size() + 1);
+                return null;
+            }
+            int piece = position.pieceAt(Moves.from(legalMove));
+            Move move = new Move();
+            move.setMoveNumber(moves.size() + 1);
+            move.setPlayerColor(Piece.colorName(Piece.color(piece)));
+            move.setFromPosition(Bitboards.squareName(Moves.from(legalMove)));
+            move.setToPosition(Bitboards.squareName(Moves.to(legalMove)));
+            move.setPieceType(Piece.typeName(Piece.type(piece)));
+            move.setCapturedPiece(GameServiceImpl.capturedPieceName(position, legalMove));
+            if (Moves.isPromotion(legalMove)) {
+                move.setPromotion(Piece.typeName(Moves.promotionType(legalMove)));
+            }
+            move.setMoveNotation(MoveNotation.generate(move.getFromPosition(), move.getToPosition(), move.getPieceType()));
+            move.setCreatedAt(playedAt);
+            moves.add(move);
+            history.play(legalMove);
+            if (moves.size() % checkpointInterval == 0) {
+                checkpoints.add(new GameCheckpoint(null, moves.size(), history.position().toFen()));
+            }
+        }
+        if (moves.isEmpty()) {
+            return null;
+        }
+
+        Position end = history.position();
+        String result = tags.getOrDefault("Result", "*");
+        Game.EndReason endReason = endReason(history, result);
+        Game game = new Game();
+        if (!result.equals("*")) {
+            game.setStatus(Game.GameStatus.FINISHED);
+            game.setResult(result);
+        } else if (endReason != null) {
+            // Unterminated tag on a mate or stalemate: the board says how it ended
+            game.setStatus(Game.GameStatus.FINISHED);
+            game.setResult(endReason == Game.EndReason.STALEMATE ? "1/2-1/2"
+                           : end.sideToMove() == Piece.WHITE ? "0-1" : "1-0");
+        } else {
+            // Unfinished or unknown outcome: kept, but not playable and not listed as active
+            game.setStatus(Game.GameStatus.PAUSED);
+        }
+        game.setEndReason(endReason);
+        game.setCurrentTurn(Piece.colorName(end.sideToMove()));
+        game.setPlyCount(moves.size());
+        game.setCurrentFen(end.toFen());
+        game.setCreatedAt(playedAt);
+        game.setUpdatedAt(playedAt);
+        return new ParsedGame(game, moves, checkpoints, playerName(tags.get("White")), playerName(tags.get("Black")));
+    }
+
+    /**
+     * SAN tokens of the main line: comments, variations, NAGs, move numbers and the result are skipped
+     */
+    private static List<String> tokens(CharSequence movetext) {
+        List<String> tokens = new ArrayList<>(128);
+        int depth = 0;
+        int i = 0;
+        int length = movetext.length();
+        while (i < length) {
+            char c = movetext.charAt(i);
+            if (c == '{') {
+                while (i < length && movetext.charAt(i) != '}') {
+                    i++;
+                }
+                i++;
+            } else if (c == ';') {
+                while (i < length && movetext.charAt(i) != '\n') {
+                    i++;
+                }
+            } else if (c == '(') {
+                depth++;
+                i++;
+            } else if (c == ')') {
+                depth--;
+                i++;
+            } else if (Character.isWhitespace(c)) {
+                i++;
+            } else {
+                int start = i;
+                while (i < length && !Character.isWhitespace(movetext.charAt(i))
+                        && "{;()".indexOf(movetext.charAt(i)) < 0) {
+                    i++;
+                }
+                if (depth == 0) {
+                    String token = stripMoveNumber(movetext.subSequence(start, i).toString());
+                    if (token.equals("1-0") || token.equals("0-1") || token.equals("1/2-1/2") || token.equals("*")) {
+                        break;
+                    }
+                    if (!token.isEmpty() && token.charAt(0) != '$') {
+                        tokens.add(token);
+                    }
+                }
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * "12.", "12..." and "12.e4" lose their move number; results and "0-0" are left alone
+     */
+    private static String stripMoveNumber(String token) {
+        if (token.isEmpty() || token.charAt(0) < '1' || token.charAt(0) > '9') {
+            return token;
+        }
+        int i = 0;
+        while (i < token.length() && Character.isDigit(token.charAt(i))) {
+            i++;
+        }
+        if (i == token.length() || token.charAt(i) != '.') {
+            return token;
+        }
+        while (i < token.length() && token.charAt(i) == '.') {
+            i++;
+        }
+        return token.substring(i);
+    }
+
+    private static Game.EndReason endReason(PositionHistory history, String result) {
+        Position position = history.position();
+        if (!MoveGenerator.hasLegalMove(position)) {
+            return position.inCheck() ? Game.EndReason.CHECKMATE : Game.EndReason.STALEMATE;
+        }
+        if (result.equals("1/2-1/2")) {
+            if (history.isThreefoldRepetition()) {
+                return Game.EndReason.THREEFOLD_REPETITION;
+            }
+            if (history.isFiftyMoveRule()) {
+                return Game.EndReason.FIFTY_MOVE_RULE;
+            }
+        }
+        return null;
+    }
+
+    private static LocalDateTime parseDate(String date) {
+        if (date != null) {
+            try {
+                return LocalDate.parse(date, PGN_DATE).atStartOfDay();
+            } catch (DateTimeParseException e) {
+                // Partly unknown dates such as "2024.??.??"
+            }
+        }
+        return LocalDateTime.now();
+    }
+
+    private static String playerName(String name) {
+        return name == null || name.isBlank() || name.equals("?") ? "unknown" : name;
+    }
+
+    /**
+     * Bytes of the game being read, reused from one game to the next
+     */
+    private static final class GameBuffer {
+        private byte[] bytes = new byte[8192];
+        private int length;
+
+        void append(byte[] source, int from, int count) {
+            if (length + count > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + count));
+            }
+            System.arraycopy(source, from, bytes, length, count);
+            length += count;
+        }
+
+        String take() {
+            String text = new String(bytes, 0, length, StandardCharsets.UTF_8);
+            length = 0;
+            return text;
+        }
+    }
+}
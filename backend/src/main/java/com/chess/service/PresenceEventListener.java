@@ -0,0 +1,43 @@
+package com.chess.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionConnectEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+/**
+ * Feeds {@link PresenceRegistry} from STOMP session events; the resulting changes reach other users
+ * through {@link UserNotificationService}. A disconnect is published for every session end, clean
+ * or not, heartbeat timeouts of the broker included.
+ */
+@Component
+public class PresenceEventListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(PresenceEventListener.class);
+
+    @Autowired
+    private PresenceRegistry presenceRegistry;
+
+    @EventListener
+    public void onConnect(SessionConnectEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        // The CONNECT header WebSocketConfig makes the principal of; read here since the event may
+        // come before the inbound channel has run its interceptor
+        String username = accessor.getFirstNativeHeader("username");
+        if (username == null || accessor.getSessionId() == null) {
+            return;
+        }
+        presenceRegistry.connect(username, accessor.getSessionId());
+        logger.debug("Session {} connected for {}, {} sessions", accessor.getSessionId(), username,
+                     presenceRegistry.sessions());
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        presenceRegistry.disconnect(event.getSessionId());
+    }
+}
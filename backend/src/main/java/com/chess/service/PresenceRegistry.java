@@ -0,0 +1,356 @@
+package com.chess.service;
+
+import com.chess.dto.UserDto;
+import com.chess.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Who is online, kept in memory: a user is online while they have at least one WebSocket session,
+ * or a REST login not yet followed by one. Several tabs or devices are several sessions, and the
+ * user goes offline when the last one disconnects, including sockets that drop without a logout.
+ * <ul>
+ *   <li>Expiry: every inbound frame, STOMP heartbeats included, touches its session. A session
+ *       silent for {@code chess.presence.session-timeout-seconds}, or a login whose WebSocket never
+ *       came within {@code chess.presence.login-timeout-seconds}, is dropped by an
+ *       {@link ExpiryWheel}: no task per session, and a tick only visits the sessions due.</li>
+ *   <li>Changes: users who came online or went offline are collected for
+ *       {@link UserNotificationService}, whichever path changed them.</li>
+ *   <li>The {@code is_online} column only follows: changes are written in the background every
+ *       {@code chess.presence.flush-ms}, latest value per user, and the column is cleared at startup
+ *       since no session survives a restart.</li>
+ * </ul>
+ */
+@Component
+public class PresenceRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(PresenceRegistry.class);
+
+    // Pseudo-sessions, followed by the username: a REST login until the first WebSocket session
+    // replaces it, and users shown online for good, such as the computer player
+    private static final String LOGIN_PREFIX = ":login:";
+    private static final String PINNED_PREFIX = ":pinned:";
+
+    // Usernames per UPDATE, well under SQL Server's 2100 parameters
+    private static final int UPDATE_CHUNK = 1000;
+
+    // One turn of the wheel spans the longest timeout at the default tick
+    private static final int WHEEL_SLOTS = 512;
+
+    @Value("${chess.presence.flush-ms:1000}")
+    private long flushMs;
+
+    @Value("${chess.presence.session-timeout-seconds:90}")
+    private long sessionTimeoutSeconds;
+
+    @Value("${chess.presence.login-timeout-seconds:120}")
+    private long loginTimeoutSeconds;
+
+    @Value("${chess.presence.expiry-tick-ms:1000}")
+    private long expiryTickMs;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private UserCache userCache;
+
+    // Only users with at least one session; a user's sessions are only touched inside compute on their key
+    private final ConcurrentMap<String, Presence> users = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, TrackedSession> sessions = new ConcurrentHashMap<>();
+    // Users who came online or went offline since the last takeChanged
+    private final Set<String> changed = ConcurrentHashMap.newKeySet();
+    // Online status not yet written to the database
+    private final ConcurrentMap<String, Boolean> pendingStatus = new ConcurrentHashMap<>();
+    private ExpiryWheel<TrackedSession> wheel;
+    private ScheduledExecutorService background;
+
+    private static final class Presence {
+        final Long id;
+        final String username;
+        final Set<String> sessions = new HashSet<>();
+
+        Presence(Long id, String username) {
+            this.id = id;
+            this.username = username;
+        }
+    }
+
+    private static final class TrackedSession implements ExpiryWheel.Expiring {
+        final String id;
+        final String username;
+        final long timeoutMillis;
+        volatile long lastSeenMillis = System.currentTimeMillis();
+
+        TrackedSession(String id, String username, long timeoutMillis) {
+            this.id = id;
+            this.username = username;
+            this.timeoutMillis = timeoutMillis;
+        }
+
+        @Override
+        public long deadlineMillis() {
+            return lastSeenMillis + timeoutMillis;
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        int cleared = transactionTemplate.execute(status -> userRepository.clearOnlineStatus());
+        if (cleared > 0) {
+            logger.info("Cleared the online status of {} users left by the previous run", cleared);
+        }
+        wheel = new ExpiryWheel<>(expiryTickMs, WHEEL_SLOTS, System.currentTimeMillis());
+        background = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "chess-presence");
+            thread.setDaemon(true);
+            return thread;
+        });
+        background.scheduleWithFixedDelay(this::flush, flushMs, flushMs, TimeUnit.MILLISECONDS);
+        background.scheduleAtFixedRate(this::expireSilent, expiryTickMs, expiryTickMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        background.shutdownNow();
+        flush();
+    }
+
+    /**
+     * Adds a WebSocket session; returns true if the user was offline until now
+     */
+    public boolean connect(String username, String sessionId) {
+        Long id = idOf(username);
+        if (id == null) {
+            logger.warn("WebSocket session {} claims unknown user {}", sessionId, username);
+            return false;
+        }
+        TrackedSession session = new TrackedSession(sessionId, username, TimeUnit.SECONDS.toMillis(sessionTimeoutSeconds));
+        sessions.put(sessionId, session);
+        boolean joined = join(id, username, sessionId);
+        wheel.schedule(session);
+        return joined;
+    }
+
+    /**
+     * Removes a WebSocket session; returns the user if it was their last one, null otherwise
+     */
+    public String disconnect(String sessionId) {
+        TrackedSession session = sessions.remove(sessionId);
+        if (session == null) {
+            return null;
+        }
+        return leave(session.username, sessionId) ? session.username : null;
+    }
+
+    /**
+     * Records activity on a session, pushing its expiry back
+     */
+    public void touch(String sessionId) {
+        TrackedSession session = sessions.get(sessionId);
+        if (session != null) {
+            session.lastSeenMillis = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Shows a user online after a REST login, until their WebSocket connects or the login times
+     * out; returns true if the user was offline until now
+     */
+    public boolean login(String username) {
+        Long id = idOf(username);
+        if (id == null) {
+            return false;
+        }
+        String sessionId = LOGIN_PREFIX + username;
+        // A newer login replaces the previous one, whose wheel entry then no longer matches
+        TrackedSession session = new TrackedSession(sessionId, username, TimeUnit.SECONDS.toMillis(loginTimeoutSeconds));
+        sessions.put(sessionId, session);
+        boolean joined = join(id, username, sessionId);
+        wheel.schedule(session);
+        return joined;
+    }
+
+    /**
+     * Shows a user online until logout, with no session to keep it alive
+     */
+    public boolean pin(String username) {
+        Long id = idOf(username);
+        return id != null && join(id, username, PINNED_PREFIX + username);
+    }
+
+    /**
+     * Takes the user offline whatever their sessions; returns true if they were online
+     */
+    public boolean logout(String username) {
+        boolean[] left = { false };
+        users.computeIfPresent(username, (name, presence) -> {
+            // Later disconnects of these sessions find nothing and are ignored
+            presence.sessions.forEach(sessions::remove);
+            left[0] = true;
+            statusChanged(name, false);
+            return null;
+        });
+        return left[0];
+    }
+
+    public boolean isOnline(String username) {
+        return users.containsKey(username);
+    }
+
+    /**
+     * The user if online, null otherwise
+     */
+    public UserDto onlineUser(String username) {
+        Presence presence = users.get(username);
+        return presence != null ? new UserDto(presence.id, presence.username, true) : null;
+    }
+
+    /**
+     * Online users sorted by name
+     */
+    public List<UserDto> onlineUsers() {
+        List<UserDto> online = new ArrayList<>(users.size());
+        for (Presence presence : users.values()) {
+            online.add(new UserDto(presence.id, presence.username, true));
+        }
+        online.sort(Comparator.comparing(UserDto::getUsername));
+        return online;
+    }
+
+    /**
+     * Users who came online or went offline since the previous call. Each is removed before it is
+     * returned, so a change made while the caller reads their state is reported again next time.
+     */
+    public List<String> takeChanged() {
+        List<String> taken = new ArrayList<>();
+        for (Iterator<String> it = changed.iterator(); it.hasNext(); ) {
+            taken.add(it.next());
+            it.remove();
+        }
+        return taken;
+    }
+
+    public int sessions() {
+        return sessions.size();
+    }
+
+    private boolean join(Long id, String username, String sessionId) {
+        boolean[] joined = { false };
+        users.compute(username, (name, presence) -> {
+            if (presence == null) {
+                presence = new Presence(id, name);
+                joined[0] = true;
+                statusChanged(name, true);
+            }
+            if (!sessionId.startsWith(LOGIN_PREFIX) && presence.sessions.remove(LOGIN_PREFIX + name)) {
+                sessions.remove(LOGIN_PREFIX + name);
+            }
+            presence.sessions.add(sessionId);
+            return presence;
+        });
+        return joined[0];
+    }
+
+    private boolean leave(String username, String sessionId) {
+        boolean[] left = { false };
+        users.computeIfPresent(username, (name, presence) -> {
+            presence.sessions.remove(sessionId);
+            if (presence.sessions.isEmpty()) {
+                left[0] = true;
+                statusChanged(name, false);
+                return null;
+            }
+            return presence;
+        });
+        return left[0];
+    }
+
+    /**
+     * Called inside compute, so the latest status queued for a user is always the current one
+     */
+    private void statusChanged(String username, boolean online) {
+        pendingStatus.put(username, online);
+        changed.add(username);
+    }
+
+    private Long idOf(String username) {
+        Presence presence = users.get(username);
+        if (presence != null) {
+            return presence.id;
+        }
+        return userCache.find(username).map(UserCache.CachedUser::id).orElse(null);
+    }
+
+    private void expireSilent() {
+        try {
+            wheel.advance(System.currentTimeMillis(), session -> {
+                // Only if still registered: a disconnected or replaced session is just dropped
+                if (sessions.remove(session.id, session)) {
+                    leave(session.username, session.id);
+                    logger.info("Session {} of {} expired after {} s without a frame", session.id, session.username,
+                                session.timeoutMillis / 1000);
+                }
+            });
+        } catch (RuntimeException e) {
+            logger.error("Presence expiry failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Writes the queued status changes: one UPDATE per status and chunk, not one per user
+     */
+    private void flush() {
+        if (pendingStatus.isEmpty()) {
+            return;
+        }
+        List<String> online = new ArrayList<>();
+        List<String> offline = new ArrayList<>();
+        Map<String, Boolean> taken = new HashMap<>();
+        for (String username : pendingStatus.keySet()) {
+            Boolean status = pendingStatus.remove(username);
+            if (status != null) {
+                taken.put(username, status);
+                (status ? online : offline).add(username);
+            }
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int i = 0; i < online.size(); i += UPDATE_CHUNK) {
+                    userRepository.updateOnlineStatus(online.subList(i, Math.min(online.size(), i + UPDATE_CHUNK)), true);
+                }
+                for (int i = 0; i < offline.size(); i += UPDATE_CHUNK) {
+                    userRepository.updateOnlineStatus(offline.subList(i, Math.min(offline.size(), i + UPDATE_CHUNK)), false);
+                }
+            });
+            logger.debug("Online status written: {} online, {} offline", online.size(), offline.size());
+        } catch (RuntimeException e) {
+            logger.warn("Cannot write the online status of {} users, retrying: {}", taken.size(), e.getMessage());
+            // A newer change queued meanwhile wins
+            taken.forEach(pendingStatus::putIfAbsent);
+        }
+    }
+}
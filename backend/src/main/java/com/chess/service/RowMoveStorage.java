@@ -0,0 +1,105 @@
+package com.chess.service;
+
+import com.chess.model.Game;
+import com.chess.model.Move;
+import com.chess.repository.GameRepository;
+import com.chess.repository.MoveRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+
+/**
+ * One {@link Move} row per ply, inserted in JDBC batches
+ */
+@Component
+@ConditionalOnProperty(name = "chess.game.move-storage", havingValue = "rows", matchIfMissing = true)
+public class RowMoveStorage implements MoveStorage {
+    
+    @Autowired
+    private MoveRepository moveRepository;
+    
+    @Autowired
+    private GameRepository gameRepository;
+    
+    @Override
+    public Optional<StoredGame> findGame(Long gameId) {
+        return gameRepository.findWithMovesById(gameId).map(game -> new StoredGame(game, game.getMoves()));
+    }
+    
+    @Override
+    public List<Move> findMoves(Long gameId) {
+        return moveRepository.findByGameIdOrderByMoveNumberAsc(gameId);
+    }
+    
+    @Override
+    public List<Move> findMoves(Long gameId, int first, int last) {
+        return moveRepository.findByGameIdAndMoveNumberBetweenOrderByMoveNumberAsc(gameId, first, last);
+    }
+    
+    @Override
+    public List<Move> findMovesAfter(Long gameId, int moveNumber) {
+        return moveRepository.findByGameIdAndMoveNumberGreaterThanOrderByMoveNumberAsc(gameId, moveNumber);
+    }
+    
+    @Override
+    public void append(List<Move> moves) {
+        moveRepository.saveAll(moves);
+    }
+    
+    /**
+     * The moves given were read outside this transaction: saving them would merge each with a query
+     * of its own, so the rows are read again in one query and updated in place
+     */
+    @Override
+    public void saveAnalysis(Game game, List<Move> moves) {
+        Map<Integer, Move> analyzed = new HashMap<>();
+        for (Move move : moves) {
+            analyzed.put(move.getMoveNumber(), move);
+        }
+        // Dirty checking writes the changed rows as one JDBC batch at commit
+        for (Move stored : moveRepository.findByGameIdOrderByMoveNumberAsc(game.getId())) {
+            Move move = analyzed.get(stored.getMoveNumber());
+            if (move != null) {
+                stored.setEvaluation(move.getEvaluation());
+                stored.setAnnotation(move.getAnnotation());
+            }
+        }
+    }
+    
+    @Override
+    public void forEachGame(String player, LocalDateTime from, LocalDateTime to, BiConsumer<Game, List<Move>> action) {
+        try (Stream<Move> moves = moveRepository.streamForExport(player, from, to)) {
+            forEachGame(moves, action);
+        }
+    }
+    
+    /**
+     * Groups a cursor of moves ordered by game and move number into one call per game
+     */
+    static void forEachGame(Stream<Move> moves, BiConsumer<Game, List<Move>> action) {
+        Game game = null;
+        List<Move> gameMoves = new ArrayList<>();
+        for (Iterator<Move> it = moves.iterator(); it.hasNext(); ) {
+            Move move = it.next();
+            if (game != null && !game.getId().equals(move.getGame().getId())) {
+                action.accept(game, gameMoves);
+                gameMoves = new ArrayList<>();
+            }
+            game = move.getGame();
+            gameMoves.add(move);
+        }
+        if (game != null) {
+            action.accept(game, gameMoves);
+        }
+    }
+}
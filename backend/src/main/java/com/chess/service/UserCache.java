@@ -0,0 +1,133 @@
+package com.chess.service;
+
+import com.chess.model.User;
+import com.chess.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read-through cache of user ids by username, for the lobby and game paths that only need to know
+ * who a player is: the active game and history of a user, presence. At most
+ * {@code chess.user-cache.max-size} users, least recently used evicted first, each kept
+ * {@code chess.user-cache.ttl-seconds} after being loaded. Unknown usernames are not cached, so a
+ * user registered meanwhile is found on the next lookup.
+ * <p>
+ * Only the id and username are kept, never the password hash: authentication still reads the
+ * database. Creating or updating a user goes through {@link #invalidate}.
+ */
+@Component
+public class UserCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserCache.class);
+
+    @Value("${chess.user-cache.max-size:10000}")
+    private int maxSize;
+
+    @Value("${chess.user-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    /**
+     * Identity of a user as cached
+     */
+    public record CachedUser(Long id, String username) {
+
+        /**
+         * A detached user carrying the id and username only, to reference a player in a query; not to
+         * be saved nor shown
+         */
+        public User toReference() {
+            User user = new User();
+            user.setId(id);
+            user.setUsername(username);
+            return user;
+        }
+    }
+
+    /**
+     * Counters since startup, with the current size
+     */
+    public record Stats(int size, int maxSize, long hits, long misses, long evictions, long expirations) {
+
+        public double hitRate() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0.0 : (double) hits / lookups;
+        }
+    }
+
+    private record Entry(CachedUser user, long loadedAtMillis) {}
+
+    // Access order, eldest evicted past maxSize; everything below is guarded by this
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            if (size() > maxSize) {
+                evictions++;
+                return true;
+            }
+            return false;
+        }
+    };
+    // Bumped by every invalidation, so a load that raced with one is not stored
+    private long invalidations;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+
+    /**
+     * The user from the cache, or from the database on a miss or once expired
+     */
+    public Optional<CachedUser> find(String username) {
+        long generation;
+        synchronized (this) {
+            Entry entry = entries.get(username);
+            if (entry != null) {
+                if (System.currentTimeMillis() - entry.loadedAtMillis < TimeUnit.SECONDS.toMillis(ttlSeconds)) {
+                    hits++;
+                    return Optional.of(entry.user);
+                }
+                entries.remove(username);
+                expirations++;
+            }
+            misses++;
+            generation = invalidations;
+        }
+
+        // Outside the lock: concurrent misses on one username may both read, and store the same row
+        Optional<CachedUser> loaded = userRepository.findByUsername(username)
+            .map(user -> new CachedUser(user.getId(), user.getUsername()));
+        loaded.ifPresent(user -> {
+            synchronized (this) {
+                if (invalidations == generation) {
+                    entries.put(username, new Entry(user, System.currentTimeMillis()));
+                }
+            }
+        });
+        return loaded;
+    }
+
+    /**
+     * Drops a user, to be read again from the database on the next lookup
+     */
+    public synchronized void invalidate(String username) {
+        invalidations++;
+        if (entries.remove(username) != null) {
+            logger.debug("User {} invalidated in the cache", username);
+        }
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(entries.size(), maxSize, hits, misses, evictions, expirations);
+    }
+}
@@ -1,67 +1,111 @@
 package com.chess.service;
 
 import com.chess.dto.GameMessage;
+import com.chess.dto.PresenceDeltaDto;
+import com.chess.dto.PresenceSnapshotDto;
 import com.chess.dto.UserDto;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Presence broadcasts on /topic/users. Every {@code chess.presence.broadcast-ms} one PRESENCE message
+ * carries the net change since the previous one (users who joined, usernames that left), as
+ * collected by {@link PresenceRegistry} from logins, logouts, sessions and expiry, under the next
+ * version number. A login storm costs one message per tick sized by the churn, not one full list
+ * of online users per login.
+ * <p>
+ * Clients start from {@link #presenceSnapshot()} and apply deltas in version order; a gap in the
+ * versions means a lost message and a reload of the snapshot.
+ */
 @Service
 public class UserNotificationService {
-    
+
     private static final Logger logger = LoggerFactory.getLogger(UserNotificationService.class);
-    
+
+    @Value("${chess.presence.broadcast-ms:250}")
+    private long broadcastMs;
+
     @Autowired
     private SimpMessagingTemplate messagingTemplate;
-    
+
     @Autowired
-    private UserServiceInterface userService;
-    
-    /**
-     * Notifie tous les utilisateurs connectés qu'un utilisateur s'est connecté
-     */
-    public void notifyUserOnline(String username) {
-        logger.info("Notifying all users that {} is now online", username);
-        
-        try {
-            List<UserDto> onlineUsers = userService.getOnlineUsers();
-            
-            GameMessage notification = new GameMessage("USER_ONLINE", "system", "all");
-            notification.setContent(username);
-            notification.setData(onlineUsers);
-            
-            // Envoyer à tous les utilisateurs connectés
-            messagingTemplate.convertAndSend("/topic/users", notification);
-            
-            logger.info("User online notification sent for: {}", username);
-        } catch (Exception e) {
-            logger.error("Failed to send user online notification for {}: {}", username, e.getMessage());
-        }
+    private PresenceRegistry presenceRegistry;
+
+    // Online users as announced to subscribers, at version; guarded by this
+    private final Map<String, UserDto> announced = new HashMap<>();
+    private long version;
+    private ScheduledExecutorService ticker;
+
+    @PostConstruct
+    public void startTicker() {
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "chess-presence-broadcast");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleWithFixedDelay(this::broadcastChanges, broadcastMs, broadcastMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stopTicker() {
+        ticker.shutdownNow();
     }
-    
+
     /**
-     * Notifie tous les utilisateurs connectés qu'un utilisateur s'est déconnecté
+     * Online users as announced, with the version of the last delta sent
      */
-    public void notifyUserOffline(String username) {
-        logger.info("Notifying all users that {} is now offline", username);
-        
+    public synchronized PresenceSnapshotDto presenceSnapshot() {
+        List<UserDto> users = new ArrayList<>(announced.values());
+        users.sort(Comparator.comparing(UserDto::getUsername));
+        return new PresenceSnapshotDto(version, users);
+    }
+
+    private void broadcastChanges() {
         try {
-            List<UserDto> onlineUsers = userService.getOnlineUsers();
-            
-            GameMessage notification = new GameMessage("USER_OFFLINE", "system", "all");
-            notification.setContent(username);
-            notification.setData(onlineUsers);
-            
-            // Envoyer à tous les utilisateurs connectés
-            messagingTemplate.convertAndSend("/topic/users", notification);
-            
-            logger.info("User offline notification sent for: {}", username);
+            List<String> changed = presenceRegistry.takeChanged();
+            if (changed.isEmpty()) {
+                return;
+            }
+            synchronized (this) {
+                List<UserDto> joined = new ArrayList<>();
+                List<String> left = new ArrayList<>();
+                for (String username : changed) {
+                    UserDto online = presenceRegistry.onlineUser(username);
+                    if (online != null && announced.putIfAbsent(username, online) == null) {
+                        joined.add(online);
+                    } else if (online == null && announced.remove(username) != null) {
+                        left.add(username);
+                    }
+                }
+                // A login and logout within one tick cancel out
+                if (joined.isEmpty() && left.isEmpty()) {
+                    return;
+                }
+
+                GameMessage notification = new GameMessage("PRESENCE", "system", "all");
+                notification.setData(new PresenceDeltaDto(++version, joined, left));
+                // Sent under the lock so that versions reach the broker in order
+                messagingTemplate.convertAndSend("/topic/users", notification);
+                logger.info("Presence version {} sent: {} joined, {} left, {} online",
+                           version, joined.size(), left.size(), announced.size());
+            }
         } catch (Exception e) {
-            logger.error("Failed to send user offline notification for {}: {}", username, e.getMessage());
+            logger.error("Failed to send presence changes: {}", e.getMessage(), e);
         }
     }
-}
\ No newline at end of file
+}
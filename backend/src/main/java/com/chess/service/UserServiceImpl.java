@@ -7,12 +7,14 @@ import com.chess.repository.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 @Transactional
@@ -26,6 +28,15 @@ public class UserServiceImpl implements UserServiceInterface {
     @Autowired
     private PasswordEncoder passwordEncoder;
     
+    @Autowired
+    private PresenceRegistry presenceRegistry;
+    
+    @Autowired
+    private UserCache userCache;
+    
+    @Autowired
+    private PasswordHasher passwordHasher;
+    
     @Override
     public UserDto createUser(String username, String password) {
         logger.info("Creating new user: {}", username);
@@ -34,52 +45,63 @@ public class UserServiceImpl implements UserServiceInterface {
             throw new UserAlreadyExistsException("Username already exists: " + username);
         }
         
-        User user = new User();
-        user.setUsername(username);
-        user.setPassword(passwordEncoder.encode(password));
-        user.setOnline(false);
+        return saveUser(username, passwordEncoder.encode(password));
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CompletableFuture<UserDto> createUserAsync(String username, String password) {
+        logger.info("Creating new user: {}", username);
         
-        User savedUser = userRepository.save(user);
-        logger.info("User created successfully: {}", savedUser.getUsername());
+        // Checked before hashing, so a taken name costs no hashing slot
+        if (userRepository.existsByUsername(username)) {
+            return CompletableFuture.failedFuture(new UserAlreadyExistsException("Username already exists: " + username));
+        }
         
-        return new UserDto(savedUser);
+        // The INSERT runs off the hashing threads
+        return passwordHasher.encode(password)
+            .thenApplyAsync(encoded -> saveUser(username, encoded), passwordHasher.ioExecutor());
     }
     
     @Override
-    @Transactional(readOnly = true)
-    public Optional<UserDto> authenticate(String username, String password) {
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CompletableFuture<Optional<UserDto>> authenticateAsync(String username, String password) {
         logger.debug("Authenticating user: {}", username);
         
         Optional<User> userOpt = userRepository.findByUsername(username);
-        if (userOpt.isPresent() && passwordEncoder.matches(password, userOpt.get().getPassword())) {
-            logger.info("User authenticated successfully: {}", username);
-            return Optional.of(new UserDto(userOpt.get()));
+        if (userOpt.isEmpty()) {
+            logger.warn("Authentication failed for user: {}", username);
+            return CompletableFuture.completedFuture(Optional.empty());
         }
         
-        logger.warn("Authentication failed for user: {}", username);
-        return Optional.empty();
+        User user = userOpt.get();
+        return passwordHasher.matches(password, user.getPassword()).thenApply(matches -> {
+            if (matches) {
+                logger.info("User authenticated successfully: {}", username);
+                return Optional.of(new UserDto(user));
+            }
+            logger.warn("Authentication failed for user: {}", username);
+            return Optional.empty();
+        });
     }
     
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void setUserOnline(String username, boolean online) {
         logger.debug("Setting user {} online status to: {}", username, online);
         
-        userRepository.findByUsername(username).ifPresent(user -> {
-            user.setOnline(online);
-            userRepository.save(user);
+        // In memory; the registry writes the column in the background
+        boolean changed = online ? presenceRegistry.login(username) : presenceRegistry.logout(username);
+        if (changed) {
             logger.info("User {} online status updated to: {}", username, online);
-        });
+        }
     }
     
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<UserDto> getOnlineUsers() {
         logger.debug("Getting all online users");
-        
-        List<User> onlineUsers = userRepository.findByIsOnlineTrue();
-        return onlineUsers.stream()
-                         .map(UserDto::new)
-                         .collect(Collectors.toList());
+        return presenceRegistry.onlineUsers();
     }
     
     @Override
@@ -88,4 +110,33 @@ public class UserServiceImpl implements UserServiceInterface {
         logger.debug("Finding user by username: {}", username);
         return userRepository.findByUsername(username);
     }
+    
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Optional<UserCache.CachedUser> findUserRef(String username) {
+        // A hit needs no connection; only a miss reads the database
+        return userCache.find(username);
+    }
+    
+    private UserDto saveUser(String username, String encodedPassword) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword(encodedPassword);
+        user.setOnline(false);
+        
+        User savedUser;
+        try {
+            savedUser = userRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            // Registered by someone else since the existence check; any other violation is a real error
+            if (userRepository.existsByUsername(username)) {
+                throw new UserAlreadyExistsException("Username already exists: " + username);
+            }
+            throw e;
+        }
+        userCache.invalidate(username);
+        logger.info("User created successfully: {}", savedUser.getUsername());
+        
+        return new UserDto(savedUser);
+    }
 }
\ No newline at end of file
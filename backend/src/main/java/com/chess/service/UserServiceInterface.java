@@ -4,6 +4,7 @@ import com.chess.dto.UserDto;
 import com.chess.model.User;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 public interface UserServiceInterface {
     
@@ -13,9 +14,14 @@ public interface UserServiceInterface {
     UserDto createUser(String username, String password);
     
     /**
-     * Authentifie un utilisateur
+     * Crée un nouveau utilisateur, le hachage du mot de passe passant par le pool dédié
      */
-    Optional<UserDto> authenticate(String username, String password);
+    CompletableFuture<UserDto> createUserAsync(String username, String password);
+    
+    /**
+     * Authentifie un utilisateur, la vérification du mot de passe passant par le pool dédié
+     */
+    CompletableFuture<Optional<UserDto>> authenticateAsync(String username, String password);
     
     /**
      * Met à jour le statut en ligne d'un utilisateur
@@ -31,4 +37,9 @@ public interface UserServiceInterface {
      * Trouve un utilisateur par son nom d'utilisateur
      */
     Optional<User> findByUsername(String username);
+    
+    /**
+     * Identité d'un utilisateur (id et nom seulement), via le cache
+     */
+    Optional<UserCache.CachedUser> findUserRef(String username);
 }
\ No newline at end of file
@@ -0,0 +1,43 @@
+package com.chess.engine;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Move generator against the published perft node counts (chessprogramming.org "Perft Results"),
+ * at the same positions and depths as the PerftBenchmark check.
+ */
+class PerftTest {
+
+    private static long perft(String fen, int depth) {
+        return Perft.perft(Position.fromFen(fen), depth);
+    }
+
+    @Test
+    void startPosition() {
+        assertEquals(4_865_609L, perft("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1", 5));
+    }
+
+    @Test
+    void kiwipete() {
+        // Castling through and out of check, en passant, promotions
+        assertEquals(4_085_603L, perft("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1", 4));
+    }
+
+    @Test
+    void position3() {
+        // Discovered and horizontal en passant checks in a rook endgame
+        assertEquals(674_624L, perft("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1", 5));
+    }
+
+    @Test
+    void position4() {
+        assertEquals(422_333L, perft("r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1", 4));
+    }
+
+    @Test
+    void position5() {
+        assertEquals(2_103_487L, perft("rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8", 4));
+    }
+}
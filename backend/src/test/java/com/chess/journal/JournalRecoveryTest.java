@@ -0,0 +1,111 @@
+package com.chess.journal;
+
+import com.chess.repository.GameRepository;
+import com.chess.service.GameServiceInterface;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class JournalRecoveryTest {
+
+    @Mock
+    private MoveJournal moveJournal;
+
+    @Mock
+    private GameServiceInterface gameService;
+
+    @Mock
+    private GameRepository gameRepository;
+
+    @InjectMocks
+    private JournalRecovery recovery;
+
+    @BeforeEach
+    void movesCommit() {
+        // Not reached when every game is abandoned
+        lenient().when(gameService.makeMoveAsync(any(), anyString(), anyString(), anyString(), anyString(), any()))
+            .thenAnswer(invocation -> CompletableFuture.completedFuture(null));
+    }
+
+    private void savedPlies(long gameId, Integer plyCount) {
+        GameRepository.GameVersion version = mock(GameRepository.GameVersion.class);
+        when(version.getPlyCount()).thenReturn(plyCount);
+        when(gameRepository.findVersionById(gameId)).thenReturn(Optional.of(version));
+    }
+
+    private void verifyReplayed(long gameId, int times) {
+        verify(gameService, times(times)).makeMoveAsync(eq(gameId), anyString(), anyString(), anyString(),
+                                                        anyString(), any());
+    }
+
+    @Test
+    void skipsMovesAlreadySavedAndReplaysTheRest() {
+        savedPlies(1, 2);
+
+        long last = recovery.replay(List.of(JournalSegmentTest.record(10, 1, 1), JournalSegmentTest.record(11, 1, 2),
+                                            JournalSegmentTest.record(12, 1, 3), JournalSegmentTest.record(13, 1, 4)));
+
+        assertEquals(13, last);
+        verifyReplayed(1, 2);
+        verify(gameRepository, times(1)).findVersionById(1L);
+    }
+
+    @Test
+    void stopsAGameAtAGap() {
+        savedPlies(1, 2);
+        savedPlies(2, null);
+
+        recovery.replay(List.of(JournalSegmentTest.record(1, 1, 3), JournalSegmentTest.record(2, 1, 5),
+                                JournalSegmentTest.record(3, 2, 1), JournalSegmentTest.record(4, 1, 6),
+                                JournalSegmentTest.record(5, 2, 2)));
+
+        // Move 3 only: 4 is missing, so 5 and 6 cannot be played
+        verifyReplayed(1, 1);
+        verifyReplayed(2, 2);
+    }
+
+    @Test
+    void abandonsUnknownGamesAfterOneLookup() {
+        when(gameRepository.findVersionById(1L)).thenReturn(Optional.empty());
+
+        long last = recovery.replay(List.of(JournalSegmentTest.record(4, 1, 1), JournalSegmentTest.record(5, 1, 2)));
+
+        assertEquals(5, last);
+        verifyReplayed(1, 0);
+        verify(gameRepository, times(1)).findVersionById(1L);
+    }
+
+    @Test
+    void abandonsAGameWhoseMoveIsRefused() {
+        savedPlies(1, 0);
+        savedPlies(2, 0);
+        when(gameService.makeMoveAsync(eq(1L), anyString(), anyString(), anyString(), anyString(), any()))
+            .thenThrow(new IllegalStateException("Illegal move"));
+
+        recovery.replay(List.of(JournalSegmentTest.record(1, 1, 1), JournalSegmentTest.record(2, 2, 1),
+                                JournalSegmentTest.record(3, 1, 2), JournalSegmentTest.record(4, 2, 2)));
+
+        verifyReplayed(1, 1);
+        verifyReplayed(2, 2);
+        verify(moveJournal, never()).persisted(any(Long.class));
+    }
+}
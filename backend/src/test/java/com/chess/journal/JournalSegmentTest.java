@@ -0,0 +1,116 @@
+package com.chess.journal;
+
+import com.chess.engine.Bitboards;
+import com.chess.engine.Piece;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JournalSegmentTest {
+
+    private static final int HEADER_SIZE = 8;
+
+    @TempDir
+    Path directory;
+
+    private final ByteBuffer scratch = ByteBuffer.allocate(JournalRecord.SIZE);
+    private final CRC32C crc = new CRC32C();
+
+    static JournalRecord record(long sequence, long gameId, int moveNumber) {
+        return new JournalRecord(sequence, gameId, moveNumber, Bitboards.parseSquare("e2"),
+                                 Bitboards.parseSquare("e4"), Piece.PAWN, Piece.WHITE, Piece.NONE,
+                                 1_700_000_000_000L + sequence);
+    }
+
+    private JournalSegment segmentWith(int capacityRecords, int written) throws IOException {
+        JournalSegment segment = JournalSegment.create(directory, 1, HEADER_SIZE + capacityRecords * JournalRecord.SIZE);
+        for (int i = 1; i <= written; i++) {
+            record(i, 7, i).encode(scratch, crc);
+            segment.write(scratch, i);
+        }
+        return segment;
+    }
+
+    private List<JournalRecord> read(Path path) throws IOException {
+        List<JournalRecord> records = new ArrayList<>();
+        assertTrue(JournalSegment.read(path, records));
+        return records;
+    }
+
+    private static void overwrite(Path path, long offset, byte... bytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(bytes), offset);
+        }
+    }
+
+    @Test
+    void readsBackWhatWasWritten() throws IOException {
+        JournalSegment segment = segmentWith(10, 3);
+        segment.force();
+
+        List<JournalRecord> records = read(segment.path);
+
+        assertEquals(List.of(record(1, 7, 1), record(2, 7, 2), record(3, 7, 3)), records);
+        assertEquals(3, segment.lastSequence);
+        assertEquals("e2", records.get(0).fromSquare());
+        assertEquals(null, records.get(0).promotionName());
+    }
+
+    @Test
+    void blankRemainderEndsTheScan() throws IOException {
+        JournalSegment segment = segmentWith(10, 0);
+
+        assertTrue(read(segment.path).isEmpty());
+    }
+
+    @Test
+    void corruptRecordStopsTheScan() throws IOException {
+        JournalSegment segment = segmentWith(10, 3);
+        // One payload byte of the second record: its CRC no longer matches
+        overwrite(segment.path, HEADER_SIZE + JournalRecord.SIZE + 20, (byte) 0x5A);
+
+        assertEquals(List.of(record(1, 7, 1)), read(segment.path));
+    }
+
+    @Test
+    void tornTailStopsTheScan() throws IOException {
+        JournalSegment segment = segmentWith(10, 3);
+        // The third record cut short: its end never reached the file
+        long tail = HEADER_SIZE + 2L * JournalRecord.SIZE + 16;
+        overwrite(segment.path, tail, new byte[JournalRecord.SIZE - 16]);
+
+        assertEquals(List.of(record(1, 7, 1), record(2, 7, 2)), read(segment.path));
+    }
+
+    @Test
+    void hasRoomUntilFull() throws IOException {
+        JournalSegment segment = segmentWith(2, 1);
+        assertTrue(segment.hasRoom());
+
+        record(2, 7, 2).encode(scratch, crc);
+        segment.write(scratch, 2);
+
+        assertFalse(segment.hasRoom());
+        assertEquals(2, read(segment.path).size());
+    }
+
+    @Test
+    void rejectsFilesThatAreNotSegments() throws IOException {
+        Path other = Files.write(directory.resolve("moves-1.journal"), new byte[64]);
+
+        assertFalse(JournalSegment.read(other, new ArrayList<>()));
+    }
+}
@@ -0,0 +1,142 @@
+package com.chess.journal;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MoveJournalTest {
+
+    // Records in a 1 MB segment after its header
+    private static final int PER_SEGMENT = (1024 * 1024 - 8) / JournalRecord.SIZE;
+
+    @TempDir
+    Path directory;
+
+    private MoveJournal journal;
+
+    @BeforeEach
+    void openJournal() throws IOException {
+        journal = newJournal();
+        assertTrue(journal.recover().isEmpty());
+        journal.open(1);
+    }
+
+    @AfterEach
+    void closeJournal() throws InterruptedException {
+        journal.close();
+    }
+
+    private MoveJournal newJournal() {
+        MoveJournal created = new MoveJournal();
+        ReflectionTestUtils.setField(created, "dir", directory.toString());
+        ReflectionTestUtils.setField(created, "segmentMb", 1);
+        return created;
+    }
+
+    /**
+     * Appends records of one game numbered from 1 and waits until they are forced
+     */
+    private void append(int count) {
+        List<CompletableFuture<Void>> durable = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            CompletableFuture<Void> future = new CompletableFuture<>();
+            journal.append(JournalSegmentTest.record(0, 7, i), future);
+            durable.add(future);
+        }
+        CompletableFuture.allOf(durable.toArray(CompletableFuture[]::new)).orTimeout(30, TimeUnit.SECONDS).join();
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "moves-*.journal")) {
+            stream.forEach(files::add);
+        }
+        files.sort(null);
+        return files;
+    }
+
+    private void persisted(long from, long to) {
+        for (long sequence = from; sequence <= to; sequence++) {
+            journal.persisted(sequence);
+        }
+    }
+
+    @Test
+    void acknowledgedRecordsAreRecoveredInOrder() throws Exception {
+        append(5);
+        journal.close();
+
+        journal = newJournal();
+        List<JournalRecord> records = journal.recover();
+
+        assertEquals(5, records.size());
+        for (int i = 0; i < records.size(); i++) {
+            assertEquals(i + 1, records.get(i).sequence());
+            assertEquals(i + 1, records.get(i).moveNumber());
+        }
+        journal.open(6);
+    }
+
+    @Test
+    void rollsOverWhenTheSegmentIsFull() throws Exception {
+        append(PER_SEGMENT + 1);
+
+        List<Path> files = segmentFiles();
+        assertEquals(2, files.size());
+        assertTrue(files.get(1).getFileName().toString().contains(String.format("%020d", PER_SEGMENT + 1)));
+
+        journal.close();
+        journal = newJournal();
+        List<JournalRecord> records = journal.recover();
+        assertEquals(PER_SEGMENT + 1, records.size());
+        assertEquals(PER_SEGMENT + 1, records.get(PER_SEGMENT).sequence());
+        journal.open(PER_SEGMENT + 2);
+    }
+
+    @Test
+    void deletesOnlyFullyPersistedSegments() throws Exception {
+        append(PER_SEGMENT + 1);
+        Path first = segmentFiles().get(0);
+        Path active = segmentFiles().get(1);
+
+        // One record of the first segment still only in the journal
+        persisted(1, PER_SEGMENT - 1);
+        journal.deletePersistedSegments();
+        assertTrue(Files.exists(first));
+
+        persisted(PER_SEGMENT, PER_SEGMENT + 1);
+        journal.deletePersistedSegments();
+        assertFalse(Files.exists(first));
+        // The segment being written is kept even when all its records are persisted
+        assertTrue(Files.exists(active));
+    }
+
+    @Test
+    void openDeletesThePreviousRunsSegments() throws Exception {
+        append(3);
+        journal.close();
+
+        journal = newJournal();
+        journal.recover();
+        journal.open(4);
+
+        List<Path> files = segmentFiles();
+        assertEquals(1, files.size());
+        assertTrue(files.get(0).getFileName().toString().contains(String.format("%020d", 4)));
+    }
+}
@@ -0,0 +1,233 @@
+package com.chess.bench;
+
+import com.chess.ChessApplication;
+import com.chess.model.User;
+import com.chess.repository.UserRepository;
+import com.chess.service.GameServiceInterface;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Concurrent games a server sustains at a fixed p99 move latency, with platform threads and then
+ * with virtual threads (spring.threads.virtual.enabled, skipped below Java 21). Not a JMH benchmark:
+ * the full server runs on a random port and each game is a STOMP client playing
+ * {@link MakeMoveBenchmark#LINE} with a think time between moves. Latency is measured from the SEND
+ * of a move to its broadcast on the game topic. The number of games doubles at each level until the
+ * p99 passes the target; the previous level is the sustained count.
+ * <pre>
+ * java -DthinkMs=100 -Dp99Ms=50 -Dlevels=16,32,64,128,256,512 -cp chess-bench/target/benchmarks.jar com.chess.bench.ConcurrentGamesBenchmark
+ * </pre>
+ */
+public class ConcurrentGamesBenchmark {
+
+    private static final long THINK_MS = Long.getLong("thinkMs", 100);
+    private static final double P99_MS = Double.parseDouble(System.getProperty("p99Ms", "50"));
+    private static final long WARMUP_SECONDS = Long.getLong("warmupSeconds", 3);
+    private static final long MEASURE_SECONDS = Long.getLong("measureSeconds", 10);
+    private static final int[] LEVELS = Arrays.stream(System.getProperty("levels", "16,32,64,128,256,512").split(","))
+                                              .mapToInt(Integer::parseInt).toArray();
+
+    public static void main(String[] args) throws Exception {
+        int platform = run(false);
+        if (Runtime.version().feature() >= 21) {
+            int virtual = run(true);
+            System.out.printf("%nSustained games at p99 <= %.0f ms: platform threads %d, virtual threads %d%n",
+                              P99_MS, platform, virtual);
+        } else {
+            System.out.printf("%nSustained games at p99 <= %.0f ms: platform threads %d (virtual threads need Java 21)%n",
+                              P99_MS, platform);
+        }
+        System.exit(0);
+    }
+
+    /**
+     * Runs every level against a fresh server and returns the largest one whose p99 stayed under target
+     */
+    private static int run(boolean virtualThreads) throws Exception {
+        String mode = virtualThreads ? "virtual threads" : "platform threads";
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(ChessApplication.class)
+                .properties("spring.config.name=chess-bench")
+                .run("--server.port=0", "--spring.threads.virtual.enabled=" + virtualThreads);
+        Server server = new Server(context);
+        WebSocketStompClient stompClient = new WebSocketStompClient(new StandardWebSocketClient());
+        stompClient.setMessageConverter(new MappingJackson2MessageConverter());
+        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2);
+
+        System.out.printf("%n%s, %d ms think time%n%8s %10s %10s %10s %10s %8s%n",
+                          mode, THINK_MS, "games", "moves/s", "p50 ms", "p99 ms", "max ms", "errors");
+        List<Player> players = new ArrayList<>();
+        int sustained = 0;
+        try {
+            for (int level : LEVELS) {
+                while (players.size() < level) {
+                    Player player = new Player(server, scheduler);
+                    player.connect(stompClient);
+                    players.add(player);
+                }
+                TimeUnit.SECONDS.sleep(WARMUP_SECONDS);
+                server.latencies.clear();
+                server.errors.set(0);
+                TimeUnit.SECONDS.sleep(MEASURE_SECONDS);
+
+                long[] sorted = server.latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+                double p99 = percentile(sorted, 0.99);
+                System.out.printf("%8d %10.0f %10.1f %10.1f %10.1f %8d%n", level,
+                                  sorted.length / (double) MEASURE_SECONDS, percentile(sorted, 0.50), p99,
+                                  sorted.length > 0 ? sorted[sorted.length - 1] / 1e6 : 0, server.errors.get());
+                if (p99 > P99_MS || sorted.length == 0) {
+                    break;
+                }
+                sustained = level;
+            }
+        } finally {
+            for (Player player : players) {
+                player.stop();
+            }
+            scheduler.shutdownNow();
+            // Let the server handle the DISCONNECT frames before its channels shut down
+            TimeUnit.SECONDS.sleep(1);
+            context.close();
+        }
+        return sustained;
+    }
+
+    private static double percentile(long[] sorted, double fraction) {
+        if (sorted.length == 0) {
+            return Double.NaN;
+        }
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * fraction))] / 1e6;
+    }
+
+    /**
+     * Running server, its two players and the latencies recorded by every game
+     */
+    private static final class Server {
+        final GameServiceInterface gameService;
+        final User white;
+        final User black;
+        final String url;
+        final ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        final AtomicLong errors = new AtomicLong();
+
+        Server(ConfigurableApplicationContext context) {
+            gameService = context.getBean(GameServiceInterface.class);
+            UserRepository users = context.getBean(UserRepository.class);
+            white = users.save(new User("bench-white", "x"));
+            black = users.save(new User("bench-black", "x"));
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            url = "ws://localhost:" + port + "/websocket";
+        }
+    }
+
+    /**
+     * One STOMP session playing one game at a time: a move is sent, its broadcast awaited, then the
+     * next move follows after the think time. A new game starts when the line is over.
+     */
+    private static final class Player extends StompSessionHandlerAdapter implements StompFrameHandler {
+        private final Server server;
+        private final ScheduledExecutorService scheduler;
+        private StompSession session;
+        private StompSession.Subscription subscription;
+        private volatile boolean stopped;
+        private Long gameId;
+        private int ply;
+        private long sentNanos;
+
+        Player(Server server, ScheduledExecutorService scheduler) {
+            this.server = server;
+            this.scheduler = scheduler;
+        }
+
+        void connect(WebSocketStompClient stompClient) throws Exception {
+            session = stompClient.connectAsync(server.url, this).get(10, TimeUnit.SECONDS);
+            newGame();
+        }
+
+        void stop() {
+            stopped = true;
+            if (session.isConnected()) {
+                session.disconnect();
+            }
+        }
+
+        private synchronized void newGame() {
+            if (subscription != null) {
+                subscription.unsubscribe();
+            }
+            gameId = server.gameService.createGame(server.white, server.black).getId();
+            ply = 0;
+            // Frames of one session are handled in order, so the subscription is in place before the first move
+            subscription = session.subscribe("/topic/game/" + gameId, this);
+            sendMove();
+        }
+
+        private synchronized void sendMove() {
+            if (stopped) {
+                return;
+            }
+            String[] move = MakeMoveBenchmark.LINE[ply];
+            Map<String, Object> message = new HashMap<>();
+            message.put("gameId", gameId);
+            message.put("from", move[0]);
+            message.put("to", move[1]);
+            message.put("piece", move[2]);
+            message.put("playerColor", (ply & 1) == 0 ? "WHITE" : "BLACK");
+            sentNanos = System.nanoTime();
+            session.send("/app/move", message);
+        }
+
+        @Override
+        public Type getPayloadType(StompHeaders headers) {
+            return Map.class;
+        }
+
+        @Override
+        public synchronized void handleFrame(StompHeaders headers, Object payload) {
+            Map<?, ?> message = (Map<?, ?>) payload;
+            if ("ERROR".equals(message.get("type"))) {
+                server.errors.incrementAndGet();
+                scheduler.schedule(this::newGame, THINK_MS, TimeUnit.MILLISECONDS);
+                return;
+            }
+            Object moveNumber = message.get("moveNumber");
+            if (!(moveNumber instanceof Number number) || number.intValue() != ply + 1) {
+                // GAME_OVER or a stale broadcast
+                return;
+            }
+            server.latencies.add(System.nanoTime() - sentNanos);
+            ply++;
+            if (ply == MakeMoveBenchmark.LINE.length) {
+                scheduler.schedule(this::newGame, THINK_MS, TimeUnit.MILLISECONDS);
+            } else {
+                scheduler.schedule(this::sendMove, THINK_MS, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        @Override
+        public void handleTransportError(StompSession session, Throwable exception) {
+            if (!stopped) {
+                server.errors.incrementAndGet();
+            }
+        }
+    }
+}
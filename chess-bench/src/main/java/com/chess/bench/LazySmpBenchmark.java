@@ -0,0 +1,75 @@
+package com.chess.bench;
+
+import com.chess.engine.EvaluationCache;
+import com.chess.engine.LazySmpSearch;
+import com.chess.engine.Position;
+import com.chess.engine.PositionHistory;
+import com.chess.engine.SearchLimits;
+import com.chess.engine.SearchResult;
+import com.chess.engine.TranspositionTable;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lazy-SMP scaling: nodes/sec of a fixed-time search with 1 to N threads sharing one transposition table.
+ * Override the thread counts with {@code -p threads=1,2,4,...,<cores>} to cover every core on the host.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LazySmpBenchmark {
+
+    private static final long SEARCH_MILLIS = 200;
+
+    @Param({ "1", "2", "4", "8" })
+    public int threads;
+
+    @Param({ "startpos", "kiwipete" })
+    public String position;
+
+    private ExecutorService helpers;
+    private LazySmpSearch search;
+    private PositionHistory root;
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Nodes {
+        public long nodes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            nodes = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        helpers = Executors.newFixedThreadPool(Math.max(1, threads - 1));
+        search = new LazySmpSearch(new TranspositionTable(64), new EvaluationCache(16), helpers);
+        root = new PositionHistory(Position.fromFen(PerftPositions.get(position).fen()));
+    }
+
+    @Setup(Level.Iteration)
+    public void clearTable() {
+        search.table().clear();
+        search.evaluationCache().clear();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        helpers.shutdownNow();
+    }
+
+    @Benchmark
+    public int search(Nodes counter) {
+        SearchResult result = search.search(root, new SearchLimits(SEARCH_MILLIS, 64), threads - 1);
+        counter.nodes += result.nodes();
+        return result.bestMove();
+    }
+}
@@ -0,0 +1,80 @@
+package com.chess.bench;
+
+import com.chess.ChessApplication;
+import com.chess.dto.GameDto;
+import com.chess.dto.MoveDto;
+import com.chess.model.User;
+import com.chess.repository.UserRepository;
+import com.chess.service.GameServiceInterface;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GameServiceImpl.makeMove end to end against an in-memory H2 database: validation against the in-memory
+ * game and the wait for the write-behind batch that commits the move.
+ * Each invocation plays the next ply of a fixed opening line; a fresh game is started when the line ends,
+ * so the score covers games of 1 to {@link #LINE} plies.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MakeMoveBenchmark {
+
+    // Ruy Lopez, closed: from, to, piece
+    static final String[][] LINE = {
+        { "e2", "e4", "PAWN" }, { "e7", "e5", "PAWN" }, { "g1", "f3", "KNIGHT" }, { "b8", "c6", "KNIGHT" },
+        { "f1", "b5", "BISHOP" }, { "a7", "a6", "PAWN" }, { "b5", "a4", "BISHOP" }, { "g8", "f6", "KNIGHT" },
+        { "e1", "g1", "KING" }, { "f8", "e7", "BISHOP" }, { "f1", "e1", "ROOK" }, { "b7", "b5", "PAWN" },
+        { "a4", "b3", "BISHOP" }, { "d7", "d6", "PAWN" }, { "c2", "c3", "PAWN" }, { "e8", "g8", "KING" },
+        { "h2", "h3", "PAWN" }, { "c6", "b8", "KNIGHT" }, { "d2", "d4", "PAWN" }, { "b8", "d7", "KNIGHT" }
+    };
+
+    private ConfigurableApplicationContext context;
+    private GameServiceInterface gameService;
+    private User white;
+    private User black;
+    private Long gameId;
+    private int ply;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ChessApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.config.name=chess-bench")
+                .run();
+        gameService = context.getBean(GameServiceInterface.class);
+        UserRepository users = context.getBean(UserRepository.class);
+        white = users.save(new User("bench-white", "x"));
+        black = users.save(new User("bench-black", "x"));
+        newGame();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private void newGame() {
+        GameDto game = gameService.createGame(white, black);
+        gameId = game.getId();
+        ply = 0;
+    }
+
+    @Benchmark
+    public MoveDto makeMove() {
+        if (ply == LINE.length) {
+            newGame();
+        }
+        String[] move = LINE[ply];
+        String color = (ply & 1) == 0 ? "WHITE" : "BLACK";
+        ply++;
+        return gameService.makeMove(gameId, move[0], move[1], move[2], color);
+    }
+}
@@ -0,0 +1,27 @@
+package com.chess.bench;
+
+import com.chess.service.MoveNotation;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Notation generation on the makeMove path.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MoveNotationBenchmark {
+
+    public String from = "g1";
+    public String to = "f3";
+    public String piece = "KNIGHT";
+
+    @Benchmark
+    public String generateMoveNotation() {
+        return MoveNotation.generate(from, to, piece);
+    }
+}
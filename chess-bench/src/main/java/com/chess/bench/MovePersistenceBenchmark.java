@@ -0,0 +1,104 @@
+package com.chess.bench;
+
+import com.chess.ChessApplication;
+import com.chess.dto.MoveDto;
+import com.chess.journal.MoveJournal;
+import com.chess.model.User;
+import com.chess.repository.UserRepository;
+import com.chess.service.GameServiceInterface;
+import com.chess.service.MoveWriteBehind;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Durable move throughput: {@link #GAMES} threads each play their own game, and every makeMove returns
+ * only once the write-behind batch holding the move has committed. Throughput is moves persisted per
+ * second; sample time is the latency a player sees, which grows with {@code lingerMs}.
+ * {@code batchSize} sets both the write-behind batch and {@code hibernate.jdbc.batch_size}, so 1 is the
+ * one-INSERT-per-move baseline. With {@code journal} the move returns once its journal record is
+ * forced, in a fresh temporary directory, and the batches only copy it to the database.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(MovePersistenceBenchmark.GAMES)
+public class MovePersistenceBenchmark {
+
+    static final int GAMES = 32;
+
+    @State(Scope.Benchmark)
+    public static class Server {
+
+        @Param({ "1", "50" })
+        public int batchSize;
+
+        @Param({ "0", "2", "10" })
+        public long lingerMs;
+
+        @Param({ "false", "true" })
+        public boolean journal;
+
+        ConfigurableApplicationContext context;
+        GameServiceInterface gameService;
+        User white;
+        User black;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            Path journalDir = Files.createTempDirectory("chess-journal");
+            context = new SpringApplicationBuilder(ChessApplication.class)
+                    .web(WebApplicationType.NONE)
+                    .properties("spring.config.name=chess-bench")
+                    // Arguments, unlike default properties, override chess-bench.properties
+                    .run("--chess.game.write-behind.batch-size=" + batchSize,
+                         "--chess.game.write-behind.linger-ms=" + lingerMs,
+                         "--spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize,
+                         "--chess.journal.enabled=" + journal,
+                         "--chess.journal.dir=" + journalDir);
+            gameService = context.getBean(GameServiceInterface.class);
+            UserRepository users = context.getBean(UserRepository.class);
+            white = users.save(new User("bench-white", "x"));
+            black = users.save(new User("bench-black", "x"));
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            MoveWriteBehind writeBehind = context.getBean(MoveWriteBehind.class);
+            System.out.printf("%n%d moves in %d batches, %.2f ms per commit%n",
+                              writeBehind.written(), writeBehind.batches(), writeBehind.meanCommitMillis());
+            if (journal) {
+                MoveJournal moveJournal = context.getBean(MoveJournal.class);
+                System.out.printf("%d journal records in %d group commits, %.1f us per force%n",
+                                  moveJournal.appended(), moveJournal.forces(), moveJournal.meanForceMicros());
+            }
+            context.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Player {
+        Long gameId;
+        int ply;
+    }
+
+    @Benchmark
+    public MoveDto makeMove(Server server, Player player) {
+        if (player.gameId == null || player.ply == MakeMoveBenchmark.LINE.length) {
+            player.gameId = server.gameService.createGame(server.white, server.black).getId();
+            player.ply = 0;
+        }
+        String[] move = MakeMoveBenchmark.LINE[player.ply];
+        String color = (player.ply & 1) == 0 ? "WHITE" : "BLACK";
+        player.ply++;
+        return server.gameService.makeMove(player.gameId, move[0], move[1], move[2], color);
+    }
+}
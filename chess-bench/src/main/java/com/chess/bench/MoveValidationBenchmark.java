@@ -0,0 +1,49 @@
+package com.chess.bench;
+
+import com.chess.engine.MoveGenerator;
+import com.chess.engine.Moves;
+import com.chess.engine.Piece;
+import com.chess.engine.Position;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the two engine calls on the makeMove path: full legal generation and single-move validation.
+ * Run with {@code -prof gc} to confirm both are allocation-free.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MoveValidationBenchmark {
+
+    @Param({ "startpos", "kiwipete", "position5" })
+    public String position;
+
+    private Position pos;
+    private final int[] moves = new int[MoveGenerator.MAX_MOVES];
+    private int from;
+    private int to;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        pos = Position.fromFen(PerftPositions.get(position).fen());
+        int count = MoveGenerator.generateLegal(pos, moves);
+        int last = moves[count - 1];
+        from = Moves.from(last);
+        to = Moves.to(last);
+    }
+
+    @Benchmark
+    public int generateLegal() {
+        return MoveGenerator.generateLegal(pos, moves);
+    }
+
+    @Benchmark
+    public int findLegalMove() {
+        return MoveGenerator.findLegalMove(pos, from, to, Piece.NONE);
+    }
+}
@@ -0,0 +1,59 @@
+package com.chess.bench;
+
+import com.chess.engine.Perft;
+import com.chess.engine.Position;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Perft node counting from the standard test positions. Every trial first checks the node count
+ * against the published value, so a broken move generator fails the run instead of reporting a score.
+ * The {@code nodes} auxiliary counter reports nodes/sec alongside ops/sec.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PerftBenchmark {
+
+    @Param({ "startpos", "kiwipete", "position3", "position4", "position5" })
+    public String position;
+
+    private Perft perft;
+    private int depth;
+    private long expectedNodes;
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Nodes {
+        public long nodes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            nodes = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        PerftPositions.Entry entry = PerftPositions.get(position);
+        depth = entry.depth();
+        expectedNodes = entry.nodes();
+        perft = new Perft(Position.fromFen(entry.fen()), depth);
+        long nodes = perft.count(depth);
+        if (nodes != expectedNodes) {
+            throw new IllegalStateException("Perft mismatch for " + position + " at depth " + depth
+                    + ": expected " + expectedNodes + " but got " + nodes);
+        }
+    }
+
+    @Benchmark
+    public long perft(Nodes counter) {
+        long nodes = perft.count(depth);
+        counter.nodes += nodes;
+        return nodes;
+    }
+}
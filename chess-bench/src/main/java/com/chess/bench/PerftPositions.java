@@ -0,0 +1,29 @@
+package com.chess.bench;
+
+import java.util.Map;
+
+/**
+ * Standard perft positions with their known node counts (chessprogramming.org "Perft Results").
+ */
+final class PerftPositions {
+
+    record Entry(String fen, int depth, long nodes) {}
+
+    private static final Map<String, Entry> POSITIONS = Map.of(
+        "startpos", new Entry("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1", 5, 4_865_609L),
+        "kiwipete", new Entry("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1", 4, 4_085_603L),
+        "position3", new Entry("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1", 5, 674_624L),
+        "position4", new Entry("r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1", 4, 422_333L),
+        "position5", new Entry("rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8", 4, 2_103_487L)
+    );
+
+    private PerftPositions() {}
+
+    static Entry get(String name) {
+        Entry entry = POSITIONS.get(name);
+        if (entry == null) {
+            throw new IllegalArgumentException("Unknown perft position: " + name);
+        }
+        return entry;
+    }
+}
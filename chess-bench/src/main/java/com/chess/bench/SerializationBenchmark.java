@@ -0,0 +1,76 @@
+package com.chess.bench;
+
+import com.chess.dto.GameDto;
+import com.chess.dto.MoveDto;
+import com.chess.model.Game;
+import com.chess.model.Move;
+import com.chess.model.User;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the DTOs sent over STOMP and REST, using the same
+ * ObjectMapper defaults Spring Boot configures for the message converters.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private MoveDto moveDto;
+    private GameDto gameDto;
+    private byte[] moveJson;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        User white = new User("alice", "secret");
+        white.setId(1L);
+        User black = new User("bob", "secret");
+        black.setId(2L);
+        Game game = new Game();
+        game.setId(42L);
+        game.setWhitePlayer(white);
+        game.setBlackPlayer(black);
+        game.setStatus(Game.GameStatus.ACTIVE);
+
+        Move move = new Move();
+        move.setId(1000L);
+        move.setGame(game);
+        move.setMoveNumber(1);
+        move.setPlayerColor("WHITE");
+        move.setFromPosition("e2");
+        move.setToPosition("e4");
+        move.setPieceType("PAWN");
+        move.setMoveNotation("Pe2-e4");
+
+        moveDto = new MoveDto(move);
+        gameDto = new GameDto(game);
+        moveJson = objectMapper.writeValueAsBytes(moveDto);
+    }
+
+    @Benchmark
+    public byte[] serializeMove() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(moveDto);
+    }
+
+    @Benchmark
+    public byte[] serializeGame() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(gameDto);
+    }
+
+    @Benchmark
+    public MoveDto deserializeMove() throws IOException {
+        return objectMapper.readValue(moveJson, MoveDto.class);
+    }
+}
@@ -2,7 +2,7 @@ import { Component, OnInit, OnDestroy } from '@angular/core';
 import { CommonModule } from '@angular/common';
 import { ActivatedRoute, Router } from '@angular/router';
 import { AuthService, User } from '../../services/auth.service';
-import { GameService, Game, Move } from '../../services/game.service';
+import { GameService, Game, Move, LegalMoves } from '../../services/game.service';
 import { WebSocketSimpleService } from '../../services/websocket-simple.service';
 import { Subscription } from 'rxjs';
 
@@ -33,6 +33,7 @@ export class ChessBoardComponent implements OnInit, OnDestroy {
   board: ChessSquare[] = [];
   currentUser: User | null = null;
   selectedSquare: ChessSquare | null = null;
+  legalMoves: LegalMoves | null = null;
   gameStatus = '';
   message = '';
   error = false;
@@ -138,9 +139,14 @@ export class ChessBoardComponent implements OnInit, OnDestroy {
       next: (response) => {
         this.game = response.game;
         this.moves = response.moves;
+        this.legalMoves = response.legalMoves ?? null;
         
         if (this.game) {
-          this.applyMovesToBoard();
+          if (response.fen) {
+            this.applyFenToBoard(response.fen);
+          } else {
+            this.applyMovesToBoard();
+          }
           this.updateGameStatus();
         } else {
           this.showMessage('Partie non trouvée', true);
@@ -165,9 +171,10 @@ export class ChessBoardComponent implements OnInit, OnDestroy {
       const moveSub = this.webSocketService.subscribe(`/topic/game/${this.gameId}`)
         .subscribe({
           next: (move) => {
-            if (move.id) {
+            if (move.moveNumber) {
               // New move received
               this.moves.push(move);
+              this.legalMoves = move.legalMoves ?? null;
               this.applyMoveToBoard(move);
               this.game!.currentTurn = this.game!.currentTurn === 'WHITE' ? 'BLACK' : 'WHITE';
               this.updateGameStatus();
@@ -196,6 +203,25 @@ export class ChessBoardComponent implements OnInit, OnDestroy {
     }
   }
 
+  // Draws the board from the piece placement field of a FEN, without replaying the moves
+  private applyFenToBoard(fen: string): void {
+    const types: { [letter: string]: string } = {
+      p: 'PAWN', n: 'KNIGHT', b: 'BISHOP', r: 'ROOK', q: 'QUEEN', k: 'KING'
+    };
+    this.board.forEach(square => square.piece = null);
+    fen.split(' ')[0].split('/').forEach((rank, row) => {
+      let col = 0;
+      for (const letter of rank) {
+        if (letter >= '1' && letter <= '8') {
+          col += parseInt(letter);
+        } else {
+          const color = letter === letter.toUpperCase() ? 'WHITE' : 'BLACK';
+          this.setPiece(row, col++, types[letter.toLowerCase()], color);
+        }
+      }
+    });
+  }
+
   private applyMovesToBoard(): void {
     this.moves.forEach(move => {
       this.applyMoveToBoard(move);
@@ -206,9 +232,30 @@ export class ChessBoardComponent implements OnInit, OnDestroy {
     const fromIndex = this.positionToIndex(move.fromPosition);
     const toIndex = this.positionToIndex(move.toPosition);
 
+    const piece = this.board[fromIndex].piece;
+
+    // En passant: a pawn moving diagonally to an empty square takes the pawn beside it
+    if (piece?.type === 'PAWN' && move.fromPosition[0] !== move.toPosition[0] && !this.board[toIndex].piece) {
+      this.board[this.positionToIndex(move.toPosition[0] + move.fromPosition[1])].piece = null;
+    }
+
     // Move piece
-    this.board[toIndex].piece = this.board[fromIndex].piece;
+    this.board[toIndex].piece = piece;
     this.board[fromIndex].piece = null;
+
+    // Castling: the king moves two files, the rook jumps over it
+    if (piece?.type === 'KING' && Math.abs(toIndex - fromIndex) === 2) {
+      const kingSide = toIndex > fromIndex;
+      const rookFrom = kingSide ? toIndex + 1 : toIndex - 2;
+      const rookTo = kingSide ? toIndex - 1 : toIndex + 1;
+      this.board[rookTo].piece = this.board[rookFrom].piece;
+      this.board[rookFrom].piece = null;
+    }
+
+    if (piece && move.promotion) {
+      const row = Math.floor(toIndex / 8);
+      this.setPiece(row, toIndex % 8, move.promotion, piece.color);
+    }
   }
 
   private positionToIndex(position: string): number {
@@ -266,151 +313,20 @@ export class ChessBoardComponent implements OnInit, OnDestroy {
   }
 
   private highlightValidMoves(square: ChessSquare): void {
-    // Basic move validation - can be expanded
-    const index = this.board.indexOf(square);
-    const row = Math.floor(index / 8);
-    const col = index % 8;
-
-    if (square.piece?.type === 'PAWN') {
-      this.highlightPawnMoves(row, col, square.piece.color);
-    } else if (square.piece?.type === 'ROOK') {
-      this.highlightRookMoves(row, col, square.piece.color);
-    } else if (square.piece?.type === 'BISHOP') {
-      this.highlightBishopMoves(row, col, square.piece.color);
-    } else if (square.piece?.type === 'QUEEN') {
-      this.highlightQueenMoves(row, col, square.piece.color);
-    } else if (square.piece?.type === 'KING') {
-      this.highlightKingMoves(row, col, square.piece.color);
-    } else if (square.piece?.type === 'KNIGHT') {
-      this.highlightKnightMoves(row, col, square.piece.color);
+    // Legal targets come from the server as a bitmask (bit i = square i, a1 = 0 ... h8 = 63)
+    const targets = this.legalMoves?.to[square.position];
+    if (!targets) {
+      return;
     }
-  }
-
-  private highlightPawnMoves(row: number, col: number, color: string): void {
-    const direction = color === 'WHITE' ? -1 : 1; // White moves up (-1), Black moves down (+1)
-    const startRow = color === 'WHITE' ? 6 : 1; // White starts at row 6, Black at row 1
-
-    // One square forward
-    const oneForward = (row + direction) * 8 + col;
-    if (oneForward >= 0 && oneForward < 64 && !this.board[oneForward].piece) {
-      this.board[oneForward].isValidMove = true;
 
-      // Two squares forward from starting position
-      if (row === startRow) {
-        const twoForward = (row + 2 * direction) * 8 + col;
-        if (twoForward >= 0 && twoForward < 64 && !this.board[twoForward].piece) {
-          this.board[twoForward].isValidMove = true;
-        }
+    const mask = BigInt('0x' + targets);
+    for (let sq = 0; sq < 64; sq++) {
+      if ((mask >> BigInt(sq)) & 1n) {
+        const row = 7 - Math.floor(sq / 8);
+        const col = sq % 8;
+        this.board[row * 8 + col].isValidMove = true;
       }
     }
-
-    // Diagonal captures
-    [-1, 1].forEach(colOffset => {
-      const captureIndex = (row + direction) * 8 + (col + colOffset);
-      if (captureIndex >= 0 && captureIndex < 64 &&
-        col + colOffset >= 0 && col + colOffset < 8) {
-        const targetPiece = this.board[captureIndex].piece;
-        if (targetPiece && targetPiece.color !== color) {
-          this.board[captureIndex].isValidMove = true;
-        }
-      }
-    });
-  }
-
-  private highlightRookMoves(row: number, col: number, color: string): void {
-    // Horizontal and vertical moves
-    const directions = [[0, 1], [0, -1], [1, 0], [-1, 0]];
-    
-    directions.forEach(([dRow, dCol]) => {
-      for (let i = 1; i < 8; i++) {
-        const newRow = row + dRow * i;
-        const newCol = col + dCol * i;
-        
-        if (newRow < 0 || newRow >= 8 || newCol < 0 || newCol >= 8) break;
-        
-        const index = newRow * 8 + newCol;
-        const targetPiece = this.board[index].piece;
-        
-        if (!targetPiece) {
-          this.board[index].isValidMove = true;
-        } else {
-          if (targetPiece.color !== color) {
-            this.board[index].isValidMove = true;
-          }
-          break;
-        }
-      }
-    });
-  }
-
-  private highlightBishopMoves(row: number, col: number, color: string): void {
-    // Diagonal moves
-    const directions = [[1, 1], [1, -1], [-1, 1], [-1, -1]];
-    
-    directions.forEach(([dRow, dCol]) => {
-      for (let i = 1; i < 8; i++) {
-        const newRow = row + dRow * i;
-        const newCol = col + dCol * i;
-        
-        if (newRow < 0 || newRow >= 8 || newCol < 0 || newCol >= 8) break;
-        
-        const index = newRow * 8 + newCol;
-        const targetPiece = this.board[index].piece;
-        
-        if (!targetPiece) {
-          this.board[index].isValidMove = true;
-        } else {
-          if (targetPiece.color !== color) {
-            this.board[index].isValidMove = true;
-          }
-          break;
-        }
-      }
-    });
-  }
-
-  private highlightQueenMoves(row: number, col: number, color: string): void {
-    // Queen moves like both rook and bishop
-    this.highlightRookMoves(row, col, color);
-    this.highlightBishopMoves(row, col, color);
-  }
-
-  private highlightKingMoves(row: number, col: number, color: string): void {
-    // King moves one square in any direction
-    const directions = [[0, 1], [0, -1], [1, 0], [-1, 0], [1, 1], [1, -1], [-1, 1], [-1, -1]];
-    
-    directions.forEach(([dRow, dCol]) => {
-      const newRow = row + dRow;
-      const newCol = col + dCol;
-      
-      if (newRow >= 0 && newRow < 8 && newCol >= 0 && newCol < 8) {
-        const index = newRow * 8 + newCol;
-        const targetPiece = this.board[index].piece;
-        
-        if (!targetPiece || targetPiece.color !== color) {
-          this.board[index].isValidMove = true;
-        }
-      }
-    });
-  }
-
-  private highlightKnightMoves(row: number, col: number, color: string): void {
-    // Knight moves in L-shape
-    const moves = [[2, 1], [2, -1], [-2, 1], [-2, -1], [1, 2], [1, -2], [-1, 2], [-1, -2]];
-    
-    moves.forEach(([dRow, dCol]) => {
-      const newRow = row + dRow;
-      const newCol = col + dCol;
-      
-      if (newRow >= 0 && newRow < 8 && newCol >= 0 && newCol < 8) {
-        const index = newRow * 8 + newCol;
-        const targetPiece = this.board[index].piece;
-        
-        if (!targetPiece || targetPiece.color !== color) {
-          this.board[index].isValidMove = true;
-        }
-      }
-    });
   }
 
   private async makeMove(fromSquare: ChessSquare, toSquare: ChessSquare): Promise<void> {
@@ -2,7 +2,7 @@ import { Component, OnInit, OnDestroy } from '@angular/core';
 import { CommonModule } from '@angular/common';
 import { Router } from '@angular/router';
 import { AuthService, User } from '../../services/auth.service';
-import { GameService } from '../../services/game.service';
+import { GameService, PresenceDelta } from '../../services/game.service';
 import { WebSocketSimpleService } from '../../services/websocket-simple.service';
 import { Subscription } from 'rxjs';
 
@@ -23,6 +23,10 @@ export class GameLobbyComponent implements OnInit, OnDestroy {
   showInvitations = false; // Pour contrôler l'affichage des invitations
 
   private subscriptions: Subscription[] = [];
+  // Presence version onlineUsers matches; deltas received while the snapshot loads wait in pendingDeltas
+  private presenceVersion = -1;
+  private presenceLoading = false;
+  private pendingDeltas: PresenceDelta[] = [];
 
   constructor(
     private authService: AuthService,
@@ -129,18 +133,8 @@ export class GameLobbyComponent implements OnInit, OnDestroy {
       const usersSub = this.webSocketService.subscribe('/topic/users')
         .subscribe({
           next: (message) => {
-            if (message && (message.type === 'USER_ONLINE' || message.type === 'USER_OFFLINE')) {
-              // Mettre à jour la liste des utilisateurs en ligne
-              if (message.data && Array.isArray(message.data)) {
-                this.onlineUsers = message.data;
-              }
-
-              // Afficher une notification
-              if (message.type === 'USER_ONLINE') {
-                this.showMessage(`${message.content} s'est connecté`, false);
-              } else {
-                this.showMessage(`${message.content} s'est déconnecté`, false);
-              }
+            if (message && message.type === 'PRESENCE' && message.data) {
+              this.applyPresenceDelta(message.data);
             }
           },
           error: () => {
@@ -156,16 +150,60 @@ export class GameLobbyComponent implements OnInit, OnDestroy {
   }
 
   private loadOnlineUsers(): void {
-    this.gameService.getOnlineUsers().subscribe({
-      next: (users) => {
-        this.onlineUsers = users;
+    this.presenceLoading = true;
+    this.gameService.getPresence().subscribe({
+      next: (snapshot) => {
+        this.onlineUsers = snapshot.users;
+        this.presenceVersion = snapshot.version;
+        this.presenceLoading = false;
+        const waiting = this.pendingDeltas;
+        this.pendingDeltas = [];
+        waiting.forEach(delta => this.applyPresenceDelta(delta, false));
       },
       error: () => {
+        this.presenceLoading = false;
         this.showMessage('Erreur lors du chargement des utilisateurs', true);
       }
     });
   }
 
+  private applyPresenceDelta(delta: PresenceDelta, notify = true): void {
+    if (this.presenceLoading) {
+      this.pendingDeltas.push(delta);
+      return;
+    }
+    if (delta.version <= this.presenceVersion) {
+      // Already in the snapshot
+      return;
+    }
+    if (delta.version !== this.presenceVersion + 1) {
+      // A delta was lost: start again from a snapshot
+      this.pendingDeltas.push(delta);
+      this.loadOnlineUsers();
+      return;
+    }
+    this.presenceVersion = delta.version;
+    const left = new Set(delta.left);
+    this.onlineUsers = this.onlineUsers
+      .filter(user => !left.has(user.username))
+      .concat(delta.joined)
+      .sort((a, b) => a.username.localeCompare(b.username));
+
+    if (notify) {
+      // Afficher une notification
+      const joined = delta.joined.map(user => user.username).filter(name => name !== this.currentUser?.username);
+      if (joined.length === 1) {
+        this.showMessage(`${joined[0]} s'est connecté`, false);
+      } else if (joined.length > 1) {
+        this.showMessage(`${joined.length} joueurs se sont connectés`, false);
+      } else if (delta.left.length === 1) {
+        this.showMessage(`${delta.left[0]} s'est déconnecté`, false);
+      } else if (delta.left.length > 1) {
+        this.showMessage(`${delta.left.length} joueurs se sont déconnectés`, false);
+      }
+    }
+  }
+
   private checkActiveGame(): void {
     if (this.currentUser) {
       this.gameService.getActiveGame(this.currentUser.username).subscribe({
@@ -10,6 +10,19 @@ export interface User {
   isOnline: boolean;
 }
 
+// Online users as of a presence version; the deltas of /topic/users above it apply on top
+export interface PresenceSnapshot {
+  version: number;
+  users: User[];
+}
+
+// Net presence change sent once per broadcast window; a version that is not the next one means a lost delta
+export interface PresenceDelta {
+  version: number;
+  joined: User[];
+  left: string[];
+}
+
 export interface Game {
   id: number;
   whitePlayer: User;
@@ -20,20 +33,36 @@ export interface Game {
   updatedAt: string;
 }
 
+// Legal moves of the side to move: hexadecimal square bitmasks, bit i = square i (a1 = 0 ... h8 = 63)
+export interface LegalMoves {
+  from: string;
+  to: { [square: string]: string };
+}
+
 export interface Move {
   id: number;
   fromPosition: string;
   toPosition: string;
   pieceType: string;
   playerColor: string;
+  promotion?: string;
   moveNumber: number;
   moveNotation: string;
+  legalMoves?: LegalMoves;
   createdAt: string;
 }
 
 export interface GameResponse {
   game: Game;
   moves: Move[];
+  legalMoves?: LegalMoves;
+  fen?: string;
+}
+
+export interface Position {
+  gameId: number;
+  ply: number;
+  fen: string;
 }
 
 export interface GameState {
@@ -64,6 +93,18 @@ export class GameService {
     this.apiUrl = `${this.configService.apiUrl}/game`;
   }
 
+  /**
+   * Récupère les utilisateurs en ligne avec la version de présence correspondante
+   */
+  getPresence(): Observable<PresenceSnapshot> {
+    return this.http.get<PresenceSnapshot>(`${this.apiUrl}/presence`)
+      .pipe(
+        retry(2),
+        catchError(this.handleError),
+        tap(() => this.log('Fetched presence snapshot'))
+      );
+  }
+
   /**
    * Récupère la liste des utilisateurs en ligne
    */
@@ -98,15 +139,31 @@ export class GameService {
   }
 
   /**
-   * Récupère les mouvements d'une partie
+   * Récupère la position (FEN) d'une partie après un demi-coup, ou la position courante
+   */
+  getPosition(gameId: number, ply?: number): Observable<Position> {
+    const params = ply !== undefined ? `?ply=${ply}` : '';
+    return this.http.get<Position>(`${this.apiUrl}/${gameId}/position${params}`)
+      .pipe(
+        retry(2),
+        catchError(this.handleError)
+      );
+  }
+
+  /**
+   * Récupère les mouvements d'une partie, ou seulement ceux joués après sinceMove
    */
-  getGameMoves(gameId: number): Observable<Move[]> {
-    return this.http.get<Move[]>(`${this.apiUrl}/${gameId}/moves`)
+  getGameMoves(gameId: number, sinceMove?: number): Observable<Move[]> {
+    const params = sinceMove !== undefined ? `?sinceMove=${sinceMove}` : '';
+    return this.http.get<Move[]>(`${this.apiUrl}/${gameId}/moves${params}`)
       .pipe(
         retry(2),
         catchError(this.handleError),
         tap(moves => {
-          this.updateGameState({ moves });
+          const known = sinceMove !== undefined
+            ? this.gameState.value.moves.filter(move => move.moveNumber <= sinceMove)
+            : [];
+          this.updateGameState({ moves: [...known, ...moves] });
           this.log(`Fetched ${moves.length} moves for game ${gameId}`);
         })
       );